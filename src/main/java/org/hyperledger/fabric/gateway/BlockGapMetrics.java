@@ -0,0 +1,33 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+/**
+ * Counts describing recovery of blocks missing from the block event stream of a network. All counts are zero if
+ * block gap recovery is not enabled.
+ * @see Network#getBlockGapMetrics()
+ * @see Gateway.Builder#blockGapRecovery(long, java.util.concurrent.TimeUnit, int)
+ */
+public interface BlockGapMetrics {
+    /**
+     * Get the number of gaps detected, where later blocks were received before the next expected block.
+     * @return A count of gaps.
+     */
+    long getGapCount();
+
+    /**
+     * Get the number of backfills started to recover missing blocks.
+     * @return A count of backfills.
+     */
+    long getBackfillCount();
+
+    /**
+     * Get the number of queued events discarded because they were beyond the gap window size.
+     * @return A count of events.
+     */
+    long getDiscardedEventCount();
+}
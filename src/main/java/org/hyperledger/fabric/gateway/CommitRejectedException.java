@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import org.hyperledger.fabric.protos.peer.TransactionPackage.TxValidationCode;
+
+/**
+ * Thrown when a submitted transaction is marked invalid by a peer when it is committed to the ledger.
+ */
+public class CommitRejectedException extends ContractException {
+	private final String transactionId;
+	private final TxValidationCode validationCode;
+
+	public CommitRejectedException(String message, String transactionId, TxValidationCode validationCode) {
+		super(message);
+		this.transactionId = transactionId;
+		this.validationCode = validationCode;
+	}
+
+	/**
+	 * Get the ID of the rejected transaction.
+	 * @return A transaction ID.
+	 */
+	public String getTransactionId() {
+		return transactionId;
+	}
+
+	/**
+	 * Get the validation code assigned to the transaction by the committing peer.
+	 * @return A validation code.
+	 */
+	public TxValidationCode getValidationCode() {
+		return validationCode;
+	}
+
+	/**
+	 * Check whether the transaction was rejected because ledger state it read was modified by another transaction
+	 * after endorsement. Such transactions may succeed if endorsed and submitted again.
+	 * @return true if the transaction failed due to a read conflict; otherwise false.
+	 */
+	public boolean isReadConflict() {
+		return validationCode == TxValidationCode.MVCC_READ_CONFLICT
+				|| validationCode == TxValidationCode.PHANTOM_READ_CONFLICT;
+	}
+}
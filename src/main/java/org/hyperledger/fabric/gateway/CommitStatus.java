@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import org.hyperledger.fabric.protos.peer.TransactionPackage.TxValidationCode;
+import org.hyperledger.fabric.sdk.BlockEvent;
+
+/**
+ * Commit outcome of a transaction included in a block.
+ * @see Network#addCommitStatusListener(java.util.function.Consumer)
+ */
+public interface CommitStatus {
+    /**
+     * Get the transaction ID.
+     * @return A transaction ID.
+     */
+    String getTransactionId();
+
+    /**
+     * Get the validation code assigned to the transaction when it was committed.
+     * @return A validation code.
+     */
+    TxValidationCode getValidationCode();
+
+    /**
+     * Determine whether the transaction was successfully committed and its updates applied to the ledger.
+     * @return true if the transaction is valid; otherwise false.
+     */
+    boolean isValid();
+
+    /**
+     * Get the number of the block containing the transaction.
+     * @return A block number.
+     */
+    long getBlockNumber();
+
+    /**
+     * Get the transaction event from which this commit status was obtained.
+     * @return A transaction event.
+     */
+    BlockEvent.TransactionEvent getTransactionEvent();
+}
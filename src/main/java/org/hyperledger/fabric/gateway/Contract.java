@@ -7,11 +7,16 @@
 package org.hyperledger.fabric.gateway;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 import org.hyperledger.fabric.gateway.spi.Checkpointer;
+import org.hyperledger.fabric.sdk.Peer;
+import org.reactivestreams.Publisher;
 
 /**
  * Represents a smart contract instance in a network.
@@ -43,6 +48,27 @@ public interface Contract {
 	 */
 	Transaction createTransaction(String name);
 
+	/**
+	 * Create an object representing a transaction function implemented by this contract, which can be used for
+	 * many invocations. Settings such as the chaincode ID and query handler are resolved once, so this is more
+	 * efficient than {@link #createTransaction(String)} for frequently invoked transaction functions.
+	 *
+	 * @param name Transaction function name.
+	 * @return A prepared transaction object.
+	 */
+	PreparedTransaction prepareTransaction(String name);
+
+	/**
+	 * Create an object representing a transaction function implemented by this contract, which can be used for
+	 * many invocations. Submitted transactions are endorsed by the specified peers.
+	 *
+	 * @param name Transaction function name.
+	 * @param endorsingPeers Endorsing peers.
+	 * @return A prepared transaction object.
+	 * @see Transaction#setEndorsingPeers(Collection)
+	 */
+	PreparedTransaction prepareTransaction(String name, Collection<Peer> endorsingPeers);
+
 	/**
 	 * Submit a transaction to the ledger. The transaction function {@code name}
 	 * will be evaluated on the endorsing peers and then submitted to the ordering service
@@ -142,6 +168,53 @@ public interface Contract {
 	 */
 	Consumer<ContractEvent> addContractListener(Checkpointer checkpointer, Consumer<ContractEvent> listener, Pattern eventNamePattern) throws IOException;
 
+	/**
+	 * Add a listener to receive all contract events emitted by transactions with checkpointing, where the transactions
+	 * within each block are processed concurrently using the supplied executor. Events emitted by a single transaction
+	 * are delivered in order on the same thread, but events from different transactions in a block may be delivered
+	 * concurrently, so the listener must be thread-safe. The checkpoint advances to the next block only once all
+	 * transactions within the current block have been processed. Re-adding a listener with the same checkpointer on
+	 * subsequent application invocations will resume listening from the previous block and transaction position.
+	 * @param checkpointer Checkpointer to persist block and transaction position.
+	 * @param listener A thread-safe contract listener.
+	 * @param executor Executor used to process the transactions within a block.
+	 * @return The contract listener argument.
+	 * @throws IOException if an error occurs establishing checkpointing.
+	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+	 */
+	Consumer<ContractEvent> addContractListener(Checkpointer checkpointer, Consumer<ContractEvent> listener, Executor executor) throws IOException;
+
+	/**
+	 * Add a listener to receive contract events emitted by transactions with checkpointing, where the transactions
+	 * within each block are processed concurrently using the supplied executor. The listener is only notified of
+	 * events with exactly the given name. See {@link #addContractListener(Checkpointer, Consumer, Executor)} for
+	 * details of the concurrency and checkpointing behaviour.
+	 * @param checkpointer Checkpointer to persist block and transaction position.
+	 * @param listener A thread-safe contract listener.
+	 * @param eventName Event name.
+	 * @param executor Executor used to process the transactions within a block.
+	 * @return The contract listener argument.
+	 * @throws IOException if an error occurs establishing checkpointing.
+	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+	 */
+	Consumer<ContractEvent> addContractListener(Checkpointer checkpointer, Consumer<ContractEvent> listener, String eventName, Executor executor) throws IOException;
+
+	/**
+	 * Add a listener to receive contract events emitted by transactions with checkpointing, where the transactions
+	 * within each block are processed concurrently using the supplied executor. The listener is only notified of
+	 * events with names that entirely match the given pattern. See
+	 * {@link #addContractListener(Checkpointer, Consumer, Executor)} for details of the concurrency and checkpointing
+	 * behaviour.
+	 * @param checkpointer Checkpointer to persist block and transaction position.
+	 * @param listener A thread-safe contract listener.
+	 * @param eventNamePattern Event name pattern.
+	 * @param executor Executor used to process the transactions within a block.
+	 * @return The contract listener argument.
+	 * @throws IOException if an error occurs establishing checkpointing.
+	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+	 */
+	Consumer<ContractEvent> addContractListener(Checkpointer checkpointer, Consumer<ContractEvent> listener, Pattern eventNamePattern, Executor executor) throws IOException;
+
 	/**
 	 * Add a listener to replay contract events emitted by transactions.
 	 * @param startBlock The number of the block from which events should be replayed.
@@ -178,4 +251,53 @@ public interface Contract {
 	 * @param listener A contract listener.
 	 */
 	void removeContractListener(Consumer<ContractEvent> listener);
+
+	/**
+	 * Add a listener to receive contract events emitted by transactions in batches. All events within a block are
+	 * delivered to the listener in a single call, in the order they appear in the block. The listener is not called
+	 * for blocks that contain no events from this contract.
+	 * @param listener A contract event batch listener.
+	 * @return The contract event batch listener argument.
+	 */
+	Consumer<List<ContractEvent>> addContractBatchListener(Consumer<List<ContractEvent>> listener);
+
+	/**
+	 * Add a listener to receive contract events emitted by transactions in batches, with checkpointing. All events
+	 * within a block are delivered to the listener in a single call, and the checkpoint advances once the listener
+	 * returns. If the listener throws an exception, the block is not checkpointed. Re-adding a listener with the same
+	 * checkpointer on subsequent application invocations will resume listening from the previous block position.
+	 * @param checkpointer Checkpointer to persist block position.
+	 * @param listener A contract event batch listener.
+	 * @return The contract event batch listener argument.
+	 * @throws IOException if an error occurs establishing checkpointing.
+	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+	 */
+	Consumer<List<ContractEvent>> addContractBatchListener(Checkpointer checkpointer, Consumer<List<ContractEvent>> listener) throws IOException;
+
+	/**
+	 * Add a listener to replay contract events emitted by transactions in batches. All events within a block are
+	 * delivered to the listener in a single call.
+	 * @param startBlock The number of the block from which events should be replayed.
+	 * @param listener A contract event batch listener.
+	 * @return The contract event batch listener argument.
+	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+	 */
+	Consumer<List<ContractEvent>> addContractBatchListener(long startBlock, Consumer<List<ContractEvent>> listener);
+
+	/**
+	 * Remove a previously registered contract event batch listener.
+	 * @param listener A contract event batch listener.
+	 */
+	void removeContractBatchListener(Consumer<List<ContractEvent>> listener);
+
+	/**
+	 * Create a Reactive Streams publisher of events emitted by transaction functions of this contract. Each
+	 * subscriber receives events from the point at which it subscribes, and events are delivered only as requested
+	 * by the subscriber. Up to the specified number of events are buffered for each subscriber while waiting for
+	 * demand. If the buffer is full when another event arrives, the subscription fails with an
+	 * {@link IllegalStateException}. Subscriptions complete when the network is closed.
+	 * @param bufferSize the maximum number of events to buffer for each subscriber.
+	 * @return A contract event publisher.
+	 */
+	Publisher<ContractEvent> newContractEventPublisher(int bufferSize);
 }
@@ -6,14 +6,19 @@
 
 package org.hyperledger.fabric.gateway;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.hyperledger.fabric.gateway.impl.AllCommitStrategy;
 import org.hyperledger.fabric.gateway.impl.AnyCommitStrategy;
 import org.hyperledger.fabric.gateway.impl.CommitHandlerImpl;
 import org.hyperledger.fabric.gateway.impl.CommitStrategy;
 import org.hyperledger.fabric.gateway.impl.NoOpCommitHandler;
+import org.hyperledger.fabric.gateway.impl.OrganizationCommitStrategy;
+import org.hyperledger.fabric.gateway.impl.QuorumCommitStrategy;
 import org.hyperledger.fabric.gateway.spi.CommitHandler;
 import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
 import org.hyperledger.fabric.sdk.Peer;
@@ -75,6 +80,78 @@ public enum DefaultCommitHandlers implements CommitHandlerFactory {
         this.factory = factory;
     }
 
+    /**
+     * Create a commit handler factory that waits to receive commit events from a given number of currently
+     * responding peers in the user's organization after submitting a transaction. Creating a commit handler throws
+     * {@link IllegalArgumentException} if fewer event source peers than the required number are on the channel.
+     * @param required Number of peers that must commit the transaction.
+     * @return A commit handler factory.
+     */
+    public static CommitHandlerFactory mspidScopeQuorum(int required) {
+        validateQuorum(required);
+        return (transactionId, network) -> {
+            Collection<Peer> peers = getEventSourcePeersForOrganization(network);
+            CommitStrategy strategy = new QuorumCommitStrategy(peers, required);
+            return new CommitHandlerImpl(transactionId, network, strategy);
+        };
+    }
+
+    /**
+     * Create a commit handler factory that waits to receive commit events from a given number of currently
+     * responding peers in the network after submitting a transaction. Creating a commit handler throws
+     * {@link IllegalArgumentException} if fewer event source peers than the required number are on the channel.
+     * @param required Number of peers that must commit the transaction.
+     * @return A commit handler factory.
+     */
+    public static CommitHandlerFactory networkScopeQuorum(int required) {
+        validateQuorum(required);
+        return (transactionId, network) -> {
+            Collection<Peer> peers = getEventSourcePeers(network);
+            CommitStrategy strategy = new QuorumCommitStrategy(peers, required);
+            return new CommitHandlerImpl(transactionId, network, strategy);
+        };
+    }
+
+    /**
+     * Create a commit handler factory that waits to receive a commit event from at least one currently responding
+     * peer in each of the specified organizations after submitting a transaction.
+     * @param mspIds MSP IDs of the organizations.
+     * @return A commit handler factory.
+     */
+    public static CommitHandlerFactory organizations(String... mspIds) {
+        return organizations(Arrays.asList(mspIds));
+    }
+
+    /**
+     * Create a commit handler factory that waits to receive a commit event from at least one currently responding
+     * peer in each of the specified organizations after submitting a transaction. Creating a commit handler throws
+     * {@link IllegalArgumentException} if any of the organizations has no event source peers on the channel.
+     * @param mspIds MSP IDs of the organizations.
+     * @return A commit handler factory.
+     */
+    public static CommitHandlerFactory organizations(Collection<String> mspIds) {
+        if (mspIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one organization must be specified");
+        }
+        return (transactionId, network) -> {
+            Map<String, Collection<Peer>> organizationPeers = new LinkedHashMap<>();
+            Collection<Peer> eventSourcePeers = getEventSourcePeers(network);
+            for (String mspId : mspIds) {
+                Collection<Peer> orgPeers = getPeersForOrganization(network, mspId);
+                orgPeers.retainAll(eventSourcePeers);
+                organizationPeers.put(mspId, orgPeers);
+            }
+            CommitStrategy strategy = new OrganizationCommitStrategy(organizationPeers);
+            return new CommitHandlerImpl(transactionId, network, strategy);
+        };
+    }
+
+    private static void validateQuorum(int required) {
+        if (required < 1) {
+            throw new IllegalArgumentException("Required number of peers must be at least 1: " + required);
+        }
+    }
+
     private static Collection<Peer> getEventSourcePeersForOrganization(Network network) {
         Collection<Peer> eventSourcePeers = getEventSourcePeers(network);
         Collection<Peer> orgPeers = getPeersForOrganization(network);
@@ -84,6 +161,10 @@ public enum DefaultCommitHandlers implements CommitHandlerFactory {
 
     private static Collection<Peer> getPeersForOrganization(Network network) {
         String mspId = network.getGateway().getIdentity().getMspId();
+        return getPeersForOrganization(network, mspId);
+    }
+
+    private static Collection<Peer> getPeersForOrganization(Network network, String mspId) {
         try {
             return network.getChannel().getPeersForOrganization(mspId);
         } catch (InvalidArgumentException e) {
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import org.hyperledger.fabric.gateway.impl.LatencyAwareEndorsementSelector;
+import org.hyperledger.fabric.sdk.ServiceDiscovery;
+
+/**
+ * Provides static factory methods used to create instances of default endorsement selector implementations, which
+ * choose the peers used to endorse transactions when service discovery is enabled.
+ * @see Gateway.Builder#endorsementSelector(ServiceDiscovery.EndorsementSelector)
+ */
+public final class DefaultEndorsementSelectors {
+    /**
+     * Pick endorsers satisfying the endorsement policy at random. This is the default behavior.
+     * @return An endorsement selector.
+     */
+    public static ServiceDiscovery.EndorsementSelector random() {
+        return ServiceDiscovery.EndorsementSelector.ENDORSEMENT_SELECTION_RANDOM;
+    }
+
+    /**
+     * Pick the endorsers satisfying the endorsement policy that are expected to respond soonest, based on measured
+     * proposal latency and the number of proposals currently in-flight to each endorser. Each call returns a new
+     * instance with its own measurements, which should not be shared between gateways.
+     * @return An endorsement selector.
+     */
+    public static ServiceDiscovery.EndorsementSelector latencyAware() {
+        return new LatencyAwareEndorsementSelector();
+    }
+
+    private DefaultEndorsementSelectors() { }
+}
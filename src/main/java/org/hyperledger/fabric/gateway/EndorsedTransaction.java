@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A transaction that has been successfully endorsed but not yet submitted to the orderer. Applications obtain
+ * instances using {@link Transaction#endorse(String...)}, and can submit the transaction at a later time from any
+ * thread. An endorsed transaction can be submitted only once.
+ */
+public interface EndorsedTransaction {
+	/**
+	 * Get the transaction ID.
+	 * @return A transaction ID.
+	 */
+	String getTransactionId();
+
+	/**
+	 * Get the payload response from the transaction function, as returned by the endorsing peers.
+	 * @return Payload response.
+	 */
+	byte[] getResult();
+
+	/**
+	 * Send the transaction to the orderer and wait for it to be committed. The transaction deadline and commit
+	 * timeout apply from the time this method is called.
+	 *
+	 * @return Payload response from the transaction function.
+	 * @throws ContractException if the transaction is rejected.
+	 * @throws TimeoutException if the transaction was successfully submitted to the orderer but
+	 * timed out before a commit event was received from peers.
+	 * @throws InterruptedException if the current thread is interrupted while waiting.
+	 * @throws IllegalStateException if the transaction has already been submitted.
+	 */
+	byte[] submit() throws ContractException, TimeoutException, InterruptedException;
+
+	/**
+	 * Send the transaction to the orderer without blocking while waiting for the transaction to be committed.
+	 *
+	 * @return A future that completes with the payload response from the transaction function.
+	 * @throws IllegalStateException if the transaction has already been submitted.
+	 * @see Transaction#submitAsync(String...)
+	 */
+	CompletableFuture<byte[]> submitAsync();
+
+	/**
+	 * Send the transaction to the orderer, returning as soon as the orderer has accepted it and without waiting for
+	 * the transaction to be committed. No commit listener is created for the transaction, so its outcome must be
+	 * observed using {@link Network#addCommitStatusListener(java.util.function.Consumer)}. The transaction deadline
+	 * applies from the time this method is called.
+	 *
+	 * @throws ContractException if the orderer does not accept the transaction.
+	 * @throws TimeoutException if the orderer does not respond in time.
+	 * @throws IllegalStateException if the transaction has already been submitted.
+	 */
+	void send() throws ContractException, TimeoutException;
+}
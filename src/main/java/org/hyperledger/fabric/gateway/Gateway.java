@@ -14,6 +14,7 @@ import java.util.concurrent.TimeUnit;
 import org.hyperledger.fabric.gateway.impl.GatewayImpl;
 import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
 import org.hyperledger.fabric.gateway.spi.QueryHandlerFactory;
+import org.hyperledger.fabric.sdk.ServiceDiscovery;
 
 /**
  * The Gateway provides the connection point for an application to access the Fabric network as a specific user. It is
@@ -137,6 +138,28 @@ public interface Gateway extends AutoCloseable {
 		 */
 		Builder commitTimeout(long timeout, TimeUnit timeUnit);
 
+		/**
+		 * <em>Optional</em> - Query peers directly for the validation status of a submitted transaction if its commit
+		 * has not been observed from block events within the specified time, and at the same interval thereafter until
+		 * the commit completes. This limits the delay caused by an event stream that stalls without disconnecting. By
+		 * default commit status is obtained only from block events.
+		 * @param interval the time to wait for commit events before querying.
+		 * @param timeUnit the time unit of the interval argument.
+		 * @return The builder instance, allowing multiple configuration options to be chained.
+		 */
+		Builder commitPollingInterval(long interval, TimeUnit timeUnit);
+
+		/**
+		 * <em>Optional</em> - Set the default maximum total time for a transaction submit, including endorsement,
+		 * sending to the orderer and waiting for commit events. If not set, each phase is bounded only by its own
+		 * timeout.
+		 * @param timeout the maximum time for a transaction submit.
+		 * @param timeUnit the time unit of the timeout argument.
+		 * @return The builder instance, allowing multiple configuration options to be chained.
+		 * @see Transaction#setDeadline(long, TimeUnit)
+		 */
+		Builder defaultDeadline(long timeout, TimeUnit timeUnit);
+
 		/**
 		 * <em>Optional</em> - Enable or disable service discovery for all transaction submissions for this gateway
 		 * @param enabled - true to enable service discovery
@@ -144,10 +167,107 @@ public interface Gateway extends AutoCloseable {
 		 */
 		Builder discovery(boolean enabled);
 
+		/**
+		 * <em>Optional</em> - Set the maximum time that service discovery endorsement plans are used before discovery
+		 * is forced for a transaction submit. Plans are also refreshed if a channel configuration block is received,
+		 * or if endorsement using a plan fails. Only applies if service discovery is enabled.
+		 * @param timeout the maximum time to use an endorsement plan.
+		 * @param timeUnit the time unit of the timeout argument.
+		 * @return The builder instance, allowing multiple configuration options to be chained.
+		 */
+		Builder discoveryCacheTimeout(long timeout, TimeUnit timeUnit);
+
+		/**
+		 * <em>Optional</em> - Allows an alternative endorsement selector to be specified. The endorsement selector
+		 * chooses the peers used to endorse transactions from those satisfying the endorsement policy. Only applies
+		 * if service discovery is enabled.
+		 * <p>Default endorsement selector implementations are defined in {@link DefaultEndorsementSelectors}.</p>
+		 * @param endorsementSelector An endorsement selector implementation.
+		 * @return The builder instance, allowing multiple configuration options to be chained.
+		 */
+		Builder endorsementSelector(ServiceDiscovery.EndorsementSelector endorsementSelector);
+
+		/**
+		 * <em>Optional</em> - Limit the number of transactions concurrently submitted, and separately evaluated, on
+		 * each network. The actual limit adapts below the specified maximum in response to observed latency and
+		 * timeouts, so that an overloaded network is not pushed further into failure. Requests beyond the current
+		 * limit wait in order of arrival, bounded by any transaction deadline. If the wait queue is full, requests
+		 * fail immediately with a {@link ContractException}. By default concurrency is not limited.
+		 * @param maxConcurrency the maximum number of concurrent requests.
+		 * @param maxQueueLength the maximum number of requests waiting to run.
+		 * @return The builder instance, allowing multiple configuration options to be chained.
+		 */
+		Builder concurrencyLimit(int maxConcurrency, int maxQueueLength);
+
+		/**
+		 * <em>Optional</em> - Record transactions sent to the orderer, and their commit outcomes, in an append-only
+		 * journal file for each network within the specified directory. Transactions whose outcome was not known
+		 * when the application stopped can be reconciled after a restart using
+		 * {@link Network#reconcileTransactions()}. Only one gateway at a time can use a given directory.
+		 * @param directory an existing directory in which to store journal files.
+		 * @return The builder instance, allowing multiple configuration options to be chained.
+		 */
+		Builder transactionJournal(Path directory);
+
+		/**
+		 * <em>Optional</em> - Retain the specified number of most recently received block events in memory for each
+		 * network. Listeners that replay events from a block within this window are served from memory and then
+		 * receive new events, rather than establishing new peer connections to replay events. By default no blocks
+		 * are retained.
+		 * @param size the maximum number of block events to retain.
+		 * @return The builder instance, allowing multiple configuration options to be chained.
+		 */
+		Builder blockCacheSize(int size);
+
+		/**
+		 * <em>Optional</em> - Archive blocks received from each network in append-only files within a subdirectory,
+		 * named after the network, of the specified directory. Archived blocks can be read back using
+		 * {@link Network#readArchivedBlocks(long, java.util.function.Consumer)} without requesting them from peers.
+		 * Only one gateway at a time can use a given directory. Filtered blocks are not archived.
+		 * @param directory a directory in which to store block archives.
+		 * @return The builder instance, allowing multiple configuration options to be chained.
+		 */
+		Builder blockArchive(Path directory);
+
+		/**
+		 * <em>Optional</em> - Recover blocks that are missing from a network's event stream. If a block is not
+		 * received within the specified timeout after later blocks have arrived, or more than the specified number of
+		 * later blocks are waiting, events are replayed from peers starting at the missing block until the gap is
+		 * closed. Waiting blocks beyond the window size are discarded and received again from the replay. By default
+		 * listeners wait indefinitely for missing blocks.
+		 * @param timeout the time to wait for a missing block.
+		 * @param timeUnit the time unit for the timeout.
+		 * @param windowSize the maximum number of blocks waiting behind a missing block, or zero for no limit.
+		 * @return The builder instance, allowing multiple configuration options to be chained.
+		 * @see Network#getBlockGapMetrics()
+		 */
+		Builder blockGapRecovery(long timeout, TimeUnit timeUnit, int windowSize);
+
+		/**
+		 * <em>Optional</em> - Keep block events flowing when an event source peer disconnects by receiving them from
+		 * a standby peer in the same organization. Standby peers are peers on the channel that do not have the
+		 * {@link org.hyperledger.fabric.sdk.Peer.PeerRole#EVENT_SOURCE} role, and do not stream block events while
+		 * event source peers are connected. To limit block bandwidth, give the event source role to one peer in each
+		 * organization and leave the others as standbys. A standby receives events from the block after the last one
+		 * received until the disconnected peer delivers events again. Peers on the channel are not modified, and
+		 * commit handlers continue to wait for commit events from event source peers. By default block events are
+		 * received only from event source peers.
+		 * @param enabled true to enable event source failover; otherwise false.
+		 * @return The builder instance, allowing multiple configuration options to be chained.
+		 */
+		Builder eventSourceFailover(boolean enabled);
+
 		/**
 		 * Connects to the gateway using the specified options.
 		 * @return The connected {@link Gateway} object.
 		 */
 		Gateway connect();
+
+		/**
+		 * Connects to the network using the specified options, and returns a pool from which gateways acting as
+		 * other identities can be obtained. All gateways from the pool share the same network connections.
+		 * @return A {@link GatewayPool} object.
+		 */
+		GatewayPool connectPool();
 	}
 }
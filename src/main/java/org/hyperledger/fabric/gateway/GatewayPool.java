@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.io.IOException;
+
+/**
+ * A pool of gateways that act as different identities while sharing a single set of network connections. All
+ * gateways obtained from the pool share channel configuration, peer and orderer connections, and event streams. Only
+ * transaction signing is performed using each gateway's own identity, so the number of network connections is
+ * independent of the number of identities.
+ * <p>A pool is created using {@link Gateway.Builder#connectPool()}. The identity configured on the builder is used for
+ * channel level operations such as channel initialization and event service connections.</p>
+ * <p>Gateways obtained from the pool should not be used after the pool is closed.</p>
+ * <pre><code>
+ *     try (GatewayPool pool = builder.connectPool()) {
+ *         Gateway gateway = pool.getGateway(wallet, "tenant1");
+ *         Contract contract = gateway.getNetwork("mychannel").getContract("mycontract");
+ *         contract.submitTransaction("txn", "arg");
+ *     }
+ * </code></pre>
+ */
+public interface GatewayPool extends AutoCloseable {
+	/**
+	 * Get a gateway that acts as the specified identity. Repeated calls for the same identity return the same
+	 * gateway instance until that gateway is closed, after which a new gateway is returned.
+	 * @param identity An identity.
+	 * @return A gateway using the identity.
+	 * @throws IllegalStateException if the pool is closed.
+	 */
+	Gateway getGateway(Wallet.Identity identity);
+
+	/**
+	 * Get a gateway that acts as an identity stored in a wallet.
+	 * @param wallet The {@link Wallet} object containing the identity.
+	 * @param id The name of the identity stored in the wallet.
+	 * @return A gateway using the identity.
+	 * @throws IOException if the specified identity can not be loaded from the wallet.
+	 */
+	Gateway getGateway(Wallet wallet, String id) throws IOException;
+
+	/**
+	 * Close all gateways obtained from the pool and release the shared network connections.
+	 */
+	void close();
+}
@@ -8,13 +8,18 @@ package org.hyperledger.fabric.gateway;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import org.hyperledger.fabric.gateway.spi.Checkpointer;
 import org.hyperledger.fabric.gateway.spi.CommitListener;
+import org.hyperledger.fabric.protos.common.Common;
+import org.hyperledger.fabric.protos.peer.TransactionPackage.TxValidationCode;
 import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.Channel;
 import org.hyperledger.fabric.sdk.Peer;
+import org.reactivestreams.Publisher;
 
 /**
  * A Network object represents the set of peers in a Fabric network (channel).
@@ -95,6 +100,32 @@ public interface Network {
 	 */
 	void removeBlockListener(Consumer<BlockEvent> listener);
 
+	/**
+	 * Create a Reactive Streams publisher of block events from the network. Each subscriber receives events in order
+	 * and without duplication, from the point at which it subscribes, and events are delivered only as requested by
+	 * the subscriber. Up to the specified number of events are buffered for each subscriber while waiting for
+	 * demand. If the buffer is full when another event arrives, the subscription fails with an
+	 * {@link IllegalStateException}. Subscriptions complete when the network is closed.
+	 * @param bufferSize the maximum number of events to buffer for each subscriber.
+	 * @return A block event publisher.
+	 */
+	Publisher<BlockEvent> newBlockPublisher(int bufferSize);
+
+	/**
+	 * Add a listener to receive the commit status of each transaction included in blocks received from the network.
+	 * Statuses are received in block order and without duplication. A single listener can observe the outcome of
+	 * many transactions submitted without waiting for commit, using {@link EndorsedTransaction#send()}.
+	 * @param listener A commit status listener.
+	 * @return The commit status listener argument.
+	 */
+	Consumer<CommitStatus> addCommitStatusListener(Consumer<CommitStatus> listener);
+
+	/**
+	 * Removes a previously added commit status listener.
+	 * @param listener A commit status listener.
+	 */
+	void removeCommitStatusListener(Consumer<CommitStatus> listener);
+
 	/**
 	 * Add a listener to receive transaction commit and peer disconnect events for a set of peers.
 	 * @param listener A transaction commit listener.
@@ -109,4 +140,37 @@ public interface Network {
 	 * @param listener A block listener.
 	 */
 	void removeCommitListener(CommitListener listener);
-}
\ No newline at end of file
+
+	/**
+	 * Determine the commit outcome of transactions recorded as pending in the transaction journal, typically by a
+	 * previous run of the application. Blocks are replayed from the earliest position at which a pending
+	 * transaction could have been committed, up to the current block height. Transactions that are not found
+	 * remain pending, and are checked again by the next reconciliation.
+	 * @return A future that completes with the validation codes of pending transactions found in the ledger.
+	 * @throws IllegalStateException if transaction journaling is not enabled.
+	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+	 * @see Gateway.Builder#transactionJournal(java.nio.file.Path)
+	 */
+	CompletableFuture<Map<String, TxValidationCode>> reconcileTransactions();
+
+	/**
+	 * Read blocks from the local block archive, passing them to the listener in order starting from the specified
+	 * block number. Reading stops at the first block that is not in the archive, and the number of that block is
+	 * returned. Remaining blocks can then be obtained from peers using {@link #addBlockListener(long, Consumer)}.
+	 * @param startBlock The number of the first block to read.
+	 * @param listener A listener to receive archived blocks.
+	 * @return The number of the first block not read from the archive.
+	 * @throws IOException if an error occurs reading the archive.
+	 * @throws IllegalStateException if block archiving is not enabled.
+	 * @see Gateway.Builder#blockArchive(java.nio.file.Path)
+	 */
+	long readArchivedBlocks(long startBlock, Consumer<Common.Block> listener) throws IOException;
+
+	/**
+	 * Get metrics for recovery of blocks missing from the block event stream. The returned object reflects current
+	 * values each time it is queried.
+	 * @return Block gap metrics.
+	 * @see Gateway.Builder#blockGapRecovery(long, java.util.concurrent.TimeUnit, int)
+	 */
+	BlockGapMetrics getBlockGapMetrics();
+}
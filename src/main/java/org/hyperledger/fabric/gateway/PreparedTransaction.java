@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A transaction function whose invocation settings are resolved once and reused for many invocations. Applications
+ * should obtain a prepared transaction using {@link Contract#prepareTransaction(String)} and retain it for repeated
+ * use, rather than creating a new transaction object for each invocation.
+ * <p>
+ * This implementation is thread-safe.
+ * </p>
+ */
+public interface PreparedTransaction {
+	/**
+	 * Get the fully qualified name of the transaction function.
+	 * @return Transaction name.
+	 */
+	String getName();
+
+	/**
+	 * Create a transaction object for a single invocation, initialized with the settings of this prepared
+	 * transaction. Use this when an invocation requires additional options, such as transient data.
+	 * @return A transaction object.
+	 */
+	Transaction createTransaction();
+
+	/**
+	 * Submit a transaction to the ledger.
+	 * @param args Transaction function arguments.
+	 * @return Payload response from the transaction function.
+	 * @throws ContractException if the transaction is rejected.
+	 * @throws TimeoutException if the transaction was successfully submitted to the orderer but
+	 * timed out before a commit event was received from peers.
+	 * @throws InterruptedException if the current thread is interrupted while waiting.
+	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+	 * @see Transaction#submit(String...)
+	 */
+	byte[] submit(String... args) throws ContractException, TimeoutException, InterruptedException;
+
+	/**
+	 * Submit a transaction to the ledger without blocking while waiting for the transaction to be committed.
+	 * @param args Transaction function arguments.
+	 * @return A future that completes with the payload response from the transaction function.
+	 * @see Transaction#submitAsync(String...)
+	 */
+	CompletableFuture<byte[]> submitAsync(String... args);
+
+	/**
+	 * Evaluate a transaction function and return its results.
+	 * @param args Transaction function arguments.
+	 * @return Payload response from the transaction function.
+	 * @throws ContractException if no peers are reachable or an error response is returned.
+	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+	 * @see Transaction#evaluate(String...)
+	 */
+	byte[] evaluate(String... args) throws ContractException;
+}
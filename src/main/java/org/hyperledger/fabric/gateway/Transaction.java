@@ -6,8 +6,10 @@
 
 package org.hyperledger.fabric.gateway;
 
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -49,6 +51,44 @@ public interface Transaction {
 	 */
 	Transaction setCommitTimeout(long timeout, TimeUnit timeUnit);
 
+	/**
+	 * Set the maximum total length of time that {@link #submit(String...)} may take, including endorsement, sending
+	 * to the orderer and waiting for commit events. Each phase is limited to the time remaining, so this may reduce
+	 * the effective commit timeout. A {@link TimeoutException} is thrown if the deadline expires in any phase.
+	 * @param timeout the maximum time for the submit.
+	 * @param timeUnit the time unit of the timeout argument.
+	 * @return this transaction object to allow method chaining.
+	 */
+	Transaction setDeadline(long timeout, TimeUnit timeUnit);
+
+	/**
+	 * Automatically retry a submitted transaction that fails to commit because ledger state it read was modified by
+	 * a concurrent transaction, indicated by a {@link CommitRejectedException} with a read conflict validation code.
+	 * Each retry endorses the transaction again, so obtains a new transaction ID, and is submitted after a random
+	 * delay of up to the backoff time, which doubles after each attempt. No retry is attempted if it would start
+	 * after the transaction deadline. By default transactions are not retried.
+	 * <p>Only enable retries for transaction functions whose effects are determined entirely by the ledger state
+	 * they read, since the transaction function may be invoked several times.</p>
+	 * @param maxRetries the maximum number of times to retry; zero to disable retries.
+	 * @param backoff the maximum delay before the first retry.
+	 * @param timeUnit the time unit of the backoff argument.
+	 * @return this transaction object to allow method chaining.
+	 * @see #setDeadline(long, TimeUnit)
+	 */
+	Transaction setCommitRetry(int maxRetries, long backoff, TimeUnit timeUnit);
+
+	/**
+	 * Set a key identifying the ledger state that this transaction is expected to modify, such as an account ID.
+	 * Submits of transactions for the same chaincode with the same conflict key are serialized so that each is
+	 * endorsed only after the previous one has committed or failed, avoiding read conflicts between them.
+	 * Transactions with different conflict keys, or with no conflict key, are submitted in parallel. Time spent
+	 * waiting for earlier transactions counts towards the transaction deadline.
+	 * @param conflictKey A conflict key, or null to submit without ordering.
+	 * @return this transaction object to allow method chaining.
+	 * @see #setDeadline(long, TimeUnit)
+	 */
+	Transaction setConflictKey(String conflictKey);
+
 	/**
 	 * Set the peers that should be used for endorsement of transaction submitted to the ledger using
 	 * {@link #submit(String...)}.
@@ -72,6 +112,76 @@ public interface Transaction {
 	 */
 	byte[] submit(String... args) throws ContractException, TimeoutException, InterruptedException;
 
+	/**
+	 * Submit a transaction that takes no arguments to the ledger.
+	 *
+	 * @return Payload response from the transaction function.
+	 * @throws ContractException if the transaction is rejected.
+	 * @throws TimeoutException if the transaction was successfully submitted to the orderer but
+	 * timed out before a commit event was received from peers.
+	 * @throws InterruptedException if the current thread is interrupted while waiting.
+	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+	 * @see #submit(String...)
+	 */
+	byte[] submit() throws ContractException, TimeoutException, InterruptedException;
+
+	/**
+	 * Submit a transaction with binary arguments to the ledger. The arguments are passed to the transaction
+	 * function without any character encoding.
+	 *
+	 * @param args Transaction function arguments.
+	 * @return Payload response from the transaction function.
+	 * @throws ContractException if the transaction is rejected.
+	 * @throws TimeoutException if the transaction was successfully submitted to the orderer but
+	 * timed out before a commit event was received from peers.
+	 * @throws InterruptedException if the current thread is interrupted while waiting.
+	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+	 * @see #submit(String...)
+	 */
+	byte[] submit(byte[]... args) throws ContractException, TimeoutException, InterruptedException;
+
+	/**
+	 * Submit a transaction with binary arguments to the ledger, and return the payload as a read-only view of the
+	 * proposal response content rather than a copy. This avoids copying large payloads.
+	 *
+	 * @param args Transaction function arguments.
+	 * @return Payload response from the transaction function.
+	 * @throws ContractException if the transaction is rejected.
+	 * @throws TimeoutException if the transaction was successfully submitted to the orderer but
+	 * timed out before a commit event was received from peers.
+	 * @throws InterruptedException if the current thread is interrupted while waiting.
+	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+	 * @see #submit(byte[]...)
+	 */
+	ByteBuffer submitForBuffer(byte[]... args) throws ContractException, TimeoutException, InterruptedException;
+
+	/**
+	 * Submit a transaction to the ledger without blocking while waiting for the transaction to be committed.
+	 * Endorsement is performed on the calling thread. Sending to the orderer and waiting for commit events complete
+	 * asynchronously, with timeouts tracked by a timer shared by all transactions for the gateway.
+	 * <p>The returned future completes exceptionally with a {@link ContractException} if the transaction is rejected,
+	 * a {@link TimeoutException} if the transaction was not committed in time, or a {@link GatewayRuntimeException}
+	 * if an underlying infrastructure failure occurs. Dependent actions that do not specify an executor may run on
+	 * the timer thread, so should not block.</p>
+	 * @param args Transaction function arguments.
+	 * @return A future that completes with the payload response from the transaction function.
+	 */
+	CompletableFuture<byte[]> submitAsync(String... args);
+
+	/**
+	 * Obtain endorsements for a transaction without sending it to the orderer. The returned endorsed transaction
+	 * can be submitted later to send it to the orderer and wait for it to be committed. This allows the endorsement
+	 * and ordering phases to be scheduled independently within an application.
+	 * <p>Commit retries and conflict keys do not apply to transactions submitted in this way, since the
+	 * transaction is not endorsed again.</p>
+	 * @param args Transaction function arguments.
+	 * @return An endorsed transaction.
+	 * @throws ContractException if no valid endorsements are received.
+	 * @throws TimeoutException if the transaction deadline expired before endorsements were received.
+	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+	 */
+	EndorsedTransaction endorse(String... args) throws ContractException, TimeoutException;
+
 	/**
 	 * Evaluate a transaction function and return its results.
 	 * The transaction function will be evaluated on the endorsing peers but
@@ -84,4 +194,38 @@ public interface Transaction {
 	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
 	 */
 	byte[] evaluate(String... args) throws ContractException;
+
+	/**
+	 * Evaluate a transaction function that takes no arguments and return its results.
+	 *
+	 * @return Payload response from the transaction function.
+	 * @throws ContractException if no peers are reachable or an error response is returned.
+	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+	 * @see #evaluate(String...)
+	 */
+	byte[] evaluate() throws ContractException;
+
+	/**
+	 * Evaluate a transaction function with binary arguments and return its results. The arguments are passed to
+	 * the transaction function without any character encoding.
+	 *
+	 * @param args Transaction function arguments.
+	 * @return Payload response from the transaction function.
+	 * @throws ContractException if no peers are reachable or an error response is returned.
+	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+	 * @see #evaluate(String...)
+	 */
+	byte[] evaluate(byte[]... args) throws ContractException;
+
+	/**
+	 * Evaluate a transaction function with binary arguments, and return the payload as a read-only view of the
+	 * proposal response content rather than a copy. This avoids copying large payloads.
+	 *
+	 * @param args Transaction function arguments.
+	 * @return Payload response from the transaction function.
+	 * @throws ContractException if no peers are reachable or an error response is returned.
+	 * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+	 * @see #evaluate(byte[]...)
+	 */
+	ByteBuffer evaluateForBuffer(byte[]... args) throws ContractException;
 }
@@ -6,29 +6,32 @@
 
 package org.hyperledger.fabric.gateway;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.nio.file.Path;
 import java.security.PrivateKey;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
-import org.bouncycastle.asn1.pkcs.PrivateKeyInfo;
-import org.bouncycastle.openssl.PEMKeyPair;
-import org.bouncycastle.openssl.PEMParser;
-import org.bouncycastle.openssl.jcajce.JcaPEMKeyConverter;
 import org.hyperledger.fabric.gateway.impl.FileSystemWallet;
+import org.hyperledger.fabric.gateway.impl.IdentityCodec;
 import org.hyperledger.fabric.gateway.impl.InMemoryWallet;
+import org.hyperledger.fabric.gateway.impl.SingleFileWallet;
 import org.hyperledger.fabric.gateway.impl.WalletIdentity;
 
 /**
  *
  * Wallet defines the interface for storing and managing users' identities in a Fabric network.
  *
+ * <p>Wallets that hold resources, such as file locks or watcher threads, release them when closed. Closing other
+ * wallets has no effect.</p>
+ *
  * @see <a href="https://hyperledger-fabric.readthedocs.io/en/release-1.4/developapps/application.html#wallet">Developing Fabric Applications - Wallet</a>
  */
-public interface Wallet {
+public interface Wallet extends AutoCloseable {
 	/**
 	 * Creates a wallet instance that is backed by files on the local filesystem.
 	 * If the directory specified by basePath does not exist, then it is created
@@ -43,6 +46,36 @@ public interface Wallet {
 		return new FileSystemWallet(basePath);
 	}
 
+	/**
+	 * Creates a wallet instance that is backed by files on the local filesystem, optionally caching decoded identities
+	 * in memory. With caching enabled, repeated {@link #get(String)}, {@link #exists(String)} and
+	 * {@link #getAllLabels()} calls are served from memory, and a file system watcher running on a daemon thread
+	 * invalidates cached entries when the wallet files are changed by other processes. A caching wallet should be
+	 * {@link #close() closed} when no longer required to stop the watcher thread.
+	 * @param basePath A directory path.
+	 * @param cacheIdentities true to cache decoded identities in memory.
+	 * @return A wallet backed by the file store.
+	 * @throws IOException if an I/O error occurs accessing wallet state.
+	 */
+	static Wallet createFileSystemWallet(Path basePath, boolean cacheIdentities) throws IOException {
+		return new FileSystemWallet(basePath, cacheIdentities);
+	}
+
+	/**
+	 * Creates a wallet instance that stores all identities in a single indexed file, which is more efficient than
+	 * a directory based wallet for large numbers of identities. If the file does not exist, it is created and an
+	 * empty wallet is returned. Decoded identities are cached in memory.
+	 * <p>The wallet will attempt to obtain an exclusive lock on a lock file alongside the wallet file, named with a
+	 * {@code .lock} suffix, so there can only be a single wallet instance for a given file at any point in time. The
+	 * wallet should be {@link #close() closed} when no longer required to release the lock.</p>
+	 * @param walletFile A file path.
+	 * @return A wallet backed by the file.
+	 * @throws IOException if an I/O error occurs accessing wallet state.
+	 */
+	static Wallet createSingleFileWallet(Path walletFile) throws IOException {
+		return new SingleFileWallet(walletFile);
+	}
+
 	/**
 	 * Creates a wallet instance that is held in the client application heap.
 	 * Note that this not persistent and is provided for test purposes.
@@ -53,6 +86,33 @@ public interface Wallet {
 		return new InMemoryWallet();
 	}
 
+	/**
+	 * Creates a wallet instance that is held in the client application heap, containing a copy of all the identities
+	 * in another wallet. Identities are retrieved and decoded in parallel, which can significantly reduce the time
+	 * taken to load a large number of identities, for example from a {@link #createFileSystemWallet(Path) file system
+	 * wallet} directory at application startup. The source wallet must be thread-safe.
+	 *
+	 * @param source A wallet from which to copy identities.
+	 * @return A newly created wallet containing the source identities.
+	 * @throws IOException if an I/O error occurs accessing the source wallet.
+	 */
+	static Wallet createInMemoryWallet(Wallet source) throws IOException {
+		return InMemoryWallet.copyOf(source);
+	}
+
+	/**
+	 * Creates a wallet instance that is held in the client application heap, containing identities read from a stream.
+	 * The stream content must be in the format used by {@link #createSingleFileWallet(Path) single file wallets}.
+	 * Credentials are decoded in parallel.
+	 *
+	 * @param in A stream of identity records.
+	 * @return A newly created wallet containing the identities read from the stream.
+	 * @throws IOException if an I/O error occurs reading or parsing the stream.
+	 */
+	static Wallet createInMemoryWallet(InputStream in) throws IOException {
+		return InMemoryWallet.load(in);
+	}
+
 	/**
 	 * Represents a user's identity that is required to connect to a Fabric network.
 	 * An instance of identity can be created using the static method
@@ -104,18 +164,9 @@ public interface Wallet {
 		 * @throws IOException if an I/O error occurs accessing credentials.
 		 */
 		static Identity createIdentity(String mspId, Reader certificate, Reader privateKey) throws IOException {
-			try (PEMParser parser = new PEMParser(privateKey);
-					BufferedReader certReader = new BufferedReader(certificate)) {
-				Object key = parser.readObject();
-				JcaPEMKeyConverter converter = new JcaPEMKeyConverter();
-				PrivateKey pk;
-				if (key instanceof PrivateKeyInfo) {
-					pk = converter.getPrivateKey((PrivateKeyInfo) key);
-				} else {
-					pk = converter.getPrivateKey(((PEMKeyPair) key).getPrivateKeyInfo());
-				}
-				String certStr = certReader.lines().collect(Collectors.joining("\n", "", "\n"));
-
+			try (Reader certReader = certificate) {
+				PrivateKey pk = IdentityCodec.readPrivateKey(privateKey);
+				String certStr = IdentityCodec.readCertificate(certReader);
 				return new WalletIdentity(mspId, certStr, pk);
 			}
 		}
@@ -130,6 +181,18 @@ public interface Wallet {
 	 */
 	void put(String label, Identity identity) throws IOException;
 
+	/**
+	 * Inserts a set of identities into the wallet.
+	 *
+	 * @param identities Identities to put in the wallet, keyed by label.
+	 * @throws IOException if an I/O error occurs accessing wallet state.
+	 */
+	default void putAll(Map<String, Identity> identities) throws IOException {
+		for (Map.Entry<String, Identity> entry : identities.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
 	/**
 	 * Extracts an identity from the wallet.
 	 *
@@ -139,6 +202,26 @@ public interface Wallet {
 	 */
 	Identity get(String label) throws IOException;
 
+	/**
+	 * Extracts a set of identities from the wallet. Implementations may retrieve and decode the identities in
+	 * parallel, so this is likely to be faster than repeated calls to {@link #get(String)} when loading large
+	 * numbers of identities.
+	 *
+	 * @param labels The labels associated with the identities in the wallet.
+	 * @return Identities keyed by label. Labels that do not exist in the wallet are not included.
+	 * @throws IOException if an I/O error occurs accessing wallet state.
+	 */
+	default Map<String, Identity> getAll(Collection<String> labels) throws IOException {
+		Map<String, Identity> results = new LinkedHashMap<>();
+		for (String label : labels) {
+			Identity identity = get(label);
+			if (identity != null) {
+				results.put(label, identity);
+			}
+		}
+		return results;
+	}
+
 	/**
 	 * Lists the labels of all identities in the wallet.
 	 *
@@ -163,4 +246,14 @@ public interface Wallet {
 	 * @throws IOException if an I/O error occurs accessing wallet state.
 	 */
 	boolean exists(String label) throws IOException;
+
+	/**
+	 * Release any resources held by the wallet. The default implementation does nothing.
+	 *
+	 * @throws IOException if an I/O error occurs releasing wallet resources.
+	 */
+	@Override
+	default void close() throws IOException {
+		// Nothing to release
+	}
 }
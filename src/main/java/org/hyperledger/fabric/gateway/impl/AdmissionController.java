@@ -0,0 +1,240 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.hyperledger.fabric.gateway.ContractException;
+
+/**
+ * Limits the number of concurrent requests using an adaptive concurrency limit. Requests beyond the limit wait in a
+ * first-in, first-out queue, and are rejected immediately once the queue is full.
+ * <p>The limit is adjusted using additive increase, multiplicative decrease. The minimum request latency observed over
+ * the two most recent sample windows is taken as the uncongested baseline, so the baseline follows changes in network
+ * conditions without being reset to an arbitrary sample. If a smoothed average of recent latency is significantly
+ * longer than the baseline, or a request times out, the limit is reduced by a constant factor. Otherwise the limit is
+ * increased by one if the requests in flight were making use of at least half the current limit. Smoothing prevents
+ * normal variation in individual request latency from reducing the limit.</p>
+ * <p>
+ * This implementation is thread-safe.
+ * </p>
+ */
+public final class AdmissionController {
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final int BASELINE_WINDOW_SIZE = 500;
+    private static final double LATENCY_SMOOTHING = 0.1; // Weight of each new sample in the smoothed latency
+
+    /**
+     * Outcome of an admitted request, used to adjust the concurrency limit.
+     */
+    public enum Outcome {
+        /** Request completed and its latency should be sampled. */
+        SUCCESS,
+        /** Request timed out or was otherwise dropped, indicating congestion. */
+        DROPPED,
+        /** Request failed for reasons unrelated to load, so should not affect the limit. */
+        IGNORED
+    }
+
+    /**
+     * Permission to make a request, which must be released when the request completes.
+     */
+    public interface Permit {
+        void release(Outcome outcome);
+    }
+
+    private static final Permit NO_OP_PERMIT = outcome -> { };
+
+    private static final class Waiter {
+        final Condition condition;
+        boolean admitted = false;
+
+        Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+
+    private final String name;
+    private final int maxLimit;
+    private final int maxQueueLength;
+    private final Lock lock = new ReentrantLock();
+    private final Deque<Waiter> queue = new ArrayDeque<>();
+    private double limit;
+    private int inFlight = 0;
+    private long windowMinNanos = Long.MAX_VALUE;
+    private long previousWindowMinNanos = Long.MAX_VALUE;
+    private int windowSampleCount = 0;
+    private double smoothedNanos = 0;
+
+    /**
+     * Create an admission controller.
+     * @param name Name used in error messages.
+     * @param maxLimit Maximum number of concurrent requests.
+     * @param maxQueueLength Maximum number of requests waiting to be admitted.
+     */
+    public AdmissionController(String name, int maxLimit, int maxQueueLength) {
+        if (maxLimit < 1) {
+            throw new IllegalArgumentException("Maximum concurrency limit must be at least 1: " + maxLimit);
+        }
+        if (maxQueueLength < 0) {
+            throw new IllegalArgumentException("Maximum queue length must not be negative: " + maxQueueLength);
+        }
+        this.name = name;
+        this.maxLimit = maxLimit;
+        this.maxQueueLength = maxQueueLength;
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Get a permit that does nothing, for use when admission control is disabled.
+     * @return A permit.
+     */
+    public static Permit noOpPermit() {
+        return NO_OP_PERMIT;
+    }
+
+    /**
+     * Wait to be admitted.
+     * @param deadline Deadline by which the request must be admitted.
+     * @return A permit which must be released when the request completes.
+     * @throws ContractException if the queue is full.
+     * @throws TimeoutException if the deadline expires before the request is admitted.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     */
+    public Permit acquire(Deadline deadline) throws ContractException, TimeoutException, InterruptedException {
+        lock.lock();
+        try {
+            if (queue.isEmpty() && inFlight < getLimit()) {
+                inFlight++;
+                return newPermit();
+            }
+            if (queue.size() >= maxQueueLength) {
+                throw new ContractException("Request rejected as too many requests are in progress for " + name);
+            }
+
+            Waiter waiter = new Waiter(lock.newCondition());
+            queue.addLast(waiter);
+            try {
+                while (!waiter.admitted) {
+                    if (!deadline.isBounded()) {
+                        waiter.condition.await();
+                    } else if (deadline.isExpired()) {
+                        throw new TimeoutException("Deadline expired waiting to be admitted for " + name);
+                    } else {
+                        waiter.condition.awaitNanos(deadline.remainingNanos());
+                    }
+                }
+            } catch (TimeoutException | InterruptedException | RuntimeException e) {
+                if (waiter.admitted) {
+                    // Admitted concurrently with failure, so pass the slot on
+                    inFlight--;
+                    admitWaiters();
+                } else {
+                    queue.remove(waiter);
+                }
+                throw e;
+            }
+            return newPermit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Permit newPermit() {
+        final long startNanos = System.nanoTime();
+        final int startInFlight = inFlight;
+        return new Permit() {
+            private boolean released = false;
+
+            @Override
+            public void release(Outcome outcome) {
+                lock.lock();
+                try {
+                    if (released) {
+                        return;
+                    }
+                    released = true;
+                    inFlight--;
+                    updateLimit(outcome, System.nanoTime() - startNanos, startInFlight);
+                    admitWaiters();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        };
+    }
+
+    private int getLimit() {
+        return (int) limit;
+    }
+
+    private void updateLimit(Outcome outcome, long latencyNanos, int startInFlight) {
+        if (outcome == Outcome.DROPPED) {
+            decreaseLimit();
+            return;
+        } else if (outcome != Outcome.SUCCESS) {
+            return;
+        }
+
+        recordBaselineSample(latencyNanos);
+        smoothedNanos = smoothedNanos == 0
+                ? latencyNanos
+                : smoothedNanos + (latencyNanos - smoothedNanos) * LATENCY_SMOOTHING;
+
+        if (smoothedNanos > getBaselineNanos() * LATENCY_TOLERANCE) {
+            decreaseLimit();
+        } else if (startInFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    private void recordBaselineSample(long latencyNanos) {
+        windowMinNanos = Math.min(windowMinNanos, latencyNanos);
+        if (++windowSampleCount >= BASELINE_WINDOW_SIZE) {
+            previousWindowMinNanos = windowMinNanos;
+            windowMinNanos = Long.MAX_VALUE;
+            windowSampleCount = 0;
+        }
+    }
+
+    private long getBaselineNanos() {
+        return Math.min(windowMinNanos, previousWindowMinNanos);
+    }
+
+    private void decreaseLimit() {
+        limit = Math.max(1, limit * BACKOFF_RATIO);
+    }
+
+    private void admitWaiters() {
+        while (!queue.isEmpty() && inFlight < getLimit()) {
+            Waiter waiter = queue.removeFirst();
+            waiter.admitted = true;
+            inFlight++;
+            waiter.condition.signal();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return GatewayUtils.toString(this,
+                    "name=" + name,
+                    "limit=" + getLimit(),
+                    "inFlight=" + inFlight,
+                    "queued=" + queue.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -9,7 +9,6 @@ package org.hyperledger.fabric.gateway.impl;
 import java.util.Collection;
 
 import org.hyperledger.fabric.gateway.spi.PeerDisconnectEvent;
-import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.Peer;
 
 public final class AllCommitStrategy implements CommitStrategy {
@@ -27,7 +26,7 @@ public final class AllCommitStrategy implements CommitStrategy {
     }
 
     @Override
-    public synchronized Result onEvent(BlockEvent.TransactionEvent event) {
+    public synchronized Result onCommit(Peer peer) {
         successCount++;
         totalCount++;
         return getResult();
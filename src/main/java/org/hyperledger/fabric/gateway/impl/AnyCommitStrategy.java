@@ -7,7 +7,6 @@
 package org.hyperledger.fabric.gateway.impl;
 
 import org.hyperledger.fabric.gateway.spi.PeerDisconnectEvent;
-import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.Peer;
 
 import java.util.Collection;
@@ -26,7 +25,7 @@ public final class AnyCommitStrategy implements CommitStrategy {
     }
 
     @Override
-    public synchronized Result onEvent(BlockEvent.TransactionEvent event) {
+    public synchronized Result onCommit(Peer peer) {
         return Result.SUCCESS;
     }
 
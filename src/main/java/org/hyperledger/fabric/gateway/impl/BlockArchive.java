@@ -0,0 +1,328 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.protos.common.Common;
+import org.hyperledger.fabric.sdk.BlockEvent;
+
+/**
+ * Archive of blocks stored in a directory as append-only segment files. Each segment holds a contiguous range of
+ * blocks, and is named after the number of its first block. A new segment is started when the current one reaches a
+ * fixed number of blocks, or when a received block does not follow the last archived block. An in-memory index of
+ * record positions is built by scanning record headers when the archive is opened, and any incomplete record left
+ * at the end of a segment by an earlier failure is truncated.
+ * <p>The directory is exclusively locked while the archive is open. Writes are not forced to disk for each block, so
+ * the most recent blocks may be lost if the host fails; they are simply absent from the archive when next opened.</p>
+ * <p>This implementation is thread-safe.</p>
+ */
+public final class BlockArchive implements AutoCloseable {
+    private static final Log logger = LogFactory.getLog(BlockArchive.class);
+
+    private static final int VERSION = 1;
+    private static final int BLOCKS_PER_SEGMENT = 1000;
+    private static final String SEGMENT_SUFFIX = ".blocks";
+    private static final String LOCK_FILE_NAME = "archive.lock";
+    private static final int HEADER_SIZE = Integer.BYTES;
+    private static final int RECORD_HEADER_SIZE = Long.BYTES + Integer.BYTES;
+
+    private static final class Segment {
+        final Path file;
+        final long firstBlock;
+        long[] offsets = new long[64];
+        int blockCount = 0;
+        long size = HEADER_SIZE;
+
+        Segment(Path file, long firstBlock) {
+            this.file = file;
+            this.firstBlock = firstBlock;
+        }
+
+        long nextBlock() {
+            return firstBlock + blockCount;
+        }
+
+        void addRecord(long offset, int recordSize) {
+            if (blockCount == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[blockCount++] = offset;
+            size = offset + recordSize;
+        }
+    }
+
+    private final Path directory;
+    private final FileChannel lockChannel;
+    private final NavigableMap<Long, Segment> segments = new TreeMap<>();
+    private Segment activeSegment = null;
+    private FileChannel activeChannel = null;
+
+    public BlockArchive(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        lockChannel = openLocked(directory.resolve(LOCK_FILE_NAME));
+
+        try {
+            loadSegments();
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    private static FileChannel openLocked(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        final FileLock fileLock;
+        try {
+            fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            channel.close();
+            throw new IOException("Block archive is already locked: " + path, e);
+        }
+        if (fileLock == null) {
+            channel.close();
+            throw new IOException("Another process holds an overlapping lock for block archive: " + path);
+        }
+        return channel;
+    }
+
+    private void loadSegments() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                long firstBlock = Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+                Segment segment = loadSegment(file, firstBlock);
+                if (segment.blockCount > 0) {
+                    segments.put(firstBlock, segment);
+                } else {
+                    Files.delete(file);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Unexpected file in block archive: " + directory, e);
+        }
+    }
+
+    /**
+     * Index the records in a segment file, truncating any incomplete record at the end of the file.
+     */
+    private static Segment loadSegment(Path file, long firstBlock) throws IOException {
+        Segment segment = new Segment(file, firstBlock);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            try {
+                int version = in.readInt();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported block archive data version " + version + " from file: " + file);
+                }
+            } catch (EOFException e) {
+                return segment; // Empty segment
+            }
+
+            long position = HEADER_SIZE;
+            while (true) {
+                final long blockNumber;
+                final int length;
+                try {
+                    blockNumber = in.readLong();
+                    length = in.readInt();
+                    skipFully(in, length);
+                } catch (EOFException e) {
+                    break; // Incomplete record
+                }
+                if (blockNumber != segment.nextBlock()) {
+                    throw new IOException("Unexpected block number " + blockNumber + " in file: " + file);
+                }
+                int recordSize = RECORD_HEADER_SIZE + length;
+                segment.addRecord(position, recordSize);
+                position += recordSize;
+            }
+
+            if (position < channel.size()) {
+                logger.warn("Truncating incomplete record at position " + position + " in block archive file: " + file);
+                channel.truncate(position);
+            }
+        }
+        return segment;
+    }
+
+    private static void skipFully(DataInputStream in, int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new EOFException();
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    /**
+     * Block listener that appends each received block to the archive. Blocks that precede the last archived block
+     * are ignored. Filtered blocks, which do not contain the full block content, are not archived.
+     * @param blockEvent A block event.
+     */
+    public void onBlock(BlockEvent blockEvent) {
+        if (blockEvent.isFiltered()) {
+            return;
+        }
+
+        long blockNumber = blockEvent.getBlockNumber();
+        try {
+            append(blockNumber, blockEvent.getBlock().toByteArray());
+        } catch (IOException e) {
+            logger.warn("Failed to archive block " + blockNumber + " in: " + directory, e);
+        }
+    }
+
+    private synchronized void append(long blockNumber, byte[] blockBytes) throws IOException {
+        Map.Entry<Long, Segment> lastEntry = segments.lastEntry();
+        Segment lastSegment = lastEntry != null ? lastEntry.getValue() : null;
+        if (lastSegment != null && blockNumber < lastSegment.nextBlock()) {
+            return; // Already archived
+        }
+
+        if (lastSegment != null && lastSegment.nextBlock() == blockNumber && lastSegment.blockCount < BLOCKS_PER_SEGMENT) {
+            if (activeSegment != lastSegment) {
+                openSegment(lastSegment); // First append since the archive was opened
+            }
+        } else {
+            Path file = directory.resolve(String.format("%020d%s", blockNumber, SEGMENT_SUFFIX));
+            openSegment(new Segment(file, blockNumber));
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + blockBytes.length);
+        buffer.putLong(blockNumber).putInt(blockBytes.length).put(blockBytes).flip();
+
+        long position = activeSegment.size;
+        try {
+            while (buffer.hasRemaining()) {
+                activeChannel.write(buffer, position + buffer.position());
+            }
+        } catch (IOException e) {
+            activeChannel.truncate(position); // Remove any partially written record
+            throw e;
+        }
+        activeSegment.addRecord(position, buffer.limit());
+    }
+
+    private void openSegment(Segment segment) throws IOException {
+        closeActiveSegment();
+
+        FileChannel channel = FileChannel.open(segment.file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(VERSION);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+
+        segments.put(segment.firstBlock, segment);
+        activeSegment = segment;
+        activeChannel = channel;
+    }
+
+    private void closeActiveSegment() throws IOException {
+        if (activeChannel != null) {
+            activeChannel.force(false);
+            activeChannel.close();
+            activeChannel = null;
+            activeSegment = null;
+        }
+    }
+
+    /**
+     * Pass archived blocks to a listener in order, starting from the specified block number. Reading stops at the
+     * first block that is not in the archive.
+     * @param startBlock Number of the first block to read.
+     * @param listener Block listener.
+     * @return The number of the first block that was not read from the archive.
+     * @throws IOException if an error occurs reading the archive.
+     */
+    public long readBlocks(long startBlock, Consumer<Common.Block> listener) throws IOException {
+        long nextBlock = startBlock;
+        while (true) {
+            final Path file;
+            final long offset;
+            final long endBlock;
+            synchronized (this) {
+                Map.Entry<Long, Segment> entry = segments.floorEntry(nextBlock);
+                if (entry == null || nextBlock >= entry.getValue().nextBlock()) {
+                    return nextBlock;
+                }
+                Segment segment = entry.getValue();
+                file = segment.file;
+                offset = segment.offsets[(int) (nextBlock - segment.firstBlock)];
+                endBlock = segment.nextBlock();
+            }
+
+            nextBlock = readSegment(file, offset, nextBlock, endBlock, listener);
+        }
+    }
+
+    private static long readSegment(Path file, long offset, long startBlock, long endBlock,
+                                    Consumer<Common.Block> listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(offset);
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+            DataInputStream dataIn = new DataInputStream(in);
+            for (long blockNumber = startBlock; blockNumber < endBlock; blockNumber++) {
+                long recordBlockNumber = dataIn.readLong();
+                if (recordBlockNumber != blockNumber) {
+                    throw new IOException("Expected block " + blockNumber + " but found " + recordBlockNumber + " in file: " + file);
+                }
+                byte[] blockBytes = new byte[dataIn.readInt()];
+                dataIn.readFully(blockBytes);
+                listener.accept(Common.Block.parseFrom(blockBytes));
+            }
+        }
+        return endBlock;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            closeActiveSegment();
+        } finally {
+            lockChannel.close(); // Also releases lock
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return GatewayUtils.toString(this,
+                "directory=" + directory,
+                "segments=" + segments.size(),
+                "nextBlock=" + (segments.isEmpty() ? "none" : segments.lastEntry().getValue().nextBlock()));
+    }
+}
@@ -6,22 +6,38 @@
 
 package org.hyperledger.fabric.gateway.impl;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicReference;
 
+import org.hyperledger.fabric.gateway.CommitRejectedException;
 import org.hyperledger.fabric.gateway.ContractException;
 import org.hyperledger.fabric.gateway.Network;
 import org.hyperledger.fabric.gateway.spi.CommitHandler;
 import org.hyperledger.fabric.gateway.spi.CommitListener;
 import org.hyperledger.fabric.gateway.spi.PeerDisconnectEvent;
+import org.hyperledger.fabric.protos.peer.TransactionPackage.TxValidationCode;
 import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.Channel;
 import org.hyperledger.fabric.sdk.Peer;
-
+import org.hyperledger.fabric.sdk.TransactionInfo;
+import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
+import org.hyperledger.fabric.sdk.exception.ProposalException;
+
+/**
+ * Commit handler that tracks commit events from peers and passes them to a commit strategy. If a commit polling
+ * interval is configured for the gateway and no new block has been received by the network within that interval,
+ * peers whose commit event has not been received are queried directly for the validation status of the transaction,
+ * so that a stalled event stream does not delay the commit until it times out. Queries run concurrently on the
+ * gateway's executor.
+ */
 public final class CommitHandlerImpl implements CommitHandler {
     private final String transactionId;
     private final Network network;
@@ -38,8 +54,8 @@ public final class CommitHandlerImpl implements CommitHandler {
         }
     };
     private final Set<Peer> peers;
-    private final CountDownLatch latch = new CountDownLatch(1);
-    private final AtomicReference<ContractException> error = new AtomicReference<>();
+    private final CompletableFuture<Void> commitFuture = new CompletableFuture<>();
+    private volatile HashedWheelTimer.Timeout pollTask;
 
     public CommitHandlerImpl(String transactionId, Network network, CommitStrategy strategy) {
         this.transactionId = transactionId;
@@ -54,31 +70,57 @@ public final class CommitHandlerImpl implements CommitHandler {
             cancelListening();
         } else {
             network.addCommitListener(listener, peers, transactionId);
+            schedulePoll();
         }
     }
 
     @Override
     public void waitForEvents(long timeout, TimeUnit timeUnit) throws ContractException, TimeoutException, InterruptedException {
         try {
-            boolean complete = latch.await(timeout, timeUnit);
-            if (!complete) {
-                throw new TimeoutException("Timeout waiting for commit of transaction " + transactionId);
-            }
+            commitFuture.get(timeout, timeUnit);
+        } catch (ExecutionException e) {
+            throw (ContractException) e.getCause();
+        } catch (TimeoutException e) {
+            throw newTimeoutException();
         } finally {
             cancelListening();
         }
+    }
 
-        ContractException cause = error.get();
-        if (cause != null) {
-            throw cause;
-        }
+    @Override
+    public CompletableFuture<Void> waitForEventsAsync(long timeout, TimeUnit timeUnit, Executor executor) {
+        HashedWheelTimer timer = getGateway().getCommitTimer();
+        HashedWheelTimer.Timeout timeoutTask = timer.newTimeout(
+                () -> commitFuture.completeExceptionally(newTimeoutException()), timeout, timeUnit);
+
+        return commitFuture.whenComplete((result, e) -> {
+            timeoutTask.cancel();
+            cancelListening();
+        });
+    }
+
+    private GatewayImpl getGateway() {
+        return (GatewayImpl) network.getGateway();
+    }
+
+    private NetworkImpl getNetwork() {
+        return (NetworkImpl) network;
+    }
+
+    private TimeoutException newTimeoutException() {
+        return new TimeoutException("Timeout waiting for commit of transaction " + transactionId);
     }
 
     @Override
     public void cancelListening() {
-        latch.countDown();
+        commitFuture.complete(null);
         network.removeCommitListener(listener);
         peers.clear();
+
+        HashedWheelTimer.Timeout task = pollTask;
+        if (task != null) {
+            task.cancel();
+        }
     }
 
     @Override
@@ -99,9 +141,82 @@ public final class CommitHandlerImpl implements CommitHandler {
             CommitStrategy.Result result = strategy.onEvent(event);
             processStrategyResult(result);
         } else {
-            String peerName = event.getPeer().getName();
-            fail(new ContractException("Transaction commit was rejected by peer " + peerName));
+            reject(event.getPeer(), TxValidationCode.forNumber(event.getValidationCode()));
+        }
+    }
+
+    private void onCommitStatus(Peer peer, TxValidationCode validationCode) {
+        if (!peers.remove(peer)) {
+            // Commit event already received from this peer
+            return;
+        }
+
+        if (validationCode == TxValidationCode.VALID) {
+            CommitStrategy.Result result = strategy.onCommit(peer);
+            processStrategyResult(result);
+        } else {
+            reject(peer, validationCode);
+        }
+    }
+
+    private void reject(Peer peer, TxValidationCode validationCode) {
+        fail(new CommitRejectedException("Transaction commit was rejected by peer " + peer.getName()
+                + " with validation code " + validationCode, transactionId, validationCode));
+    }
+
+    private void schedulePoll() {
+        TimePeriod interval = getGateway().getCommitPollingInterval();
+        if (interval == null || commitFuture.isDone()) {
+            return;
+        }
+
+        pollTask = getGateway().getCommitTimer().newTimeout(
+                () -> pollCommitStatus(interval),
+                interval.getTime(), interval.getTimeUnit());
+    }
+
+    private void pollCommitStatus(TimePeriod interval) {
+        if (commitFuture.isDone()) {
+            return;
+        }
+        if (!getNetwork().isBlockSourceStalled(interval)) {
+            // Blocks are still being received so continue to wait for events
+            schedulePoll();
+            return;
+        }
+
+        final Peer[] pendingPeers;
+        synchronized (peers) {
+            pendingPeers = peers.toArray(new Peer[0]);
+        }
+
+        // Queries are blocking so must not run on the timer thread
+        final CompletableFuture<?>[] queries;
+        try {
+            queries = Arrays.stream(pendingPeers)
+                    .map(peer -> CompletableFuture.runAsync(() -> queryCommitStatus(peer), getGateway().getExecutor()))
+                    .toArray(CompletableFuture[]::new);
+        } catch (RejectedExecutionException e) {
+            // Gateway closed
+            return;
+        }
+        CompletableFuture.allOf(queries).whenComplete((result, e) -> schedulePoll());
+    }
+
+    private void queryCommitStatus(Peer peer) {
+        if (commitFuture.isDone()) {
+            return;
+        }
+
+        Channel channel = network.getChannel();
+        final TransactionInfo transactionInfo;
+        try {
+            transactionInfo = channel.queryTransactionByID(peer, transactionId, getGateway().getUser());
+        } catch (ProposalException | InvalidArgumentException e) {
+            // Not yet committed by this peer, or peer unavailable, so continue to wait for events
+            return;
         }
+        onCommitStatus(peer, transactionInfo.getValidationCode());
     }
 
     private void onDisconnectEvent(PeerDisconnectEvent event) {
@@ -123,7 +238,7 @@ public final class CommitHandlerImpl implements CommitHandler {
     }
 
     private void fail(ContractException e) {
-        error.set(e);
+        commitFuture.completeExceptionally(e);
         cancelListening();
     }
 }
@@ -18,6 +18,10 @@ public interface CommitStrategy {
     }
 
     Collection<Peer> getPeers();
-    Result onEvent(BlockEvent.TransactionEvent event);
+    Result onCommit(Peer peer);
     Result onError(PeerDisconnectEvent event);
+
+    default Result onEvent(BlockEvent.TransactionEvent event) {
+        return onCommit(event.getPeer());
+    }
 }
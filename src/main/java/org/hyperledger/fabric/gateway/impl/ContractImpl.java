@@ -7,8 +7,13 @@
 package org.hyperledger.fabric.gateway.impl;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
@@ -16,24 +21,32 @@ import java.util.regex.Pattern;
 import org.hyperledger.fabric.gateway.Contract;
 import org.hyperledger.fabric.gateway.ContractEvent;
 import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.PreparedTransaction;
 import org.hyperledger.fabric.gateway.Transaction;
 import org.hyperledger.fabric.gateway.impl.event.BlockListenerSession;
 import org.hyperledger.fabric.gateway.impl.event.ListenerSession;
 import org.hyperledger.fabric.gateway.impl.event.Listeners;
-import org.hyperledger.fabric.gateway.impl.event.ReplayListenerSession;
 import org.hyperledger.fabric.gateway.spi.Checkpointer;
 import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.ChaincodeID;
+import org.hyperledger.fabric.sdk.Peer;
+import org.reactivestreams.Publisher;
 
 public final class ContractImpl implements Contract, AutoCloseable {
     private final NetworkImpl network;
     private final String chaincodeId;
     private final String name;
+    private final ChaincodeID chaincodeID; // Immutable so shared by all transaction requests
     private final Map<Consumer<ContractEvent>, ListenerSession> contractListenerSessions = new HashMap<>();
+    private final Map<Consumer<List<ContractEvent>>, ListenerSession> batchListenerSessions = new HashMap<>();
 
     ContractImpl(NetworkImpl network, String chaincodeId, String name) {
         this.network = network;
         this.chaincodeId = chaincodeId;
         this.name = name;
+        this.chaincodeID = ChaincodeID.newBuilder()
+                .setName(chaincodeId)
+                .build();
     }
 
     @Override
@@ -45,6 +58,18 @@ public final class ContractImpl implements Contract, AutoCloseable {
         return new TransactionImpl(this, qualifiedName);
     }
 
+    @Override
+    public PreparedTransaction prepareTransaction(String name) {
+        return new PreparedTransactionImpl((TransactionImpl) createTransaction(name));
+    }
+
+    @Override
+    public PreparedTransaction prepareTransaction(String name, Collection<Peer> endorsingPeers) {
+        Transaction prototype = createTransaction(name)
+                .setEndorsingPeers(Collections.unmodifiableList(new ArrayList<>(endorsingPeers)));
+        return new PreparedTransactionImpl((TransactionImpl) prototype);
+    }
+
     @Override
     public byte[] submitTransaction(String name, String... args) throws ContractException, TimeoutException, InterruptedException {
         return createTransaction(name).submit(args);
@@ -120,6 +145,40 @@ public final class ContractImpl implements Contract, AutoCloseable {
         return listener;
     }
 
+    @Override
+    public Consumer<ContractEvent> addContractListener(Checkpointer checkpointer, Consumer<ContractEvent> listener, Executor executor) throws IOException {
+        synchronized (contractListenerSessions) {
+            if (!contractListenerSessions.containsKey(listener)) {
+                Consumer<ContractEvent> contractListener = Listeners.contract(listener, chaincodeId);
+                ListenerSession session = newParallelCheckpointListenerSession(checkpointer, contractListener, executor);
+                contractListenerSessions.put(listener, session);
+            }
+        }
+        return listener;
+    }
+
+    private ListenerSession newParallelCheckpointListenerSession(Checkpointer checkpointer, Consumer<ContractEvent> contractListener, Executor executor) throws IOException {
+        Consumer<BlockEvent> checkpointListener = Listeners.checkpointContractParallel(checkpointer, contractListener, executor);
+        return network.newCheckpointListenerSession(checkpointer, checkpointListener);
+    }
+
+    @Override
+    public Consumer<ContractEvent> addContractListener(Checkpointer checkpointer, Consumer<ContractEvent> listener, String eventName, Executor executor) throws IOException {
+        return addContractListener(checkpointer, listener, getEventNamePattern(eventName), executor);
+    }
+
+    @Override
+    public Consumer<ContractEvent> addContractListener(Checkpointer checkpointer, Consumer<ContractEvent> listener, Pattern eventNamePattern, Executor executor) throws IOException {
+        synchronized (contractListenerSessions) {
+            if (!contractListenerSessions.containsKey(listener)) {
+                Consumer<ContractEvent> contractListener = Listeners.contract(listener, chaincodeId, eventNamePattern);
+                ListenerSession session = newParallelCheckpointListenerSession(checkpointer, contractListener, executor);
+                contractListenerSessions.put(listener, session);
+            }
+        }
+        return listener;
+    }
+
     @Override
     public Consumer<ContractEvent> addContractListener(long startBlock, Consumer<ContractEvent> listener) {
         synchronized (contractListenerSessions) {
@@ -134,7 +193,7 @@ public final class ContractImpl implements Contract, AutoCloseable {
 
     private ListenerSession newReplayListenerSession(long startBlock, Consumer<ContractEvent> contractListener) {
         Consumer<BlockEvent> blockListener = Listeners.fromContract(contractListener);
-        return new ReplayListenerSession(network, blockListener, startBlock);
+        return network.newReplayListenerSession(blockListener, startBlock);
     }
 
     @Override
@@ -165,6 +224,56 @@ public final class ContractImpl implements Contract, AutoCloseable {
         }
     }
 
+    @Override
+    public Consumer<List<ContractEvent>> addContractBatchListener(Consumer<List<ContractEvent>> listener) {
+        synchronized (batchListenerSessions) {
+            batchListenerSessions.computeIfAbsent(listener, k ->
+                    new BlockListenerSession(network.getBlockSource(), Listeners.fromContractBatch(listener, chaincodeId)));
+        }
+        return listener;
+    }
+
+    @Override
+    public Consumer<List<ContractEvent>> addContractBatchListener(Checkpointer checkpointer, Consumer<List<ContractEvent>> listener) throws IOException {
+        synchronized (batchListenerSessions) {
+            if (!batchListenerSessions.containsKey(listener)) {
+                Consumer<BlockEvent> checkpointListener = Listeners.checkpointBlock(checkpointer,
+                        Listeners.fromContractBatch(listener, chaincodeId));
+                ListenerSession session = network.newCheckpointListenerSession(checkpointer, checkpointListener);
+                batchListenerSessions.put(listener, session);
+            }
+        }
+        return listener;
+    }
+
+    @Override
+    public Consumer<List<ContractEvent>> addContractBatchListener(long startBlock, Consumer<List<ContractEvent>> listener) {
+        synchronized (batchListenerSessions) {
+            if (!batchListenerSessions.containsKey(listener)) {
+                Consumer<BlockEvent> blockListener = Listeners.fromContractBatch(listener, chaincodeId);
+                ListenerSession session = network.newReplayListenerSession(blockListener, startBlock);
+                batchListenerSessions.put(listener, session);
+            }
+        }
+        return listener;
+    }
+
+    @Override
+    public void removeContractBatchListener(Consumer<List<ContractEvent>> listener) {
+        ListenerSession session;
+        synchronized (batchListenerSessions) {
+            session = batchListenerSessions.remove(listener);
+        }
+        if (session != null) {
+            session.close();
+        }
+    }
+
+    @Override
+    public Publisher<ContractEvent> newContractEventPublisher(int bufferSize) {
+        return network.newEventPublisher(listener -> Listeners.fromContract(Listeners.contract(listener, chaincodeId)), bufferSize);
+    }
+
     public NetworkImpl getNetwork() {
         return network;
     }
@@ -173,6 +282,10 @@ public final class ContractImpl implements Contract, AutoCloseable {
         return chaincodeId;
     }
 
+    public ChaincodeID getChaincodeID() {
+        return chaincodeID;
+    }
+
     private String getQualifiedName(String tname) {
         return this.name.isEmpty() ? tname : this.name + ':' + tname;
     }
@@ -183,6 +296,10 @@ public final class ContractImpl implements Contract, AutoCloseable {
             contractListenerSessions.values().forEach(ListenerSession::close);
             contractListenerSessions.clear();
         }
+        synchronized (batchListenerSessions) {
+            batchListenerSessions.values().forEach(ListenerSession::close);
+            batchListenerSessions.clear();
+        }
     }
 
     @Override
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time by which an operation must complete. Used to share a single time budget between the phases of a
+ * transaction submit.
+ */
+public final class Deadline {
+    private static final Deadline NONE = new Deadline(0, false);
+
+    private final long expiryNanos;
+    private final boolean bounded;
+
+    private Deadline(long expiryNanos, boolean bounded) {
+        this.expiryNanos = expiryNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Get a deadline that never expires.
+     * @return A deadline.
+     */
+    public static Deadline none() {
+        return NONE;
+    }
+
+    /**
+     * Get a deadline a given time period from now.
+     * @param period Time period, or null for a deadline that never expires.
+     * @return A deadline.
+     */
+    public static Deadline after(TimePeriod period) {
+        if (period == null) {
+            return NONE;
+        }
+        long nanos = period.getTimeUnit().toNanos(period.getTime());
+        return new Deadline(System.nanoTime() + nanos, true);
+    }
+
+    public boolean isExpired() {
+        return bounded && remainingNanos() <= 0;
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    /**
+     * Get the time remaining until this deadline.
+     * @return Remaining time in nanoseconds, or zero if expired. The result is not meaningful for an unbounded
+     * deadline.
+     */
+    public long remainingNanos() {
+        return Math.max(0, expiryNanos - System.nanoTime());
+    }
+
+    /**
+     * Limit a timeout so that it does not extend beyond this deadline.
+     * @param timeout A timeout.
+     * @return The supplied timeout if it ends before this deadline; otherwise the time remaining until this deadline.
+     */
+    public TimePeriod limit(TimePeriod timeout) {
+        if (!bounded) {
+            return timeout;
+        }
+        long remaining = remainingNanos();
+        if (timeout.getTimeUnit().toNanos(timeout.getTime()) <= remaining) {
+            return timeout;
+        }
+        return new TimePeriod(remaining, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Limit a timeout in milliseconds so that it does not extend beyond this deadline.
+     * @param timeoutMillis A timeout in milliseconds.
+     * @return The supplied timeout if it ends before this deadline; otherwise the time remaining until this deadline.
+     */
+    public long limitMillis(long timeoutMillis) {
+        if (!bounded) {
+            return timeoutMillis;
+        }
+        // Round up so a small remaining time is not treated as no timeout
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(remainingNanos() + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+        return Math.min(timeoutMillis, Math.max(1, remainingMillis));
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "remaining=" + (bounded ? remainingNanos() + "ns" : "unbounded"));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.BlockInfo;
+
+/**
+ * Tracks the freshness of the service discovery endorsement plans held by the SDK for each chaincode on a channel,
+ * so that discovery is only forced when a plan is missing, has expired or has been invalidated.
+ * <p>When a plan expires, a single transaction submit is chosen to refresh it by forcing discovery. Other submits
+ * continue to use the existing plan until the refresh completes. All plans are invalidated when a channel
+ * configuration block is received.</p>
+ * <p>
+ * This implementation is thread-safe.
+ * </p>
+ */
+public final class DiscoveryCache {
+    private static final Log LOG = LogFactory.getLog(DiscoveryCache.class);
+
+    private static final class Entry {
+        final long expiryNanos;
+        final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+        Entry(long expiryNanos) {
+            this.expiryNanos = expiryNanos;
+        }
+    }
+
+    private final long timeToLiveNanos;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public DiscoveryCache(TimePeriod timeToLive) {
+        timeToLiveNanos = timeToLive.getTimeUnit().toNanos(timeToLive.getTime());
+    }
+
+    /**
+     * Determine whether discovery should be forced for a given chaincode. If this method returns true, the caller
+     * must subsequently call either {@link #refreshed(String)} or {@link #invalidate(String)}.
+     * @param chaincodeId Chaincode name.
+     * @return true if the caller should force discovery; otherwise false.
+     */
+    public boolean isRefreshRequired(String chaincodeId) {
+        Entry entry = entries.get(chaincodeId);
+        if (entry == null) {
+            return true;
+        }
+        return System.nanoTime() - entry.expiryNanos >= 0 && entry.refreshing.compareAndSet(false, true);
+    }
+
+    /**
+     * Record that the endorsement plan for a chaincode has just been obtained by forced discovery.
+     * @param chaincodeId Chaincode name.
+     */
+    public void refreshed(String chaincodeId) {
+        entries.put(chaincodeId, new Entry(System.nanoTime() + timeToLiveNanos));
+    }
+
+    /**
+     * Mark the endorsement plan for a chaincode as invalid so that the next submit forces discovery.
+     * @param chaincodeId Chaincode name.
+     */
+    public void invalidate(String chaincodeId) {
+        entries.remove(chaincodeId);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Block listener that invalidates all endorsement plans when a configuration block is received.
+     * @param blockEvent A block event.
+     */
+    public void onBlock(BlockEvent blockEvent) {
+        if (isConfigBlock(blockEvent)) {
+            LOG.debug("Configuration block received, invalidating discovery cache: " + blockEvent.getBlockNumber());
+            invalidateAll();
+        }
+    }
+
+    private static boolean isConfigBlock(BlockEvent blockEvent) {
+        try {
+            for (int i = 0; i < blockEvent.getEnvelopeCount(); i++) {
+                BlockInfo.EnvelopeInfo envelope = blockEvent.getEnvelopeInfo(i);
+                if (envelope != null && envelope.getType() != BlockInfo.EnvelopeType.TRANSACTION_ENVELOPE) {
+                    return true;
+                }
+            }
+        } catch (InvalidProtocolBufferException e) {
+            LOG.warn("Failed to parse block envelope: " + blockEvent.getBlockNumber(), e);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "timeToLive=" + timeToLiveNanos + "ns",
+                "chaincodes=" + entries.keySet());
+    }
+}
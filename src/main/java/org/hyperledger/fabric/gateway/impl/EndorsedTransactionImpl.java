@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.EndorsedTransaction;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+
+public final class EndorsedTransactionImpl implements EndorsedTransaction {
+    private final TransactionImpl transaction;
+    private final Collection<ProposalResponse> proposalResponses;
+    private final String transactionId;
+    private final byte[] result;
+    private final AtomicBoolean submitted = new AtomicBoolean(false);
+
+    EndorsedTransactionImpl(TransactionImpl transaction, Collection<ProposalResponse> proposalResponses,
+                            String transactionId, byte[] result) {
+        this.transaction = transaction;
+        this.proposalResponses = proposalResponses;
+        this.transactionId = transactionId;
+        this.result = result;
+    }
+
+    @Override
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    @Override
+    public byte[] getResult() {
+        return result;
+    }
+
+    @Override
+    public byte[] submit() throws ContractException, TimeoutException, InterruptedException {
+        markSubmitted();
+        transaction.commit(Deadline.after(transaction.getDeadline()), proposalResponses, transactionId);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<byte[]> submitAsync() {
+        markSubmitted();
+        return transaction.commitAsync(Deadline.after(transaction.getDeadline()), proposalResponses, transactionId)
+                .thenApply(ignored -> result);
+    }
+
+    @Override
+    public void send() throws ContractException, TimeoutException {
+        markSubmitted();
+        transaction.send(Deadline.after(transaction.getDeadline()), proposalResponses, transactionId);
+    }
+
+    private void markSubmitted() {
+        if (!submitted.compareAndSet(false, true)) {
+            throw new IllegalStateException("Transaction has already been submitted: " + transactionId);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "transactionId=" + transactionId,
+                "submitted=" + submitted.get());
+    }
+}
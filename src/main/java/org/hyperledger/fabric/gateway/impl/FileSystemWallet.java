@@ -13,13 +13,24 @@ import java.io.PrintWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.security.PrivateKey;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.json.Json;
 import javax.json.JsonObject;
@@ -27,17 +38,131 @@ import javax.json.JsonReader;
 import javax.json.JsonWriter;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.hyperledger.fabric.gateway.Wallet;
 
 public final class FileSystemWallet implements Wallet {
+    private static final Log LOG = LogFactory.getLog(FileSystemWallet.class);
+
     private Path basePath;
 
+    // Only used if caching is enabled
+    private final Map<String, Identity> identityCache;
+    private final Set<String> labelCache;
+    private final AtomicLong cacheGeneration = new AtomicLong();
+    private final WatchService watchService;
+
     public FileSystemWallet(Path path) throws IOException {
+        this(path, false);
+    }
+
+    /**
+     * Create a wallet backed by a directory.
+     * @param path Wallet directory.
+     * @param cacheIdentities If true, decoded identities and labels are cached in memory. A file system watcher
+     *                        running on a daemon thread invalidates cache entries when wallet files change, until
+     *                        the wallet is closed.
+     * @throws IOException if an I/O error occurs accessing wallet state.
+     */
+    public FileSystemWallet(Path path, boolean cacheIdentities) throws IOException {
         boolean walletExists = Files.isDirectory(path);
         if (!walletExists) {
             Files.createDirectories(path);
         }
         basePath = path;
+
+        if (cacheIdentities) {
+            identityCache = new ConcurrentHashMap<>();
+            labelCache = Collections.newSetFromMap(new ConcurrentHashMap<>());
+            watchService = basePath.getFileSystem().newWatchService();
+            watchDirectory(basePath);
+            for (String label : listLabels()) {
+                watchDirectory(basePath.resolve(label));
+                labelCache.add(label);
+            }
+            startWatcher();
+        } else {
+            identityCache = null;
+            labelCache = null;
+            watchService = null;
+        }
+    }
+
+    private boolean isCacheEnabled() {
+        return identityCache != null;
+    }
+
+    private void watchDirectory(Path directory) throws IOException {
+        directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    private void startWatcher() {
+        Thread watcher = new Thread(this::watchForChanges, "FileSystemWallet-" + basePath.getFileName());
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watchForChanges() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    processWatchEvent(directory, event);
+                }
+                if (!key.reset() && !directory.equals(basePath)) {
+                    invalidate(directory.getFileName().toString());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Watcher shut down
+        }
+    }
+
+    private void processWatchEvent(Path directory, WatchEvent<?> event) {
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+            reloadCache();
+            return;
+        }
+
+        Path name = (Path) event.context();
+        if (!directory.equals(basePath)) {
+            // Change to a file within an identity directory
+            invalidate(directory.getFileName().toString());
+            return;
+        }
+
+        String label = name.toString();
+        invalidate(label);
+        if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+            labelCache.remove(label);
+        } else if (Files.isDirectory(basePath.resolve(label))) {
+            try {
+                watchDirectory(basePath.resolve(label));
+            } catch (IOException e) {
+                LOG.warn("Failed to watch wallet directory for identity " + label, e);
+            }
+            labelCache.add(label);
+        }
+    }
+
+    private void invalidate(String label) {
+        cacheGeneration.incrementAndGet();
+        identityCache.remove(label);
+    }
+
+    private void reloadCache() {
+        cacheGeneration.incrementAndGet();
+        identityCache.clear();
+        Set<String> labels = listLabels();
+        labelCache.retainAll(labels);
+        labelCache.addAll(labels);
     }
 
     @Override
@@ -54,10 +179,37 @@ public final class FileSystemWallet implements Wallet {
 
         Path pemFile = basePath.resolve(Paths.get(label, label + "-priv"));
         writePrivateKey(identity.getPrivateKey(), pemFile);
+
+        if (isCacheEnabled()) {
+            invalidate(label);
+            labelCache.add(label);
+        }
     }
 
     @Override
     public Identity get(String label) throws IOException {
+        if (!isCacheEnabled()) {
+            return load(label);
+        }
+
+        Identity identity = identityCache.get(label);
+        if (identity == null) {
+            long generation = cacheGeneration.get();
+            identity = load(label);
+            // Only cache if no files changed while loading
+            if (identity != null && generation == cacheGeneration.get()) {
+                identityCache.putIfAbsent(label, identity);
+            }
+        }
+        return identity;
+    }
+
+    @Override
+    public Map<String, Identity> getAll(Collection<String> labels) throws IOException {
+        return GatewayUtils.getAllParallel(this, labels);
+    }
+
+    private Identity load(String label) throws IOException {
         Path idFile = basePath.resolve(Paths.get(label, label));
         if (Files.exists(idFile)) {
             try (BufferedReader fr = Files.newBufferedReader(idFile)) {
@@ -70,6 +222,13 @@ public final class FileSystemWallet implements Wallet {
 
     @Override
     public Set<String> getAllLabels() {
+        if (isCacheEnabled()) {
+            return new HashSet<>(labelCache);
+        }
+        return listLabels();
+    }
+
+    private Set<String> listLabels() {
         return Arrays.stream(basePath.toFile().listFiles(File::isDirectory))
                 .map(File::getName)
                 .collect(Collectors.toSet());
@@ -81,14 +240,35 @@ public final class FileSystemWallet implements Wallet {
         if (Files.exists(idDir)) {
             FileUtils.deleteDirectory(idDir.toFile());
         }
+
+        if (isCacheEnabled()) {
+            invalidate(label);
+            labelCache.remove(label);
+        }
     }
 
     @Override
     public boolean exists(String label) {
+        if (isCacheEnabled()) {
+            return labelCache.contains(label);
+        }
+
         Path idFile = basePath.resolve(Paths.get(label, label));
         return Files.exists(idFile);
     }
 
+    /**
+     * Stop watching the wallet directory for changes, which also stops the watcher thread. Cached identities are no
+     * longer invalidated by changes made outside of this wallet instance. Has no effect if caching is not enabled.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close(); // Watcher thread exits with ClosedWatchServiceException
+        }
+    }
+
     private Identity fromJson(String json) throws IOException {
         try (JsonReader reader = Json.createReader(new StringReader(json))) {
             JsonObject idObject = reader.readObject();
@@ -23,13 +23,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.hyperledger.fabric.gateway.DefaultCommitHandlers;
+import org.hyperledger.fabric.gateway.DefaultEndorsementSelectors;
 import org.hyperledger.fabric.gateway.DefaultQueryHandlers;
 import org.hyperledger.fabric.gateway.Gateway;
+import org.hyperledger.fabric.gateway.GatewayPool;
 import org.hyperledger.fabric.gateway.GatewayRuntimeException;
 import org.hyperledger.fabric.gateway.Network;
 import org.hyperledger.fabric.gateway.Wallet;
@@ -43,6 +50,7 @@ import org.hyperledger.fabric.sdk.HFClient;
 import org.hyperledger.fabric.sdk.NetworkConfig;
 import org.hyperledger.fabric.sdk.Peer;
 import org.hyperledger.fabric.sdk.Peer.PeerRole;
+import org.hyperledger.fabric.sdk.ServiceDiscovery;
 import org.hyperledger.fabric.sdk.User;
 import org.hyperledger.fabric.sdk.exception.CryptoException;
 import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
@@ -53,24 +61,55 @@ import org.hyperledger.fabric.sdk.security.CryptoSuiteFactory;
 
 public final class GatewayImpl implements Gateway {
     private static final Log LOG = LogFactory.getLog(Gateway.class);
+    private static final int EXECUTOR_THREADS = 16;
 
     private final HFClient client;
     private final NetworkConfig networkConfig;
     private final Identity identity;
+    private final User user;
     private final Map<String, NetworkImpl> networks = new HashMap<>();
     private final CommitHandlerFactory commitHandlerFactory;
     private final TimePeriod commitTimeout;
+    private final TimePeriod commitPollingInterval;
+    private final TimePeriod defaultDeadline;
     private final QueryHandlerFactory queryHandlerFactory;
     private final boolean discovery;
+    private final TimePeriod discoveryCacheTimeout;
+    private final ServiceDiscovery.EndorsementSelector endorsementSelector;
+    private final int maxConcurrency;
+    private final int maxQueueLength;
+    private final Path journalDirectory;
+    private final int blockCacheSize;
+    private final Path archiveDirectory;
+    private final TimePeriod blockGapTimeout;
+    private final int blockGapWindow;
+    private final boolean eventSourceFailover;
+    private final HashedWheelTimer commitTimer; // Shared with gateways created from this one
+    private final ExecutorService executor; // Shared with gateways created from this one
+    private final boolean ownsSharedServices;
+    private final GatewayImpl parent; // Non-null for gateways sharing connections from a GatewayPool
+    private final Consumer<GatewayImpl> closeHandler; // Notifies the GatewayPool when a pooled gateway is closed
 
     public static final class Builder implements Gateway.Builder {
         private CommitHandlerFactory commitHandlerFactory = DefaultCommitHandlers.MSPID_SCOPE_ALLFORTX;
         private TimePeriod commitTimeout = new TimePeriod(5, TimeUnit.MINUTES);
+        private TimePeriod commitPollingInterval = null;
+        private TimePeriod defaultDeadline = null;
         private QueryHandlerFactory queryHandlerFactory = DefaultQueryHandlers.MSPID_SCOPE_SINGLE;
         private NetworkConfig ccp = null;
         private Identity identity = null;
         private HFClient client;
         private boolean discovery = false;
+        private TimePeriod discoveryCacheTimeout = new TimePeriod(1, TimeUnit.MINUTES);
+        private ServiceDiscovery.EndorsementSelector endorsementSelector = DefaultEndorsementSelectors.random();
+        private int maxConcurrency = 0; // Unlimited
+        private int maxQueueLength = 0;
+        private Path journalDirectory = null;
+        private int blockCacheSize = 0;
+        private Path archiveDirectory = null;
+        private TimePeriod blockGapTimeout = null;
+        private int blockGapWindow = 0;
+        private boolean eventSourceFailover = false;
 
         private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
             public byte[] getInternalBuffer() {
@@ -135,12 +174,92 @@ public final class GatewayImpl implements Gateway {
             return this;
         }
 
+        @Override
+        public Builder commitPollingInterval(long interval, TimeUnit timeUnit) {
+            if (interval <= 0) {
+                throw new IllegalArgumentException("interval must be positive: " + interval);
+            }
+            this.commitPollingInterval = new TimePeriod(interval, timeUnit);
+            return this;
+        }
+
+        @Override
+        public Builder defaultDeadline(long timeout, TimeUnit timeUnit) {
+            this.defaultDeadline = new TimePeriod(timeout, timeUnit);
+            return this;
+        }
+
 		@Override
 		public Builder discovery(boolean enabled) {
 			this.discovery = enabled;
 			return this;
 		}
 
+        @Override
+        public Builder discoveryCacheTimeout(long timeout, TimeUnit timeUnit) {
+            this.discoveryCacheTimeout = new TimePeriod(timeout, timeUnit);
+            return this;
+        }
+
+        @Override
+        public Builder endorsementSelector(ServiceDiscovery.EndorsementSelector endorsementSelector) {
+            this.endorsementSelector = endorsementSelector;
+            return this;
+        }
+
+        @Override
+        public Builder concurrencyLimit(int maxConcurrency, int maxQueueLength) {
+            if (maxConcurrency < 1) {
+                throw new IllegalArgumentException("maxConcurrency must be at least 1: " + maxConcurrency);
+            }
+            if (maxQueueLength < 0) {
+                throw new IllegalArgumentException("maxQueueLength must not be negative: " + maxQueueLength);
+            }
+            this.maxConcurrency = maxConcurrency;
+            this.maxQueueLength = maxQueueLength;
+            return this;
+        }
+
+        @Override
+        public Builder transactionJournal(Path directory) {
+            this.journalDirectory = directory;
+            return this;
+        }
+
+        @Override
+        public Builder blockCacheSize(int size) {
+            if (size < 0) {
+                throw new IllegalArgumentException("size must not be negative: " + size);
+            }
+            this.blockCacheSize = size;
+            return this;
+        }
+
+        @Override
+        public Builder blockArchive(Path directory) {
+            this.archiveDirectory = directory;
+            return this;
+        }
+
+        @Override
+        public Builder blockGapRecovery(long timeout, TimeUnit timeUnit, int windowSize) {
+            if (timeout <= 0) {
+                throw new IllegalArgumentException("timeout must be positive: " + timeout);
+            }
+            if (windowSize < 0) {
+                throw new IllegalArgumentException("windowSize must not be negative: " + windowSize);
+            }
+            this.blockGapTimeout = new TimePeriod(timeout, timeUnit);
+            this.blockGapWindow = windowSize;
+            return this;
+        }
+
+        @Override
+        public Builder eventSourceFailover(boolean enabled) {
+            this.eventSourceFailover = enabled;
+            return this;
+        }
+
         public Builder client(HFClient client) {
             this.client = client;
             return this;
@@ -150,20 +269,42 @@ public final class GatewayImpl implements Gateway {
         public GatewayImpl connect() {
             return new GatewayImpl(this);
         }
+
+        @Override
+        public GatewayPool connectPool() {
+            return new GatewayPoolImpl(connect());
+        }
     }
 
     private GatewayImpl(Builder builder) {
         this.commitHandlerFactory = builder.commitHandlerFactory;
         this.commitTimeout = builder.commitTimeout;
+        this.commitPollingInterval = builder.commitPollingInterval;
+        this.defaultDeadline = builder.defaultDeadline;
         this.queryHandlerFactory = builder.queryHandlerFactory;
         this.discovery = builder.discovery;
+        this.discoveryCacheTimeout = builder.discoveryCacheTimeout;
+        this.endorsementSelector = builder.endorsementSelector;
+        this.maxConcurrency = builder.maxConcurrency;
+        this.maxQueueLength = builder.maxQueueLength;
+        this.journalDirectory = builder.journalDirectory;
+        this.blockCacheSize = builder.blockCacheSize;
+        this.archiveDirectory = builder.archiveDirectory;
+        this.blockGapTimeout = builder.blockGapTimeout;
+        this.blockGapWindow = builder.blockGapWindow;
+        this.eventSourceFailover = builder.eventSourceFailover;
+        this.parent = null;
+        this.closeHandler = null;
+        this.commitTimer = newCommitTimer();
+        this.executor = newExecutor();
+        this.ownsSharedServices = true;
 
         if (builder.client != null) {
             // Only for testing!
             this.client = builder.client;
             this.networkConfig = null;
 
-            User user = client.getUserContext();
+            this.user = client.getUserContext();
             Enrollment enrollment = user.getEnrollment();
             this.identity = Identity.createIdentity(user.getMspId(), enrollment.getCert(), enrollment.getKey());
         } else {
@@ -175,6 +316,7 @@ public final class GatewayImpl implements Gateway {
             }
             this.networkConfig = builder.ccp;
             this.identity = builder.identity;
+            this.user = createUser(identity);
 
             this.client = createClient();
         }
@@ -183,17 +325,88 @@ public final class GatewayImpl implements Gateway {
     private GatewayImpl(GatewayImpl that) {
         this.commitHandlerFactory = that.commitHandlerFactory;
         this.commitTimeout = that.commitTimeout;
+        this.commitPollingInterval = that.commitPollingInterval;
+        this.defaultDeadline = that.defaultDeadline;
         this.queryHandlerFactory = that.queryHandlerFactory;
         this.discovery = that.discovery;
+        this.discoveryCacheTimeout = that.discoveryCacheTimeout;
+        this.endorsementSelector = that.endorsementSelector;
+        this.maxConcurrency = that.maxConcurrency;
+        this.maxQueueLength = that.maxQueueLength;
+        this.journalDirectory = null; // Copies are used for event replay, so must not contend for journal files
+        this.blockCacheSize = 0; // Copies are used for event replay, so do not need to serve further replays
+        this.archiveDirectory = null; // Copies are used for event replay, so must not contend for archive files
+        this.blockGapTimeout = null; // Copies are used for event replay, including gap recovery, so must not recurse
+        this.blockGapWindow = 0;
+        this.eventSourceFailover = false; // Copies are used for event replay, which selects its own event peers
         this.networkConfig = that.networkConfig;
         this.identity = that.identity;
+        this.user = that.user; // Reuse enrollment rather than building from identity credentials again
+        this.parent = null;
+        this.closeHandler = null;
+        this.commitTimer = that.commitTimer;
+        this.executor = that.executor;
+        this.ownsSharedServices = false;
 
         this.client = createClient();
     }
 
-    private HFClient createClient() {
+    /**
+     * Create a gateway that uses a different identity but shares the client and network connections of a parent
+     * gateway.
+     */
+    private GatewayImpl(GatewayImpl parent, Identity identity, Consumer<GatewayImpl> closeHandler) {
+        this.commitHandlerFactory = parent.commitHandlerFactory;
+        this.commitTimeout = parent.commitTimeout;
+        this.commitPollingInterval = parent.commitPollingInterval;
+        this.defaultDeadline = parent.defaultDeadline;
+        this.queryHandlerFactory = parent.queryHandlerFactory;
+        this.discovery = parent.discovery;
+        this.discoveryCacheTimeout = parent.discoveryCacheTimeout;
+        this.endorsementSelector = parent.endorsementSelector;
+        this.maxConcurrency = parent.maxConcurrency;
+        this.maxQueueLength = parent.maxQueueLength;
+        this.journalDirectory = parent.journalDirectory;
+        this.blockCacheSize = parent.blockCacheSize;
+        this.archiveDirectory = parent.archiveDirectory;
+        this.blockGapTimeout = parent.blockGapTimeout;
+        this.blockGapWindow = parent.blockGapWindow;
+        this.eventSourceFailover = parent.eventSourceFailover;
+        this.networkConfig = parent.networkConfig;
+        this.identity = identity;
+        this.user = createUser(identity);
+        this.parent = parent;
+        this.closeHandler = closeHandler;
+        this.commitTimer = parent.commitTimer;
+        this.executor = parent.executor;
+        this.ownsSharedServices = false;
+
+        this.client = parent.client;
+    }
+
+    private static HashedWheelTimer newCommitTimer() {
+        return new HashedWheelTimer("GatewayCommitTimer", new TimePeriod(100, TimeUnit.MILLISECONDS), 512);
+    }
+
+    /**
+     * Bounded pool of daemon threads for blocking work, such as peer queries and changes to channel peers, that must
+     * not run on timer or event delivery threads.
+     */
+    private static ExecutorService newExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(EXECUTOR_THREADS, EXECUTOR_THREADS,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "GatewayExecutor-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static User createUser(Identity identity) {
         Enrollment enrollment = new X509Enrollment(identity.getPrivateKey(), identity.getCertificate());
-        User user = new User() {
+        return new User() {
             @Override
             public String getName() {
                 return "gateway";
@@ -224,7 +437,9 @@ public final class GatewayImpl implements Gateway {
                 return identity.getMspId();
             }
         };
+    }
 
+    private HFClient createClient() {
         HFClient client = HFClient.createNewInstance();
 
         try {
@@ -240,9 +455,22 @@ public final class GatewayImpl implements Gateway {
     }
 
     @Override
-    public synchronized void close() {
-        networks.values().forEach(NetworkImpl::close);
-        networks.clear();
+    public void close() {
+        synchronized (this) {
+            networks.values().forEach(NetworkImpl::close);
+            networks.clear();
+
+            if (ownsSharedServices) {
+                // Stop the executor first so that remaining timer tasks run on close cannot start new work
+                executor.shutdownNow();
+                commitTimer.close();
+            }
+        }
+
+        // Outside the lock since the pool may be closing this gateway while holding its own lock
+        if (closeHandler != null) {
+            closeHandler.accept(this);
+        }
     }
 
     @Override
@@ -251,7 +479,11 @@ public final class GatewayImpl implements Gateway {
             throw new IllegalArgumentException("Channel name must be a non-empty string");
         }
         NetworkImpl network = networks.get(networkName);
-        if (network == null) {
+        if (network == null && parent != null) {
+            NetworkImpl sharedNetwork = (NetworkImpl) parent.getNetwork(networkName);
+            network = new NetworkImpl(sharedNetwork, this);
+            networks.put(networkName, network);
+        } else if (network == null) {
             Channel channel = client.getChannel(networkName);
             if (channel == null && networkConfig != null) {
                 try {
@@ -290,6 +522,15 @@ public final class GatewayImpl implements Gateway {
         return client;
     }
 
+    /**
+     * Get the SDK user context that should be used to sign requests made by this gateway. This may differ from the
+     * client user context if the client is shared between gateways.
+     * @return A user context.
+     */
+    public User getUser() {
+        return user;
+    }
+
     public CommitHandlerFactory getCommitHandlerFactory() {
         return commitHandlerFactory;
     }
@@ -298,6 +539,31 @@ public final class GatewayImpl implements Gateway {
         return commitTimeout;
     }
 
+    /**
+     * Get the interval at which peers are queried for the status of a transaction whose commit has not been observed
+     * from block events.
+     * @return A time period, or null if commit status polling is not enabled.
+     */
+    public TimePeriod getCommitPollingInterval() {
+        return commitPollingInterval;
+    }
+
+    /**
+     * Get the timer used to track commit timeouts for transactions submitted asynchronously.
+     * @return A timer.
+     */
+    public HashedWheelTimer getCommitTimer() {
+        return commitTimer;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    public TimePeriod getDefaultDeadline() {
+        return defaultDeadline;
+    }
+
     public QueryHandlerFactory getQueryHandlerFactory() {
         return queryHandlerFactory;
     }
@@ -306,10 +572,82 @@ public final class GatewayImpl implements Gateway {
         return discovery;
     }
 
+    public TimePeriod getDiscoveryCacheTimeout() {
+        return discoveryCacheTimeout;
+    }
+
+    public ServiceDiscovery.EndorsementSelector getEndorsementSelector() {
+        return endorsementSelector;
+    }
+
+    /**
+     * Get the maximum number of concurrent submits, and separately evaluations, for each network.
+     * @return Maximum concurrency, or zero if not limited.
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getMaxQueueLength() {
+        return maxQueueLength;
+    }
+
+    /**
+     * Get the directory in which transaction journal files are stored.
+     * @return A directory path, or null if transaction journaling is not enabled.
+     */
+    public Path getJournalDirectory() {
+        return journalDirectory;
+    }
+
+    /**
+     * Get the number of recently received block events retained in memory for each network.
+     * @return A number of blocks, or zero if no blocks are retained.
+     */
+    public int getBlockCacheSize() {
+        return blockCacheSize;
+    }
+
+    /**
+     * Get the directory in which block archives are stored.
+     * @return A directory path, or null if block archiving is not enabled.
+     */
+    public Path getArchiveDirectory() {
+        return archiveDirectory;
+    }
+
+    /**
+     * Get the time to wait for a block missing from a network's event stream before replaying events from peers.
+     * @return A time period, or null if gap recovery is not enabled.
+     */
+    public TimePeriod getBlockGapTimeout() {
+        return blockGapTimeout;
+    }
+
+    /**
+     * Get the maximum number of blocks held while waiting for a missing block.
+     * @return A number of blocks, or zero if not limited.
+     */
+    public int getBlockGapWindow() {
+        return blockGapWindow;
+    }
+
+    /**
+     * Whether a standby peer delivers block events while an event source peer in its organization is disconnected.
+     * @return true if event source failover is enabled; otherwise false.
+     */
+    public boolean isEventSourceFailoverEnabled() {
+        return eventSourceFailover;
+    }
+
     public GatewayImpl newInstance() {
         return new GatewayImpl(this);
     }
 
+    GatewayImpl newGateway(Identity identity, Consumer<GatewayImpl> closeHandler) {
+        return new GatewayImpl(this, identity, closeHandler);
+    }
+
     private Collection<Peer> getPeersForOrg() {
     	Collection<Peer> peers = new ArrayList<>();
 		List<String> peerNames = networkConfig.getClientOrganization().getPeerNames();
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hyperledger.fabric.gateway.GatewayPool;
+import org.hyperledger.fabric.gateway.Wallet;
+
+public final class GatewayPoolImpl implements GatewayPool {
+    private final GatewayImpl gateway;
+    private final Map<String, GatewayImpl> gateways = new HashMap<>(); // Synchronized on this
+    private boolean closed = false; // Synchronized on this
+
+    GatewayPoolImpl(GatewayImpl gateway) {
+        this.gateway = gateway;
+    }
+
+    @Override
+    public synchronized GatewayImpl getGateway(Wallet.Identity identity) {
+        if (closed) {
+            throw new IllegalStateException("Gateway pool is closed");
+        }
+        if (identity == null) {
+            throw new IllegalArgumentException("Identity must not be null");
+        }
+
+        String key = identity.getMspId() + '\n' + identity.getCertificate();
+        return gateways.computeIfAbsent(key, k -> gateway.newGateway(identity, closedGateway -> evict(k, closedGateway)));
+    }
+
+    /**
+     * Remove a closed gateway so that a new gateway is created for its identity on the next request.
+     */
+    private synchronized void evict(String key, GatewayImpl closedGateway) {
+        gateways.remove(key, closedGateway);
+    }
+
+    @Override
+    public GatewayImpl getGateway(Wallet wallet, String id) throws IOException {
+        Wallet.Identity identity = wallet.get(id);
+        if (identity == null) {
+            throw new IOException("Identity not found in wallet: " + id);
+        }
+        return getGateway(identity);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        // Closing a pooled gateway evicts it, so close a copy of the current gateways
+        new ArrayList<>(gateways.values()).forEach(GatewayImpl::close);
+        gateways.clear();
+        gateway.close();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return GatewayUtils.toString(this,
+                "gateway=" + gateway,
+                "identities=" + gateways.size());
+    }
+}
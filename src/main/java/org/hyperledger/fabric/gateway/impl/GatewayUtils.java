@@ -6,9 +6,17 @@
 
 package org.hyperledger.fabric.gateway.impl;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import org.hyperledger.fabric.gateway.Wallet;
+
 /**
  * Utility functions.
  */
@@ -24,4 +32,33 @@ public final class GatewayUtils {
         return toString(o) + Arrays.stream(additionalInfo)
                 .collect(Collectors.joining(", ", "(", ")"));
     }
+
+    /**
+     * Retrieve identities from a thread-safe wallet in parallel.
+     * @param wallet A wallet.
+     * @param labels Identity labels.
+     * @return Identities keyed by label, excluding labels that do not exist in the wallet.
+     * @throws IOException if an I/O error occurs accessing wallet state.
+     */
+    public static Map<String, Wallet.Identity> getAllParallel(Wallet wallet, Collection<String> labels) throws IOException {
+        Map<String, Wallet.Identity> results = new ConcurrentHashMap<>();
+        try {
+            labels.parallelStream()
+                    .distinct()
+                    .filter(Objects::nonNull)
+                    .forEach(label -> {
+                        try {
+                            Wallet.Identity identity = wallet.get(label);
+                            if (identity != null) {
+                                results.put(label, identity);
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return results;
+    }
 }
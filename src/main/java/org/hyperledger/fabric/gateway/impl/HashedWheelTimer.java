@@ -0,0 +1,231 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Timer optimized for scheduling large numbers of timeouts that are usually cancelled before they expire, such as
+ * commit timeouts for pending transactions. Timeouts are stored in a ring of buckets, each covering one tick of time,
+ * so scheduling and cancellation are constant time operations. A single daemon worker thread advances the wheel once
+ * per tick and runs expired tasks, so timeouts fire up to one tick late.
+ * <p>Expired tasks run on the worker thread and must complete quickly without blocking.</p>
+ * <p>
+ * This implementation is thread-safe.
+ * </p>
+ */
+public final class HashedWheelTimer implements AutoCloseable {
+    private static final Log LOG = LogFactory.getLog(HashedWheelTimer.class);
+
+    /**
+     * A scheduled task, which may be cancelled before it expires.
+     */
+    public static final class Timeout {
+        private final Runnable task;
+        private final long deadlineNanos;
+        private long remainingRounds;
+        private volatile boolean cancelled = false;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final String name;
+    private final long tickNanos;
+    private final Queue<Timeout>[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile boolean stopped = false;
+    private final long startTimeNanos = System.nanoTime();
+    private volatile Thread worker;
+    private long tick; // Only accessed by worker thread
+
+    /**
+     * Create a timer.
+     * @param name Name used for the worker thread.
+     * @param tickDuration Duration of each tick, which determines timer resolution.
+     * @param ticksPerWheel Number of buckets in the wheel, rounded up to a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimer(String name, TimePeriod tickDuration, int ticksPerWheel) {
+        this.name = name;
+        this.tickNanos = Math.max(1, tickDuration.getTimeUnit().toNanos(tickDuration.getTime()));
+
+        int wheelSize = Integer.highestOneBit(Math.max(1, ticksPerWheel - 1)) << 1;
+        wheel = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        mask = wheelSize - 1;
+    }
+
+    /**
+     * Schedule a task to run after a given delay. The worker thread is started when the first task is scheduled.
+     * @param task Task to run.
+     * @param delay Delay before the task runs.
+     * @param unit Time unit of the delay argument.
+     * @return A timeout that can be used to cancel the task.
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new IllegalStateException("Timer is stopped: " + name);
+        }
+        start();
+
+        long delayNanos = unit.toNanos(delay);
+        long deadlineNanos = System.nanoTime() - startTimeNanos + delayNanos;
+        if (delayNanos > 0 && deadlineNanos < 0) {
+            deadlineNanos = Long.MAX_VALUE; // Overflow
+        }
+        Timeout timeout = new Timeout(task, deadlineNanos);
+        pendingTimeouts.add(timeout);
+        if (stopped && pendingTimeouts.remove(timeout)) {
+            // Stopped concurrently so the worker may not see this timeout
+            runTask(timeout);
+        }
+        return timeout;
+    }
+
+    private void start() {
+        if (started.compareAndSet(false, true)) {
+            worker = new Thread(this::run, name);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    private void run() {
+        tick = (System.nanoTime() - startTimeNanos) / tickNanos;
+        while (!stopped) {
+            if (!waitForNextTick()) {
+                break;
+            }
+            transferPendingTimeouts();
+            expireTimeouts(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+        Thread.interrupted(); // Clear interrupt from close() before running remaining tasks
+        expireAllTimeouts();
+    }
+
+    private boolean waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long sleepNanos = deadline - (System.nanoTime() - startTimeNanos);
+            if (sleepNanos <= 0) {
+                return true;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                if (stopped) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        for (Timeout timeout; (timeout = pendingTimeouts.poll()) != null; ) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long expiryTick = Math.max(timeout.deadlineNanos / tickNanos, tick); // Do not schedule in the past
+            timeout.remainingRounds = (expiryTick - tick) / wheel.length;
+            wheel[(int) (expiryTick & mask)].add(timeout);
+        }
+    }
+
+    private void expireTimeouts(Queue<Timeout> bucket) {
+        for (Iterator<Timeout> iter = bucket.iterator(); iter.hasNext(); ) {
+            Timeout timeout = iter.next();
+            if (timeout.cancelled) {
+                iter.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iter.remove();
+                runTask(timeout);
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * Run all remaining tasks that have not been cancelled, so that anything waiting for them is released.
+     */
+    private void expireAllTimeouts() {
+        for (Queue<Timeout> bucket : wheel) {
+            for (Timeout timeout; (timeout = bucket.poll()) != null; ) {
+                if (!timeout.cancelled) {
+                    runTask(timeout);
+                }
+            }
+        }
+        for (Timeout timeout; (timeout = pendingTimeouts.poll()) != null; ) {
+            if (!timeout.cancelled) {
+                runTask(timeout);
+            }
+        }
+    }
+
+    private void runTask(Timeout timeout) {
+        try {
+            timeout.task.run();
+        } catch (RuntimeException e) {
+            LOG.warn("Timer task threw exception", e);
+        }
+    }
+
+    /**
+     * Stop the timer. Tasks that have not been cancelled are run immediately, without waiting for their timeouts to
+     * expire, so that anything waiting for them is released. When called from a thread other than the worker thread,
+     * this method waits for those tasks to complete.
+     */
+    @Override
+    public void close() {
+        stopped = true;
+        Thread workerThread = worker;
+        if (workerThread == null || workerThread == Thread.currentThread()) {
+            return;
+        }
+
+        workerThread.interrupt();
+        try {
+            workerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "name=" + name,
+                "tick=" + tickNanos + "ns",
+                "wheelSize=" + wheel.length,
+                "stopped=" + stopped);
+    }
+}
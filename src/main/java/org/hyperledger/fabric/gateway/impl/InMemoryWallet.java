@@ -6,20 +6,98 @@
 
 package org.hyperledger.fabric.gateway.impl;
 
-import java.util.HashMap;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import javax.json.JsonObject;
 
 import org.hyperledger.fabric.gateway.Wallet;
 
+/**
+ * Wallet held in memory.
+ * <p>
+ * This implementation is thread-safe.
+ * </p>
+ */
 public final class InMemoryWallet implements Wallet {
-  private Map<String, Identity> store = new HashMap<>();
+  private final Map<String, Identity> store = new ConcurrentHashMap<>();
+
+  /**
+   * Create an in-memory wallet containing a copy of all the identities in another wallet. Identities are retrieved
+   * from the source wallet in parallel, so the source wallet must be thread-safe.
+   * @param source Source wallet.
+   * @return A new in-memory wallet.
+   * @throws IOException if an I/O error occurs accessing the source wallet.
+   */
+  public static InMemoryWallet copyOf(Wallet source) throws IOException {
+    InMemoryWallet wallet = new InMemoryWallet();
+    wallet.putAll(GatewayUtils.getAllParallel(source, source.getAllLabels()));
+    return wallet;
+  }
+
+  /**
+   * Create an in-memory wallet from identity records read from a stream, in the format used by
+   * {@link SingleFileWallet}. Records are read sequentially and the credentials they contain are then decoded in
+   * parallel.
+   * @param in Input stream of identity records.
+   * @return A new in-memory wallet.
+   * @throws IOException if an I/O error occurs reading or parsing the records.
+   */
+  public static InMemoryWallet load(InputStream in) throws IOException {
+    Map<String, JsonObject> records = new LinkedHashMap<>();
+    BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    for (String line; (line = reader.readLine()) != null; ) {
+      if (line.isEmpty()) {
+        continue;
+      }
+      JsonObject record = IdentityCodec.parseRecord(line);
+      if (!IdentityCodec.hasLabel(record)) {
+        continue; // File header
+      }
+      String label = IdentityCodec.getLabel(record);
+      if (IdentityCodec.isDeleted(record)) {
+        records.remove(label);
+      } else {
+        records.put(label, record);
+      }
+    }
+
+    InMemoryWallet wallet = new InMemoryWallet();
+    try {
+      Map<String, Identity> identities = records.entrySet().parallelStream()
+          .collect(Collectors.toConcurrentMap(Map.Entry::getKey, entry -> {
+            try {
+              return IdentityCodec.toIdentity(entry.getValue());
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          }));
+      wallet.putAll(identities);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    return wallet;
+  }
 
   @Override
   public void put(String label, Identity identity) {
     store.put(label, identity);
   }
 
+  @Override
+  public void putAll(Map<String, Identity> identities) {
+    store.putAll(identities);
+  }
+
   @Override
   public Identity get(String label) {
     return store.get(label);
@@ -27,7 +105,7 @@ public final class InMemoryWallet implements Wallet {
 
   @Override
   public Set<String> getAllLabels() {
-    return store.keySet();
+    return new HashSet<>(store.keySet());
   }
 
   @Override
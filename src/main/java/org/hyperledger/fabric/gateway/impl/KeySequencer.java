@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Orders operations that share a key so that each starts only after the previous operation with the same key has
+ * completed. Operations with different keys are not ordered relative to each other. Entries are removed once the
+ * last operation for a key completes, so the number of tracked keys is bounded by the number of operations in
+ * progress.
+ * <p>
+ * This implementation is thread-safe.
+ * </p>
+ */
+public final class KeySequencer {
+    private final Map<String, CompletableFuture<Void>> tails = new HashMap<>();
+
+    /**
+     * Position of an operation in the sequence for its key.
+     */
+    public final class Ticket {
+        private final String key;
+        private final CompletableFuture<Void> previous;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private Ticket(String key, CompletableFuture<Void> previous) {
+            this.key = key;
+            this.previous = previous;
+        }
+
+        /**
+         * Get a future that completes when the operation may start.
+         * @return A future.
+         */
+        public CompletableFuture<Void> getTurn() {
+            return previous;
+        }
+
+        /**
+         * Mark the operation as complete, allowing the next operation with the same key to start. If the operation
+         * is abandoned before its turn, the next operation does not start until all earlier ones are complete.
+         */
+        public void release() {
+            previous.whenComplete((result, e) -> {
+                synchronized (tails) {
+                    tails.remove(key, done);
+                }
+                done.complete(null);
+            });
+        }
+    }
+
+    /**
+     * Add an operation to the end of the sequence for a key. The returned ticket must be released when the
+     * operation completes or is abandoned.
+     * @param key Sequencing key.
+     * @return A ticket.
+     */
+    public Ticket enqueue(String key) {
+        synchronized (tails) {
+            CompletableFuture<Void> previous = tails.get(key);
+            Ticket ticket = new Ticket(key, previous != null ? previous : CompletableFuture.completedFuture(null));
+            tails.put(key, ticket.done);
+            return ticket;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final int size;
+        synchronized (tails) {
+            size = tails.size();
+        }
+        return GatewayUtils.toString(this, "activeKeys=" + size);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hyperledger.fabric.sdk.ChaincodeResponse;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.hyperledger.fabric.sdk.ServiceDiscovery;
+import org.hyperledger.fabric.sdk.ServiceDiscovery.SDChaindcode;
+import org.hyperledger.fabric.sdk.ServiceDiscovery.SDEndorser;
+import org.hyperledger.fabric.sdk.ServiceDiscovery.SDEndorserState;
+import org.hyperledger.fabric.sdk.ServiceDiscovery.SDGroup;
+import org.hyperledger.fabric.sdk.ServiceDiscovery.SDLayout;
+
+/**
+ * Endorsement selector that picks the endorsement layout expected to complete soonest, based on the measured proposal
+ * latency and current number of in-flight proposals for each endorser.
+ * <p>Each endorser is assigned a cost of its latency moving average multiplied by one plus its in-flight proposal
+ * count. Within each group of a layout, the cheapest endorsers are picked. Since proposals are sent to all picked
+ * endorsers concurrently, the cost of a layout is the cost of its most expensive picked endorser, and the layout with
+ * the lowest cost is selected.</p>
+ * <p>The SDK does not report timings for individual endorsers, so the elapsed time of the whole endorsement request
+ * is attributed to each endorser that returned a successful response. Endorsers that fail or do not respond are
+ * penalized.</p>
+ * <p>
+ * This implementation is thread-safe.
+ * </p>
+ */
+public final class LatencyAwareEndorsementSelector implements ServiceDiscovery.EndorsementSelector {
+    private static final double SMOOTHING_FACTOR = 0.2;
+    private static final long BASELINE_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int FAILURE_PENALTY_FACTOR = 2;
+
+    private static final class EndorserStats {
+        final AtomicInteger inFlight = new AtomicInteger(0);
+        private double latencyNanos = 0; // Zero until first measurement so unmeasured endorsers are tried
+
+        synchronized void recordLatency(long nanos) {
+            latencyNanos = latencyNanos == 0 ? nanos : latencyNanos + SMOOTHING_FACTOR * (nanos - latencyNanos);
+        }
+
+        synchronized double getLatencyNanos() {
+            return latencyNanos;
+        }
+
+        double getCost() {
+            return (getLatencyNanos() + BASELINE_LATENCY_NANOS) * (1 + inFlight.get());
+        }
+    }
+
+    private final Map<String, EndorserStats> endorserStats = new ConcurrentHashMap<>();
+    private final ThreadLocal<List<String>> pickedEndpoints = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public SDEndorserState endorserSelector(SDChaindcode sdChaindcode) {
+        Selection selection = select(sdChaindcode);
+
+        SDEndorserState state = new SDEndorserState();
+        state.setPickedEndorsers(selection.endorsers);
+        state.setPickedLayout(selection.layout);
+        return state;
+    }
+
+    static final class Selection {
+        final SDLayout layout;
+        final Collection<SDEndorser> endorsers;
+
+        Selection(SDLayout layout, Collection<SDEndorser> endorsers) {
+            this.layout = layout;
+            this.endorsers = endorsers;
+        }
+    }
+
+    Selection select(SDChaindcode sdChaindcode) {
+        List<SDLayout> layouts = new ArrayList<>(sdChaindcode.getLayouts());
+        Collections.shuffle(layouts); // Spread load between layouts of equal cost
+
+        SDLayout pickedLayout = null;
+        Collection<SDEndorser> pickedEndorsers = Collections.emptyList();
+        double lowestCost = Double.MAX_VALUE;
+
+        for (SDLayout layout : layouts) {
+            Collection<SDEndorser> endorsers = pickEndorsers(layout);
+            double cost = endorsers.stream()
+                    .mapToDouble(endorser -> getStats(endorser.getEndpoint()).getCost())
+                    .max()
+                    .orElse(0);
+            if (pickedLayout == null || cost < lowestCost) {
+                pickedLayout = layout;
+                pickedEndorsers = endorsers;
+                lowestCost = cost;
+            }
+        }
+
+        List<String> picked = pickedEndpoints.get();
+        for (SDEndorser endorser : pickedEndorsers) {
+            getStats(endorser.getEndpoint()).inFlight.incrementAndGet();
+            picked.add(endorser.getEndpoint());
+        }
+
+        return new Selection(pickedLayout, pickedEndorsers);
+    }
+
+    private Collection<SDEndorser> pickEndorsers(SDLayout layout) {
+        Set<SDEndorser> results = new HashSet<>();
+        for (SDGroup group : layout.getSDLGroups()) {
+            List<SDEndorser> endorsers = new ArrayList<>(group.getEndorsers());
+            Collections.shuffle(endorsers);
+            endorsers.sort(Comparator.comparingDouble(endorser -> getStats(endorser.getEndpoint()).getCost()));
+            int required = Math.max(0, Math.min(group.getStillRequired(), endorsers.size()));
+            results.addAll(endorsers.subList(0, required));
+        }
+        return results;
+    }
+
+    private EndorserStats getStats(String endpoint) {
+        return endorserStats.computeIfAbsent(endpoint, k -> new EndorserStats());
+    }
+
+    /**
+     * Record the outcome of an endorsement request made on the current thread. Must be called after every request
+     * that used this selector, including failed requests.
+     * @param elapsedNanos Elapsed time of the endorsement request.
+     * @param responses Proposal responses, or null if the request failed.
+     */
+    public void requestCompleted(long elapsedNanos, Collection<ProposalResponse> responses) {
+        List<String> picked = pickedEndpoints.get();
+        pickedEndpoints.remove();
+
+        Set<String> successfulEndpoints = new HashSet<>();
+        if (responses != null) {
+            for (ProposalResponse response : responses) {
+                Peer peer = response.getPeer();
+                if (peer != null && ChaincodeResponse.Status.SUCCESS.equals(response.getStatus())) {
+                    successfulEndpoints.add(toEndpoint(peer.getUrl()));
+                }
+            }
+        }
+
+        for (String endpoint : picked) {
+            EndorserStats stats = getStats(endpoint);
+            stats.inFlight.decrementAndGet();
+            if (successfulEndpoints.contains(endpoint)) {
+                stats.recordLatency(elapsedNanos);
+            } else {
+                stats.recordLatency(elapsedNanos * FAILURE_PENALTY_FACTOR);
+            }
+        }
+    }
+
+    private static String toEndpoint(String url) {
+        if (url == null) {
+            return "";
+        }
+        int schemeEnd = url.indexOf("://");
+        return schemeEnd >= 0 ? url.substring(schemeEnd + 3) : url;
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "endorsers=" + endorserStats.keySet());
+    }
+}
@@ -7,12 +7,23 @@
 package org.hyperledger.fabric.gateway.impl;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.BlockGapMetrics;
+import org.hyperledger.fabric.gateway.CommitStatus;
 import org.hyperledger.fabric.gateway.Contract;
 import org.hyperledger.fabric.gateway.GatewayRuntimeException;
 import org.hyperledger.fabric.gateway.Network;
@@ -20,6 +31,7 @@ import org.hyperledger.fabric.gateway.impl.event.BlockEventSource;
 import org.hyperledger.fabric.gateway.impl.event.BlockEventSourceFactory;
 import org.hyperledger.fabric.gateway.impl.event.BlockListenerSession;
 import org.hyperledger.fabric.gateway.impl.event.CommitListenerSession;
+import org.hyperledger.fabric.gateway.impl.event.EventPublisher;
 import org.hyperledger.fabric.gateway.impl.event.ListenerSession;
 import org.hyperledger.fabric.gateway.impl.event.Listeners;
 import org.hyperledger.fabric.gateway.impl.event.OrderedBlockEventSource;
@@ -27,21 +39,37 @@ import org.hyperledger.fabric.gateway.impl.event.ReplayListenerSession;
 import org.hyperledger.fabric.gateway.spi.Checkpointer;
 import org.hyperledger.fabric.gateway.spi.CommitListener;
 import org.hyperledger.fabric.gateway.spi.QueryHandler;
+import org.hyperledger.fabric.protos.common.Common;
+import org.hyperledger.fabric.protos.peer.TransactionPackage.TxValidationCode;
 import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.Channel;
 import org.hyperledger.fabric.sdk.Peer;
 import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
+import org.hyperledger.fabric.sdk.exception.ProposalException;
 import org.hyperledger.fabric.sdk.exception.TransactionException;
+import org.reactivestreams.Publisher;
 
 public final class NetworkImpl implements Network, AutoCloseable {
+    private static final Log logger = LogFactory.getLog(NetworkImpl.class);
+
     private final Channel channel;
     private final GatewayImpl gateway;
     private final Map<String, Contract> contracts = new ConcurrentHashMap<>();
     private final BlockEventSource channelBlockSource;
-    private final BlockEventSource orderedBlockSource;
+    private final OrderedBlockEventSource orderedBlockSource;
     private final QueryHandler queryHandler;
+    private final boolean ownsChannel;
+    private final DiscoveryCache discoveryCache;
+    private final AdmissionController submitAdmission;
+    private final AdmissionController evaluateAdmission;
+    private final KeySequencer submitSequencer;
+    private final TransactionJournal journal;
+    private final AtomicBoolean journalSeeded;
+    private final BlockArchive archive;
     private final Map<Consumer<BlockEvent>, ListenerSession> blockListenerSessions = new HashMap<>();
+    private final Map<Consumer<CommitStatus>, ListenerSession> commitStatusListenerSessions = new HashMap<>();
     private final Map<CommitListener, CommitListenerSession> commitListenerSessions = new ConcurrentHashMap<>();
+    private final Set<ListenerSession> publisherSessions = ConcurrentHashMap.newKeySet();
 
     NetworkImpl(Channel channel, GatewayImpl gateway) {
         this.channel = channel;
@@ -49,9 +77,125 @@ public final class NetworkImpl implements Network, AutoCloseable {
 
         initializeChannel();
 
-        channelBlockSource = BlockEventSourceFactory.getInstance().newBlockEventSource(channel);
-        orderedBlockSource = new OrderedBlockEventSource(channelBlockSource);
+        channelBlockSource = newChannelBlockSource();
+        orderedBlockSource = new OrderedBlockEventSource(channelBlockSource, -1, gateway.getBlockCacheSize(),
+                newGapRecovery());
+        queryHandler = gateway.getQueryHandlerFactory().create(this);
+        ownsChannel = true;
+
+        if (gateway.isDiscoveryEnabled()) {
+            discoveryCache = new DiscoveryCache(gateway.getDiscoveryCacheTimeout());
+            orderedBlockSource.addBlockListener(discoveryCache::onBlock);
+        } else {
+            discoveryCache = null;
+        }
+
+        submitSequencer = new KeySequencer();
+
+        Path journalDirectory = gateway.getJournalDirectory();
+        if (journalDirectory != null) {
+            journal = openJournal(journalDirectory.resolve(channel.getName() + ".journal"));
+            journalSeeded = new AtomicBoolean(false);
+            orderedBlockSource.addBlockListener(journal::onBlock);
+        } else {
+            journal = null;
+            journalSeeded = null;
+        }
+
+        Path archiveDirectory = gateway.getArchiveDirectory();
+        if (archiveDirectory != null) {
+            archive = openArchive(archiveDirectory.resolve(channel.getName()));
+            orderedBlockSource.addBlockListener(archive::onBlock);
+        } else {
+            archive = null;
+        }
+
+        int maxConcurrency = gateway.getMaxConcurrency();
+        if (maxConcurrency > 0) {
+            int maxQueueLength = gateway.getMaxQueueLength();
+            submitAdmission = new AdmissionController(channel.getName() + " submit", maxConcurrency, maxQueueLength);
+            evaluateAdmission = new AdmissionController(channel.getName() + " evaluate", maxConcurrency, maxQueueLength);
+        } else {
+            submitAdmission = null;
+            evaluateAdmission = null;
+        }
+    }
+
+    /**
+     * Create a network for a gateway that shares the channel and event sources of another network.
+     */
+    NetworkImpl(NetworkImpl shared, GatewayImpl gateway) {
+        this.channel = shared.channel;
+        this.gateway = gateway;
+
+        channelBlockSource = shared.channelBlockSource;
+        orderedBlockSource = shared.orderedBlockSource;
         queryHandler = gateway.getQueryHandlerFactory().create(this);
+        ownsChannel = false;
+        discoveryCache = shared.discoveryCache;
+        submitAdmission = shared.submitAdmission;
+        evaluateAdmission = shared.evaluateAdmission;
+        submitSequencer = shared.submitSequencer;
+        journal = shared.journal;
+        journalSeeded = shared.journalSeeded;
+        archive = shared.archive;
+    }
+
+    private static TransactionJournal openJournal(Path journalFile) {
+        try {
+            return new TransactionJournal(journalFile);
+        } catch (IOException e) {
+            throw new GatewayRuntimeException("Failed to open transaction journal: " + journalFile, e);
+        }
+    }
+
+    /**
+     * Transactions sent before the first block event is received are recorded as pending from the current blockchain
+     * height, so reconciliation does not need to replay from the start of the chain. The height is queried once, on
+     * first submit, so creating the network does not make a ledger query.
+     */
+    private void seedJournalBlockHeight() {
+        if (journalSeeded.get()) {
+            return;
+        }
+        synchronized (journalSeeded) {
+            if (journalSeeded.get()) {
+                return;
+            }
+            try {
+                journal.setBlockHeight(getBlockHeight());
+            } catch (GatewayRuntimeException e) {
+                logger.warn("Failed to get blockchain height for transaction journal", e);
+            }
+            journalSeeded.set(true);
+        }
+    }
+
+    private BlockEventSource newChannelBlockSource() {
+        BlockEventSourceFactory factory = BlockEventSourceFactory.getInstance();
+        if (gateway.isEventSourceFailoverEnabled()) {
+            return factory.newFailoverBlockEventSource(channel,
+                    (peer, startBlock, listener) -> new ReplayListenerSession(this, Collections.singleton(peer), listener, startBlock),
+                    gateway.getExecutor());
+        }
+        return factory.newBlockEventSource(channel);
+    }
+
+    private OrderedBlockEventSource.GapRecovery newGapRecovery() {
+        TimePeriod timeout = gateway.getBlockGapTimeout();
+        if (timeout == null) {
+            return null;
+        }
+        return new OrderedBlockEventSource.GapRecovery(gateway.getCommitTimer(), timeout, gateway.getBlockGapWindow(),
+                (startBlock, listener) -> new ReplayListenerSession(this, listener, startBlock), gateway.getExecutor());
+    }
+
+    private static BlockArchive openArchive(Path directory) {
+        try {
+            return new BlockArchive(directory);
+        } catch (IOException e) {
+            throw new GatewayRuntimeException("Failed to open block archive: " + directory, e);
+        }
     }
 
     private void initializeChannel() {
@@ -115,7 +259,7 @@ public final class NetworkImpl implements Network, AutoCloseable {
     public Consumer<BlockEvent> addBlockListener(long startBlock, Consumer<BlockEvent> listener) {
         synchronized (blockListenerSessions) {
             if (!blockListenerSessions.containsKey(listener)) {
-                ListenerSession session = new ReplayListenerSession(this, listener, startBlock);
+                ListenerSession session = newReplayListenerSession(listener, startBlock);
                 blockListenerSessions.put(listener, session);
             }
         }
@@ -128,7 +272,22 @@ public final class NetworkImpl implements Network, AutoCloseable {
             // New checkpointer so can attach to the shared block source
             return new BlockListenerSession(orderedBlockSource, listener);
         }
-        return new ReplayListenerSession(this, listener, blockNumber);
+        return newReplayListenerSession(listener, blockNumber);
+    }
+
+    /**
+     * Create a listener session that receives events starting from a specific block. If the start block is within
+     * the cache of recently received blocks, events are delivered from the cache and then from the shared block
+     * source; otherwise events are replayed from peers using a separate connection.
+     * @param listener A block listener.
+     * @param startBlock Block number from which to receive events.
+     * @return A listener session.
+     */
+    public ListenerSession newReplayListenerSession(Consumer<BlockEvent> listener, long startBlock) {
+        if (gateway.getBlockCacheSize() > 0 && orderedBlockSource.addBlockListener(startBlock, listener)) {
+            return () -> orderedBlockSource.removeBlockListener(listener);
+        }
+        return new ReplayListenerSession(this, listener, startBlock);
     }
 
     @Override
@@ -142,6 +301,42 @@ public final class NetworkImpl implements Network, AutoCloseable {
         }
     }
 
+    @Override
+    public Publisher<BlockEvent> newBlockPublisher(int bufferSize) {
+        return newEventPublisher(listener -> listener, bufferSize);
+    }
+
+    /**
+     * Create a publisher of events derived from the block events of this network.
+     * @param listenerAdapter Creates a block listener that passes events to the supplied event listener.
+     * @param bufferSize Maximum number of events to buffer for each subscriber.
+     * @param <T> Event type.
+     * @return An event publisher.
+     */
+    public <T> Publisher<T> newEventPublisher(Function<Consumer<T>, Consumer<BlockEvent>> listenerAdapter, int bufferSize) {
+        return new EventPublisher<>(orderedBlockSource, listenerAdapter, bufferSize, publisherSessions);
+    }
+
+    @Override
+    public Consumer<CommitStatus> addCommitStatusListener(Consumer<CommitStatus> listener) {
+        synchronized (commitStatusListenerSessions) {
+            commitStatusListenerSessions.computeIfAbsent(listener, k ->
+                    new BlockListenerSession(orderedBlockSource, Listeners.fromCommitStatus(listener)));
+        }
+        return listener;
+    }
+
+    @Override
+    public void removeCommitStatusListener(Consumer<CommitStatus> listener) {
+        final ListenerSession session;
+        synchronized (commitStatusListenerSessions) {
+            session = commitStatusListenerSessions.remove(listener);
+        }
+        if (session != null) {
+            session.close();
+        }
+    }
+
     @Override
     public CommitListener addCommitListener(CommitListener listener, Collection<Peer> peers, String transactionId) {
         commitListenerSessions.computeIfAbsent(listener, k ->
@@ -157,27 +352,178 @@ public final class NetworkImpl implements Network, AutoCloseable {
         }
     }
 
+    @Override
+    public CompletableFuture<Map<String, TxValidationCode>> reconcileTransactions() {
+        if (journal == null) {
+            throw new IllegalStateException("Transaction journal is not enabled");
+        }
+
+        Map<String, Long> pending = journal.getPending();
+        if (pending.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+
+        final long startBlock = Collections.min(pending.values());
+        final long endBlock = getBlockHeight() - 1;
+        if (startBlock > endBlock) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+
+        Map<String, TxValidationCode> results = new ConcurrentHashMap<>();
+        CompletableFuture<Map<String, TxValidationCode>> future = new CompletableFuture<>();
+        Consumer<BlockEvent> listener = blockEvent -> {
+            blockEvent.getTransactionEvents().forEach(transactionEvent -> {
+                String transactionId = transactionEvent.getTransactionID();
+                if (pending.containsKey(transactionId)) {
+                    results.put(transactionId, TxValidationCode.forNumber(transactionEvent.getValidationCode()));
+                }
+            });
+            journal.onBlock(blockEvent);
+            if (blockEvent.getBlockNumber() >= endBlock || results.size() == pending.size()) {
+                future.complete(Collections.unmodifiableMap(results));
+            }
+        };
+
+        ListenerSession session = newReplayListenerSession(listener, startBlock);
+        // Completion runs on the thread delivering replayed events, so close the session on another thread
+        future.whenComplete((result, e) -> closeAsync(session));
+        return future;
+    }
+
+    private void closeAsync(ListenerSession session) {
+        try {
+            gateway.getExecutor().execute(session::close);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Replay session closed on calling thread as executor is shut down", e);
+            session.close();
+        }
+    }
+
+    @Override
+    public long readArchivedBlocks(long startBlock, Consumer<Common.Block> listener) throws IOException {
+        if (archive == null) {
+            throw new IllegalStateException("Block archive is not enabled");
+        }
+        return archive.readBlocks(startBlock, listener);
+    }
+
+    @Override
+    public BlockGapMetrics getBlockGapMetrics() {
+        return orderedBlockSource;
+    }
+
+    private long getBlockHeight() {
+        try {
+            return channel.queryBlockchainInfo(gateway.getUser()).getHeight();
+        } catch (InvalidArgumentException | ProposalException e) {
+            throw new GatewayRuntimeException("Failed to query blockchain info", e);
+        }
+    }
+
+    /**
+     * Get the journal used to record transactions sent to the orderer.
+     * @return A transaction journal, or null if journaling is not enabled.
+     */
+    public TransactionJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Get the journal used to record transactions about to be sent to the orderer, seeding it with the current
+     * blockchain height on first use.
+     * @return A transaction journal, or null if journaling is not enabled.
+     */
+    TransactionJournal getJournalForSubmit() {
+        if (journal != null) {
+            seedJournalBlockHeight();
+        }
+        return journal;
+    }
+
     public QueryHandler getQueryHandler() {
         return queryHandler;
     }
 
+    /**
+     * Get the cache used to avoid forcing service discovery for every transaction submit.
+     * @return A discovery cache, or null if discovery is not enabled.
+     */
+    public DiscoveryCache getDiscoveryCache() {
+        return discoveryCache;
+    }
+
+    /**
+     * Get the admission controller limiting concurrent transaction submits.
+     * @return An admission controller, or null if concurrency limiting is not enabled.
+     */
+    public AdmissionController getSubmitAdmission() {
+        return submitAdmission;
+    }
+
+    /**
+     * Get the admission controller limiting concurrent transaction evaluations.
+     * @return An admission controller, or null if concurrency limiting is not enabled.
+     */
+    public AdmissionController getEvaluateAdmission() {
+        return evaluateAdmission;
+    }
+
+    /**
+     * Get the sequencer used to order submits of transactions that have a conflict key.
+     * @return A sequencer.
+     */
+    public KeySequencer getSubmitSequencer() {
+        return submitSequencer;
+    }
+
     public BlockEventSource getBlockSource() {
         return orderedBlockSource;
     }
 
+    /**
+     * Check whether block events for this network appear to have stalled.
+     * @param threshold Maximum time expected between new blocks.
+     * @return true if no new block has been received within the threshold; otherwise false.
+     */
+    public boolean isBlockSourceStalled(TimePeriod threshold) {
+        return orderedBlockSource.isStalled(threshold);
+    }
+
     @Override
     public void close() {
         synchronized (blockListenerSessions) {
             blockListenerSessions.values().forEach(ListenerSession::close);
             blockListenerSessions.clear();
         }
+        synchronized (commitStatusListenerSessions) {
+            commitStatusListenerSessions.values().forEach(ListenerSession::close);
+            commitStatusListenerSessions.clear();
+        }
         commitListenerSessions.values().forEach(ListenerSession::close);
         commitListenerSessions.clear();
+        publisherSessions.forEach(ListenerSession::close);
+
+        if (ownsChannel) {
+            orderedBlockSource.close();
+            channelBlockSource.close();
 
-        orderedBlockSource.close();
-        channelBlockSource.close();
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close transaction journal", e);
+                }
+            }
+            if (archive != null) {
+                try {
+                    archive.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close block archive", e);
+                }
+            }
 
-        channel.shutdown(false);
+            channel.shutdown(false);
+        }
     }
 
     @Override
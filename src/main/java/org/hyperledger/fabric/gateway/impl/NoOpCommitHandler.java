@@ -2,6 +2,8 @@ package org.hyperledger.fabric.gateway.impl;
 
 import org.hyperledger.fabric.gateway.spi.CommitHandler;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 public enum NoOpCommitHandler implements CommitHandler {
@@ -13,6 +15,11 @@ public enum NoOpCommitHandler implements CommitHandler {
     @Override
     public void waitForEvents(long timeout, TimeUnit timeUnit) { }
 
+    @Override
+    public CompletableFuture<Void> waitForEventsAsync(long timeout, TimeUnit timeUnit, Executor executor) {
+        return CompletableFuture.completedFuture(null);
+    }
+
     @Override
     public void cancelListening() { }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.hyperledger.fabric.gateway.spi.PeerDisconnectEvent;
+import org.hyperledger.fabric.sdk.Peer;
+
+/**
+ * Commit strategy that succeeds once at least one peer from each of a set of organizations has committed the
+ * transaction, and fails as soon as every peer from any one of the organizations has disconnected.
+ */
+public final class OrganizationCommitStrategy implements CommitStrategy {
+    private final Collection<Peer> peers = new HashSet<>();
+    private final Map<Peer, String> peerOrganizations = new HashMap<>();
+    private final Map<String, Integer> remainingPeerCounts = new HashMap<>();
+    private final Set<String> pendingOrganizations = new HashSet<>();
+
+    /**
+     * Create a strategy.
+     * @param organizationPeers Peers to monitor for each organization, keyed by MSP ID.
+     * @throws IllegalArgumentException if any organization has no peers.
+     */
+    public OrganizationCommitStrategy(Map<String, ? extends Collection<Peer>> organizationPeers) {
+        organizationPeers.forEach((mspId, orgPeers) -> {
+            if (orgPeers.isEmpty()) {
+                throw new IllegalArgumentException("No event source peers for organization: " + mspId);
+            }
+            pendingOrganizations.add(mspId);
+            remainingPeerCounts.put(mspId, orgPeers.size());
+            orgPeers.forEach(peer -> peerOrganizations.put(peer, mspId));
+            peers.addAll(orgPeers);
+        });
+    }
+
+    @Override
+    public Collection<Peer> getPeers() {
+        return peers;
+    }
+
+    @Override
+    public synchronized Result onCommit(Peer peer) {
+        String mspId = peerOrganizations.get(peer);
+        if (mspId != null) {
+            pendingOrganizations.remove(mspId);
+            decrementRemaining(mspId);
+        }
+        return getResult();
+    }
+
+    @Override
+    public synchronized Result onError(PeerDisconnectEvent event) {
+        String mspId = peerOrganizations.get(event.getPeer());
+        if (mspId != null) {
+            decrementRemaining(mspId);
+        }
+        return getResult();
+    }
+
+    private void decrementRemaining(String mspId) {
+        remainingPeerCounts.merge(mspId, -1, Integer::sum);
+    }
+
+    private Result getResult() {
+        if (pendingOrganizations.isEmpty()) {
+            return Result.SUCCESS;
+        }
+        boolean unreachable = pendingOrganizations.stream()
+                .anyMatch(mspId -> remainingPeerCounts.get(mspId) <= 0);
+        return unreachable ? Result.FAIL : Result.CONTINUE;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.PreparedTransaction;
+import org.hyperledger.fabric.gateway.Transaction;
+
+public final class PreparedTransactionImpl implements PreparedTransaction {
+    private final TransactionImpl prototype; // Never modified after construction, so safe to copy concurrently
+
+    PreparedTransactionImpl(TransactionImpl prototype) {
+        this.prototype = prototype;
+    }
+
+    @Override
+    public String getName() {
+        return prototype.getName();
+    }
+
+    @Override
+    public Transaction createTransaction() {
+        return new TransactionImpl(prototype);
+    }
+
+    @Override
+    public byte[] submit(String... args) throws ContractException, TimeoutException, InterruptedException {
+        return createTransaction().submit(args);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> submitAsync(String... args) {
+        return createTransaction().submitAsync(args);
+    }
+
+    @Override
+    public byte[] evaluate(String... args) throws ContractException {
+        return createTransaction().evaluate(args);
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this, "name=" + prototype.getName());
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Collection;
+
+import org.hyperledger.fabric.gateway.spi.PeerDisconnectEvent;
+import org.hyperledger.fabric.sdk.Peer;
+
+/**
+ * Commit strategy that succeeds once a given number of peers have committed the transaction, and fails as soon as
+ * too few peers remain for that number to be reached.
+ */
+public final class QuorumCommitStrategy implements CommitStrategy {
+    private final Collection<Peer> peers;
+    private final int required;
+    private int successCount = 0;
+    private int totalCount = 0;
+
+    public QuorumCommitStrategy(Collection<Peer> peers, int required) {
+        if (required < 1) {
+            throw new IllegalArgumentException("Required number of peers must be at least 1: " + required);
+        }
+        if (required > peers.size()) {
+            throw new IllegalArgumentException("Required number of peers (" + required
+                    + ") exceeds the number of peers: " + peers.size());
+        }
+        this.peers = peers;
+        this.required = required;
+    }
+
+    @Override
+    public Collection<Peer> getPeers() {
+        return peers;
+    }
+
+    @Override
+    public synchronized Result onCommit(Peer peer) {
+        successCount++;
+        totalCount++;
+        return getResult();
+    }
+
+    @Override
+    public synchronized Result onError(PeerDisconnectEvent event) {
+        totalCount++;
+        return getResult();
+    }
+
+    private Result getResult() {
+        int remainingCount = peers.size() - totalCount;
+        if (successCount >= required) {
+            return Result.SUCCESS;
+        } else if (successCount + remainingCount < required) {
+            return Result.FAIL;
+        } else {
+            return Result.CONTINUE;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import org.hyperledger.fabric.gateway.Wallet;
+
+/**
+ * Wallet that stores all identities in a single append-only file, with one JSON record per line. An in-memory index
+ * of label to record position is built when the wallet is opened, so lookups read only the required record rather
+ * than scanning the file. Decoded identities are cached in memory.
+ * <p>A lock file alongside the wallet file is exclusively locked while the wallet is open, so there can only be a
+ * single wallet instance for a given file at any point in time. Superseded records are removed by compacting the file
+ * when it is opened. The compacted copy is forced to the storage device before it atomically replaces the wallet
+ * file.</p>
+ * <p>
+ * This implementation is thread-safe.
+ * </p>
+ */
+public final class SingleFileWallet implements Wallet {
+    private static final Set<OpenOption> OPEN_OPTIONS = Collections.unmodifiableSet(EnumSet.of(
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+    ));
+    private static final int VERSION = 1;
+    private static final String CONFIG_KEY_VERSION = "version";
+    private static final byte RECORD_SEPARATOR = '\n';
+
+    private static final class RecordLocation {
+        final long position;
+        final int length;
+
+        RecordLocation(long position, int length) {
+            this.position = position;
+            this.length = length;
+        }
+    }
+
+    private final Path filePath;
+    private final FileChannel lockChannel;
+    private final FileChannel fileChannel;
+    private final Map<String, RecordLocation> index = new ConcurrentHashMap<>();
+    private final Map<String, Identity> identities = new ConcurrentHashMap<>();
+    private int staleRecordCount = 0;
+
+    public SingleFileWallet(Path walletFile) throws IOException {
+        filePath = walletFile;
+        lockChannel = openLocked(filePath.resolveSibling(filePath.getFileName() + ".lock"));
+        try {
+            fileChannel = openWalletFile();
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    private static FileChannel openLocked(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, OPEN_OPTIONS);
+        final FileLock fileLock;
+        try {
+            fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            channel.close();
+            throw new IOException("File is already locked: " + path, e);
+        }
+        if (fileLock == null) {
+            channel.close();
+            throw new IOException("Another process holds an overlapping lock for file: " + path);
+        }
+        return channel;
+    }
+
+    /**
+     * Open the wallet file and build the index, compacting the file if it contains superseded records. Must only be
+     * called while holding the lock file.
+     */
+    private FileChannel openWalletFile() throws IOException {
+        FileChannel channel = FileChannel.open(filePath, OPEN_OPTIONS);
+        try {
+            if (channel.size() == 0) {
+                appendRecord(channel, newHeader());
+            } else if (load(channel) > 0) {
+                // Close the file before replacing it with a compacted copy, since an open file cannot be replaced on
+                // all platforms
+                Path tempFile = compact(channel);
+                channel.close();
+                Files.move(tempFile, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                channel = FileChannel.open(filePath, OPEN_OPTIONS);
+                index.clear();
+                staleRecordCount = load(channel);
+            }
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static String newHeader() {
+        return Json.createObjectBuilder()
+                .add(CONFIG_KEY_VERSION, VERSION)
+                .build()
+                .toString();
+    }
+
+    private static String readRecord(InputStream in) throws IOException {
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) >= 0 && b != RECORD_SEPARATOR) {
+            record.write(b);
+        }
+        if (b < 0 && record.size() == 0) {
+            return null;
+        }
+        return new String(record.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Build the index from the file content.
+     * @return The number of superseded records in the file.
+     */
+    private int load(FileChannel channel) throws IOException {
+        channel.position(0);
+        InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+        long position = 0;
+        int staleRecords = 0;
+
+        String header = readRecord(in);
+        final int version = header != null ? IdentityCodec.parseRecord(header).getInt(CONFIG_KEY_VERSION, 0) : 0;
+        if (version != VERSION) {
+            throw new IOException("Unsupported wallet data version " + version + " from file: " + filePath);
+        }
+        position += header.getBytes(StandardCharsets.UTF_8).length + 1;
+
+        for (String record; (record = readRecord(in)) != null; ) {
+            int length = record.getBytes(StandardCharsets.UTF_8).length;
+            JsonObject json = IdentityCodec.parseRecord(record);
+            String label = IdentityCodec.getLabel(json);
+            RecordLocation previous;
+            if (IdentityCodec.isDeleted(json)) {
+                previous = index.remove(label);
+                staleRecords++;
+            } else {
+                previous = index.put(label, new RecordLocation(position, length));
+            }
+            if (previous != null) {
+                staleRecords++;
+            }
+            position += length + 1;
+        }
+
+        return staleRecords;
+    }
+
+    /**
+     * Write the current records to a temporary file and force it to the storage device, ready to replace the wallet
+     * file.
+     * @return The temporary file.
+     */
+    private Path compact(FileChannel channel) throws IOException {
+        Path tempFile = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        try (FileChannel tempChannel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Writer writer = new BufferedWriter(Channels.newWriter(tempChannel, StandardCharsets.UTF_8.name()));
+            writer.write(newHeader());
+            writer.write(RECORD_SEPARATOR);
+            for (RecordLocation location : index.values()) {
+                writer.write(readRecord(channel, location));
+                writer.write(RECORD_SEPARATOR);
+            }
+            writer.flush();
+            tempChannel.force(true);
+        }
+        return tempFile;
+    }
+
+    private synchronized RecordLocation appendRecord(String record) throws IOException {
+        return appendRecord(fileChannel, record);
+    }
+
+    private static RecordLocation appendRecord(FileChannel channel, String record) throws IOException {
+        byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 1);
+        buffer.put(bytes).put(RECORD_SEPARATOR).flip();
+
+        long position = channel.size();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+        return new RecordLocation(position, bytes.length);
+    }
+
+    private Identity readIdentity(RecordLocation location) throws IOException {
+        String record = readRecord(fileChannel, location);
+        return IdentityCodec.toIdentity(IdentityCodec.parseRecord(record));
+    }
+
+    private String readRecord(FileChannel channel, RecordLocation location) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(location.length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, location.position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file reading identity from: " + filePath);
+            }
+        }
+        return new String(buffer.array(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized void put(String label, Identity identity) throws IOException {
+        RecordLocation location = appendRecord(IdentityCodec.toRecord(label, identity));
+        if (index.put(label, location) != null) {
+            staleRecordCount++;
+        }
+        identities.put(label, identity);
+    }
+
+    @Override
+    public Identity get(String label) throws IOException {
+        try {
+            return identities.computeIfAbsent(label, key -> {
+                RecordLocation location = index.get(key);
+                if (location == null) {
+                    return null;
+                }
+                try {
+                    return readIdentity(location);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public Map<String, Identity> getAll(Collection<String> labels) throws IOException {
+        return GatewayUtils.getAllParallel(this, labels);
+    }
+
+    @Override
+    public Set<String> getAllLabels() {
+        return new HashSet<>(index.keySet());
+    }
+
+    @Override
+    public synchronized void remove(String label) throws IOException {
+        if (index.containsKey(label)) {
+            appendRecord(IdentityCodec.toDeletedRecord(label));
+            index.remove(label);
+            identities.remove(label);
+            staleRecordCount += 2;
+        }
+    }
+
+    @Override
+    public boolean exists(String label) {
+        return index.containsKey(label);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            fileChannel.close();
+        } finally {
+            lockChannel.close(); // Also releases lock
+        }
+    }
+
+    @Override
+    public String toString() {
+        final int staleRecords;
+        synchronized (this) {
+            staleRecords = staleRecordCount;
+        }
+        return GatewayUtils.toString(this,
+                "file=" + filePath,
+                "identities=" + index.size(),
+                "staleRecords=" + staleRecords);
+    }
+}
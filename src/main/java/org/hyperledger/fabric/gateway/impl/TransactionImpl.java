@@ -6,22 +6,36 @@
 
 package org.hyperledger.fabric.gateway.impl;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.CommitRejectedException;
 import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.EndorsedTransaction;
 import org.hyperledger.fabric.gateway.GatewayRuntimeException;
 import org.hyperledger.fabric.gateway.Transaction;
 import org.hyperledger.fabric.gateway.spi.CommitHandler;
 import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
 import org.hyperledger.fabric.gateway.spi.Query;
 import org.hyperledger.fabric.gateway.spi.QueryHandler;
-import org.hyperledger.fabric.sdk.ChaincodeID;
+import org.hyperledger.fabric.protos.peer.FabricProposal;
+import org.hyperledger.fabric.protos.peer.FabricProposalResponse;
 import org.hyperledger.fabric.sdk.ChaincodeResponse;
 import org.hyperledger.fabric.sdk.Channel;
 import org.hyperledger.fabric.sdk.Peer;
@@ -38,6 +52,19 @@ import static org.hyperledger.fabric.sdk.Channel.DiscoveryOptions.createDiscover
 
 public final class TransactionImpl implements Transaction {
     private static final Log logger = LogFactory.getLog(TransactionImpl.class);
+    private static final TimePeriod ORDERER_TIMEOUT = new TimePeriod(60, TimeUnit.SECONDS);
+    private static final int MAX_BACKOFF_DOUBLINGS = 16;
+
+    /**
+     * Extracts the result of a transaction function from a proposal response.
+     */
+    @FunctionalInterface
+    private interface ResultReader<T> {
+        T read(ProposalResponse response) throws InvalidArgumentException;
+    }
+
+    private static final ResultReader<byte[]> BYTES_READER = ProposalResponse::getChaincodeActionResponsePayload;
+    private static final ResultReader<ByteBuffer> BUFFER_READER = TransactionImpl::getResponsePayloadBuffer;
 
     private final ContractImpl contract;
     private final String name;
@@ -46,6 +73,10 @@ public final class TransactionImpl implements Transaction {
     private final GatewayImpl gateway;
     private final CommitHandlerFactory commitHandlerFactory;
     private TimePeriod commitTimeout;
+    private TimePeriod deadline;
+    private int maxRetries = 0;
+    private TimePeriod retryBackoff = null;
+    private String conflictKey = null;
     private final QueryHandler queryHandler;
     private Map<String, byte[]> transientData = null;
     private Collection<Peer> endorsingPeers = null;
@@ -58,9 +89,30 @@ public final class TransactionImpl implements Transaction {
         gateway = network.getGateway();
         commitHandlerFactory = gateway.getCommitHandlerFactory();
         commitTimeout = gateway.getCommitTimeout();
+        deadline = gateway.getDefaultDeadline();
         queryHandler = network.getQueryHandler();
     }
 
+    /**
+     * Create a transaction with the same settings as another transaction, avoiding the need to resolve them again.
+     */
+    TransactionImpl(TransactionImpl that) {
+        contract = that.contract;
+        name = that.name;
+        network = that.network;
+        channel = that.channel;
+        gateway = that.gateway;
+        commitHandlerFactory = that.commitHandlerFactory;
+        commitTimeout = that.commitTimeout;
+        deadline = that.deadline;
+        maxRetries = that.maxRetries;
+        retryBackoff = that.retryBackoff;
+        conflictKey = that.conflictKey;
+        queryHandler = that.queryHandler;
+        transientData = that.transientData;
+        endorsingPeers = that.endorsingPeers;
+    }
+
     @Override
     public String getName() {
         return name;
@@ -78,48 +130,489 @@ public final class TransactionImpl implements Transaction {
         return this;
     }
 
+    @Override
+    public Transaction setDeadline(long timeout, TimeUnit timeUnit) {
+        deadline = new TimePeriod(timeout, timeUnit);
+        return this;
+    }
+
+    @Override
+    public Transaction setCommitRetry(int maxRetries, long backoff, TimeUnit timeUnit) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries must not be negative: " + maxRetries);
+        }
+        this.maxRetries = maxRetries;
+        retryBackoff = new TimePeriod(backoff, timeUnit);
+        return this;
+    }
+
+    @Override
+    public Transaction setConflictKey(String conflictKey) {
+        this.conflictKey = conflictKey;
+        return this;
+    }
+
     @Override
     public Transaction setEndorsingPeers(Collection<Peer> peers) {
         endorsingPeers = peers;
         return this;
     }
 
+    @Override
+    public byte[] submit() throws ContractException, TimeoutException, InterruptedException {
+        return submit(new String[0]);
+    }
+
     @Override
     public byte[] submit(String... args) throws ContractException, TimeoutException, InterruptedException {
-        try {
-            TransactionProposalRequest request = newProposalRequest(args);
-            Collection<ProposalResponse> proposalResponses = sendTransactionProposal(request);
+        return submit(stringArgs(args), BYTES_READER);
+    }
 
-            Collection<ProposalResponse> validResponses = validatePeerResponses(proposalResponses);
-            ProposalResponse proposalResponse = validResponses.iterator().next();
-            byte[] result = proposalResponse.getChaincodeActionResponsePayload();
-            String transactionId = proposalResponse.getTransactionID();
+    @Override
+    public byte[] submit(byte[]... args) throws ContractException, TimeoutException, InterruptedException {
+        return submit(byteArgs(args), BYTES_READER);
+    }
+
+    @Override
+    public ByteBuffer submitForBuffer(byte[]... args) throws ContractException, TimeoutException, InterruptedException {
+        return submit(byteArgs(args), BUFFER_READER);
+    }
+
+    private static Consumer<TransactionRequest> stringArgs(String[] args) {
+        return request -> request.setArgs(args);
+    }
+
+    private static Consumer<TransactionRequest> byteArgs(byte[][] args) {
+        return request -> request.setArgs(args);
+    }
+
+    private <T> T submit(Consumer<TransactionRequest> args, ResultReader<T> reader) throws ContractException, TimeoutException, InterruptedException {
+        Deadline submitDeadline = Deadline.after(deadline);
+        if (conflictKey == null) {
+            return submit(submitDeadline, args, reader);
+        }
+
+        KeySequencer.Ticket ticket = network.getSubmitSequencer().enqueue(getSequenceKey());
+        try {
+            awaitTurn(ticket, submitDeadline);
+            return submit(submitDeadline, args, reader);
+        } finally {
+            ticket.release();
+        }
+    }
 
-            Channel.TransactionOptions transactionOptions = Channel.TransactionOptions.createTransactionOptions()
-                    .nOfEvents(Channel.NOfEvents.createNoEvents()); // Disable default commit wait behaviour
+    private String getSequenceKey() {
+        return contract.getChaincodeId() + ':' + conflictKey;
+    }
 
-            CommitHandler commitHandler = commitHandlerFactory.create(transactionId, network);
-            commitHandler.startListening();
+    private void awaitTurn(KeySequencer.Ticket ticket, Deadline submitDeadline) throws TimeoutException, InterruptedException {
+        try {
+            if (submitDeadline.isBounded()) {
+                ticket.getTurn().get(submitDeadline.remainingNanos(), TimeUnit.NANOSECONDS);
+            } else {
+                ticket.getTurn().get();
+            }
+        } catch (ExecutionException e) {
+            // Only happens if sequencer implementation is broken
+            throw new IllegalStateException(e);
+        } catch (TimeoutException e) {
+            throw new TimeoutException("Deadline expired waiting for earlier transactions with conflict key " + conflictKey);
+        }
+    }
 
+    private <T> T submit(Deadline submitDeadline, Consumer<TransactionRequest> args, ResultReader<T> reader) throws ContractException, TimeoutException, InterruptedException {
+        for (int attempt = 0; ; attempt++) {
             try {
-                channel.sendTransaction(validResponses, transactionOptions).get(60, TimeUnit.SECONDS);
-            } catch (TimeoutException e) {
-                commitHandler.cancelListening();
-                throw e;
-            } catch (Exception e) {
-                commitHandler.cancelListening();
-                throw new ContractException("Failed to send transaction to the orderer", e);
+                return submitAdmitted(submitDeadline, args, reader);
+            } catch (CommitRejectedException e) {
+                long retryDelayNanos = getRetryDelayNanos(e, attempt, submitDeadline);
+                if (retryDelayNanos < 0) {
+                    throw e;
+                }
+                logger.debug("submit: retrying after read conflict for transaction " + e.getTransactionId());
+                TimeUnit.NANOSECONDS.sleep(retryDelayNanos);
             }
+        }
+    }
+
+    /**
+     * Get the delay before retrying a failed submit.
+     * @return Delay in nanoseconds, or a negative value if the submit should not be retried.
+     */
+    private long getRetryDelayNanos(Throwable failure, int attempt, Deadline submitDeadline) {
+        if (attempt >= maxRetries || !(failure instanceof CommitRejectedException)
+                || !((CommitRejectedException) failure).isReadConflict()) {
+            return -1;
+        }
+
+        // Exponential backoff with full jitter to spread out retries of conflicting transactions
+        long maxDelayNanos = retryBackoff.getTimeUnit().toNanos(retryBackoff.getTime())
+                << Math.min(attempt, MAX_BACKOFF_DOUBLINGS);
+        long delayNanos = maxDelayNanos > 0 ? ThreadLocalRandom.current().nextLong(maxDelayNanos) : 0;
 
-            commitHandler.waitForEvents(commitTimeout.getTime(), commitTimeout.getTimeUnit());
+        if (submitDeadline.isBounded() && delayNanos >= submitDeadline.remainingNanos()) {
+            return -1;
+        }
+        return delayNanos;
+    }
 
+    private <T> T submitAdmitted(Deadline submitDeadline, Consumer<TransactionRequest> args, ResultReader<T> reader) throws ContractException, TimeoutException, InterruptedException {
+        AdmissionController.Permit permit = acquire(network.getSubmitAdmission(), submitDeadline);
+        AdmissionController.Outcome outcome = AdmissionController.Outcome.IGNORED;
+        try {
+            T result = submitOnce(submitDeadline, args, reader, permit);
+            outcome = AdmissionController.Outcome.SUCCESS;
             return result;
+        } catch (TimeoutException e) {
+            outcome = AdmissionController.Outcome.DROPPED;
+            throw e;
+        } finally {
+            permit.release(outcome);
+        }
+    }
+
+    private <T> T submitOnce(Deadline submitDeadline, Consumer<TransactionRequest> args, ResultReader<T> reader,
+                             AdmissionController.Permit permit) throws ContractException, TimeoutException, InterruptedException {
+        Collection<ProposalResponse> validResponses = endorse(submitDeadline, args);
+        ProposalResponse proposalResponse = validResponses.iterator().next();
+        T result = readSubmitResult(proposalResponse, reader);
+        commit(submitDeadline, validResponses, proposalResponse.getTransactionID(), permit);
+        return result;
+    }
+
+    private static <T> T readSubmitResult(ProposalResponse proposalResponse, ResultReader<T> reader) {
+        try {
+            return reader.read(proposalResponse);
+        } catch (InvalidArgumentException e) {
+            throw new GatewayRuntimeException(e);
+        }
+    }
+
+    @Override
+    public EndorsedTransaction endorse(String... args) throws ContractException, TimeoutException {
+        Collection<ProposalResponse> validResponses = endorse(Deadline.after(deadline), stringArgs(args));
+        ProposalResponse proposalResponse = validResponses.iterator().next();
+        byte[] result = readSubmitResult(proposalResponse, BYTES_READER);
+        return new EndorsedTransactionImpl(this, validResponses, proposalResponse.getTransactionID(), result);
+    }
+
+    /**
+     * Obtain endorsements for a transaction proposal.
+     * @return Successful proposal responses.
+     * @throws TimeoutException if the deadline expired before proposal responses were received.
+     */
+    private Collection<ProposalResponse> endorse(Deadline endorseDeadline, Consumer<TransactionRequest> args) throws ContractException, TimeoutException {
+        try {
+            TransactionProposalRequest request = newProposalRequest(args);
+            request.setProposalWaitTime(endorseDeadline.limitMillis(request.getProposalWaitTime()));
+            Collection<ProposalResponse> proposalResponses = sendTransactionProposal(request);
+            if (endorseDeadline.isExpired()) {
+                throw new TimeoutException("Deadline expired waiting for proposal responses for transaction " + name);
+            }
+            return validatePeerResponses(proposalResponses);
         } catch (InvalidArgumentException | ProposalException | ServiceDiscoveryException e) {
             throw new GatewayRuntimeException(e);
         }
     }
 
-    private TransactionProposalRequest newProposalRequest(String[] args) {
+    /**
+     * Send endorsed transaction to the orderer and wait for it to be committed.
+     */
+    void commit(Deadline submitDeadline, Collection<ProposalResponse> validResponses, String transactionId) throws ContractException, TimeoutException, InterruptedException {
+        commit(submitDeadline, validResponses, transactionId, AdmissionController.noOpPermit());
+    }
+
+    /**
+     * Send endorsed transaction to the orderer and wait for it to be committed. The admission permit is released
+     * successfully once the orderer accepts the transaction, so that the time taken to cut blocks and commit does not
+     * count towards request latency used to adjust the concurrency limit.
+     */
+    private void commit(Deadline submitDeadline, Collection<ProposalResponse> validResponses, String transactionId,
+                        AdmissionController.Permit permit) throws ContractException, TimeoutException, InterruptedException {
+        if (submitDeadline.isExpired()) {
+            throw new TimeoutException("Deadline expired before transaction " + transactionId + " was sent to the orderer");
+        }
+
+        recordSent(transactionId);
+
+        CommitHandler commitHandler = commitHandlerFactory.create(transactionId, network);
+        commitHandler.startListening();
+
+        try {
+            sendToOrderer(submitDeadline, validResponses);
+        } catch (ContractException | TimeoutException e) {
+            commitHandler.cancelListening();
+            recordAborted(transactionId);
+            throw e;
+        }
+        permit.release(AdmissionController.Outcome.SUCCESS);
+
+        TimePeriod commitWait = submitDeadline.limit(commitTimeout);
+        commitHandler.waitForEvents(commitWait.getTime(), commitWait.getTimeUnit());
+    }
+
+    /**
+     * Send endorsed transaction to the orderer and wait only for the orderer to accept it.
+     */
+    void send(Deadline submitDeadline, Collection<ProposalResponse> validResponses, String transactionId) throws ContractException, TimeoutException {
+        if (submitDeadline.isExpired()) {
+            throw new TimeoutException("Deadline expired before transaction " + transactionId + " was sent to the orderer");
+        }
+
+        recordSent(transactionId);
+        try {
+            sendToOrderer(submitDeadline, validResponses);
+        } catch (ContractException | TimeoutException e) {
+            recordAborted(transactionId);
+            throw e;
+        }
+    }
+
+    private void sendToOrderer(Deadline submitDeadline, Collection<ProposalResponse> validResponses) throws ContractException, TimeoutException {
+        Channel.TransactionOptions transactionOptions = Channel.TransactionOptions.createTransactionOptions()
+                .userContext(gateway.getUser())
+                .nOfEvents(Channel.NOfEvents.createNoEvents()); // Disable default commit wait behaviour
+
+        CompletableFuture<?> ordererFuture = null;
+        try {
+            TimePeriod ordererTimeout = submitDeadline.limit(ORDERER_TIMEOUT);
+            ordererFuture = channel.sendTransaction(validResponses, transactionOptions);
+            ordererFuture.get(ordererTimeout.getTime(), ordererTimeout.getTimeUnit());
+        } catch (TimeoutException e) {
+            ordererFuture.cancel(true);
+            throw e;
+        } catch (Exception e) {
+            throw new ContractException("Failed to send transaction to the orderer", e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<byte[]> submitAsync(String... args) {
+        return submitAsync(stringArgs(args));
+    }
+
+    private CompletableFuture<byte[]> submitAsync(Consumer<TransactionRequest> args) {
+        Deadline submitDeadline = Deadline.after(deadline);
+        if (conflictKey == null) {
+            return submitAsync(submitDeadline, args, 0);
+        }
+
+        KeySequencer.Ticket ticket = network.getSubmitSequencer().enqueue(getSequenceKey());
+        CompletableFuture<Void> turn = ticket.getTurn();
+        CompletableFuture<byte[]> future;
+        if (turn.isDone()) {
+            future = submitAsync(submitDeadline, args, 0);
+        } else {
+            // Endorsement blocks, so must not run on the thread completing the previous transaction
+            future = turn.thenComposeAsync(ignored -> {
+                if (submitDeadline.isExpired()) {
+                    return failedFuture(new TimeoutException("Deadline expired waiting for earlier transactions with conflict key " + conflictKey));
+                }
+                return submitAsync(submitDeadline, args, 0);
+            }, gateway.getExecutor());
+        }
+        future.whenComplete((result, e) -> ticket.release());
+        return future;
+    }
+
+    private CompletableFuture<byte[]> submitAsync(Deadline submitDeadline, Consumer<TransactionRequest> args, int attempt) {
+        CompletableFuture<byte[]> attemptFuture = submitAsyncAdmitted(submitDeadline, args);
+        if (maxRetries == 0) {
+            return attemptFuture;
+        }
+
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        attemptFuture.whenComplete((result, e) -> {
+            if (e == null) {
+                future.complete(result);
+                return;
+            }
+
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            long retryDelayNanos = getRetryDelayNanos(cause, attempt, submitDeadline);
+            if (retryDelayNanos < 0) {
+                future.completeExceptionally(cause);
+                return;
+            }
+
+            logger.debug("submitAsync: retrying after read conflict for transaction "
+                    + ((CommitRejectedException) cause).getTransactionId());
+            // Endorsement blocks, so must not run on the timer thread
+            try {
+                gateway.getCommitTimer().newTimeout(() -> {
+                    try {
+                        gateway.getExecutor().execute(() ->
+                                submitAsync(submitDeadline, args, attempt + 1).whenComplete((retryResult, retryError) -> {
+                                    if (retryError != null) {
+                                        future.completeExceptionally(retryError);
+                                    } else {
+                                        future.complete(retryResult);
+                                    }
+                                }));
+                    } catch (RejectedExecutionException rejected) {
+                        future.completeExceptionally(cause); // Gateway closed
+                    }
+                }, retryDelayNanos, TimeUnit.NANOSECONDS);
+            } catch (IllegalStateException stopped) {
+                future.completeExceptionally(cause); // Gateway closed
+            }
+        });
+        return future;
+    }
+
+    private CompletableFuture<byte[]> submitAsyncAdmitted(Deadline submitDeadline, Consumer<TransactionRequest> args) {
+        final AdmissionController.Permit permit;
+        try {
+            permit = acquire(network.getSubmitAdmission(), submitDeadline);
+        } catch (ContractException | TimeoutException e) {
+            return failedFuture(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failedFuture(e);
+        }
+
+        CompletableFuture<byte[]> future = submitAsyncOnce(submitDeadline, args, permit);
+        future.whenComplete((result, e) -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause == null) {
+                permit.release(AdmissionController.Outcome.SUCCESS);
+            } else if (cause instanceof TimeoutException) {
+                permit.release(AdmissionController.Outcome.DROPPED);
+            } else {
+                permit.release(AdmissionController.Outcome.IGNORED);
+            }
+        });
+        return future;
+    }
+
+    private CompletableFuture<byte[]> submitAsyncOnce(Deadline submitDeadline, Consumer<TransactionRequest> args,
+                                                      AdmissionController.Permit permit) {
+        try {
+            Collection<ProposalResponse> validResponses = endorse(submitDeadline, args);
+            ProposalResponse proposalResponse = validResponses.iterator().next();
+            byte[] result = readSubmitResult(proposalResponse, BYTES_READER);
+            return commitAsync(submitDeadline, validResponses, proposalResponse.getTransactionID(), permit)
+                    .thenApply(ignored -> result);
+        } catch (ContractException | TimeoutException | RuntimeException e) {
+            return failedFuture(e);
+        }
+    }
+
+    /**
+     * Send endorsed transaction to the orderer without blocking while waiting for it to be committed.
+     */
+    CompletableFuture<Void> commitAsync(Deadline submitDeadline, Collection<ProposalResponse> validResponses, String transactionId) {
+        return commitAsync(submitDeadline, validResponses, transactionId, AdmissionController.noOpPermit());
+    }
+
+    /**
+     * Send endorsed transaction to the orderer without blocking while waiting for it to be committed. The admission
+     * permit is released successfully once the orderer accepts the transaction.
+     */
+    private CompletableFuture<Void> commitAsync(Deadline submitDeadline, Collection<ProposalResponse> validResponses,
+                                                String transactionId, AdmissionController.Permit permit) {
+        if (submitDeadline.isExpired()) {
+            return failedFuture(new TimeoutException("Deadline expired before transaction " + transactionId + " was sent to the orderer"));
+        }
+
+        Channel.TransactionOptions transactionOptions = Channel.TransactionOptions.createTransactionOptions()
+                .userContext(gateway.getUser())
+                .nOfEvents(Channel.NOfEvents.createNoEvents()); // Disable default commit wait behaviour
+
+        try {
+            recordSent(transactionId);
+        } catch (ContractException e) {
+            return failedFuture(e);
+        }
+
+        CommitHandler commitHandler = commitHandlerFactory.create(transactionId, network);
+        commitHandler.startListening();
+
+        CompletableFuture<?> ordererFuture;
+        try {
+            ordererFuture = channel.sendTransaction(validResponses, transactionOptions);
+        } catch (RuntimeException e) {
+            commitHandler.cancelListening();
+            recordAborted(transactionId);
+            return failedFuture(new ContractException("Failed to send transaction to the orderer", e));
+        }
+
+        TimePeriod ordererTimeout = submitDeadline.limit(ORDERER_TIMEOUT);
+        final HashedWheelTimer.Timeout ordererTimeoutTask;
+        try {
+            ordererTimeoutTask = gateway.getCommitTimer().newTimeout(
+                    () -> ordererFuture.completeExceptionally(new TimeoutException("Timeout sending transaction " + transactionId + " to the orderer")),
+                    ordererTimeout.getTime(), ordererTimeout.getTimeUnit());
+        } catch (IllegalStateException e) {
+            // Timer is stopped once the gateway is closed
+            commitHandler.cancelListening();
+            return failedFuture(new ContractException("Gateway closed while sending transaction " + transactionId + " to the orderer", e));
+        }
+
+        return ordererFuture
+                .handle((event, e) -> {
+                    ordererTimeoutTask.cancel();
+                    if (e != null) {
+                        commitHandler.cancelListening();
+                        recordAborted(transactionId);
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        if (cause instanceof TimeoutException) {
+                            throw new CompletionException(cause);
+                        }
+                        throw new CompletionException(new ContractException("Failed to send transaction to the orderer", cause));
+                    }
+                    permit.release(AdmissionController.Outcome.SUCCESS);
+                    return event;
+                })
+                .thenCompose(event -> {
+                    TimePeriod commitWait = submitDeadline.limit(commitTimeout);
+                    return commitHandler.waitForEventsAsync(commitWait.getTime(), commitWait.getTimeUnit(),
+                            gateway.getExecutor());
+                });
+    }
+
+    private void recordSent(String transactionId) throws ContractException {
+        TransactionJournal journal = network.getJournalForSubmit();
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.sent(transactionId);
+        } catch (IOException e) {
+            throw new ContractException("Failed to record transaction " + transactionId + " in journal", e);
+        }
+    }
+
+    private void recordAborted(String transactionId) {
+        TransactionJournal journal = network.getJournal();
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.aborted(transactionId);
+        } catch (IOException e) {
+            logger.warn("Failed to record aborted transaction " + transactionId + " in journal", e);
+        }
+    }
+
+    TimePeriod getDeadline() {
+        return deadline;
+    }
+
+    private static AdmissionController.Permit acquire(AdmissionController admission, Deadline deadline) throws ContractException, TimeoutException, InterruptedException {
+        if (admission == null) {
+            return AdmissionController.noOpPermit();
+        }
+        return admission.acquire(deadline);
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable cause) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(cause);
+        return future;
+    }
+
+    private TransactionProposalRequest newProposalRequest(Consumer<TransactionRequest> args) {
         TransactionProposalRequest request = network.getGateway().getClient().newTransactionProposalRequest();
         configureRequest(request, args);
         if (transientData != null) {
@@ -133,31 +626,99 @@ public final class TransactionImpl implements Transaction {
         return request;
     }
 
-    private void configureRequest(TransactionRequest request, String[] args) {
-        request.setChaincodeID(getChaincodeId());
+    private void configureRequest(TransactionRequest request, Consumer<TransactionRequest> args) {
+        request.setUserContext(gateway.getUser());
+        request.setChaincodeID(contract.getChaincodeID());
         request.setFcn(name);
-        request.setArgs(args);
+        args.accept(request);
+    }
+
+    /**
+     * Get a read-only view of the chaincode response payload without copying it. The SDK accessor returns a copy of
+     * the payload, which is significant for large payloads.
+     */
+    private static ByteBuffer getResponsePayloadBuffer(ProposalResponse response) throws InvalidArgumentException {
+        try {
+            ByteString payloadBytes = response.getProposalResponse().getPayload();
+            FabricProposalResponse.ProposalResponsePayload payload = FabricProposalResponse.ProposalResponsePayload.parseFrom(aliasingInput(payloadBytes));
+            FabricProposal.ChaincodeAction action = FabricProposal.ChaincodeAction.parseFrom(aliasingInput(payload.getExtension()));
+            return action.getResponse().getPayload().asReadOnlyByteBuffer();
+        } catch (IOException e) {
+            throw new InvalidArgumentException(e);
+        }
     }
 
-    private ChaincodeID getChaincodeId() {
-        return ChaincodeID.newBuilder()
-                .setName(contract.getChaincodeId())
-                .build();
+    private static CodedInputStream aliasingInput(ByteString bytes) {
+        CodedInputStream input = bytes.newCodedInput();
+        input.enableAliasing(true); // Parsed byte fields share the input buffer instead of copying
+        return input;
     }
 
     private Collection<ProposalResponse> sendTransactionProposal(TransactionProposalRequest request) throws InvalidArgumentException, ServiceDiscoveryException, ProposalException {
         if (endorsingPeers != null) {
             return channel.sendTransactionProposal(request, endorsingPeers);
         } else if (network.getGateway().isDiscoveryEnabled()) {
-            Channel.DiscoveryOptions discoveryOptions = createDiscoveryOptions()
-                    .setEndorsementSelector(ServiceDiscovery.EndorsementSelector.ENDORSEMENT_SELECTION_RANDOM)
-                    .setForceDiscovery(true);
-            return channel.sendTransactionProposalToEndorsers(request, discoveryOptions);
+            return sendTransactionProposalToEndorsers(request);
         } else {
             return channel.sendTransactionProposal(request);
         }
     }
 
+    private Collection<ProposalResponse> sendTransactionProposalToEndorsers(TransactionProposalRequest request) throws InvalidArgumentException, ServiceDiscoveryException, ProposalException {
+        DiscoveryCache discoveryCache = network.getDiscoveryCache();
+        String chaincodeId = contract.getChaincodeId();
+        boolean forceDiscovery = discoveryCache.isRefreshRequired(chaincodeId);
+
+        Collection<ProposalResponse> responses;
+        try {
+            responses = sendToEndorsers(request, forceDiscovery);
+        } catch (ServiceDiscoveryException e) {
+            discoveryCache.invalidate(chaincodeId);
+            if (forceDiscovery) {
+                throw e;
+            }
+            // Cached endorsement plan may be out of date so retry with fresh discovery results
+            logger.debug("sendTransactionProposalToEndorsers: retrying with forced discovery", e);
+            forceDiscovery = true;
+            responses = sendToEndorsers(request, true);
+        } catch (InvalidArgumentException | ProposalException | RuntimeException e) {
+            if (forceDiscovery) {
+                discoveryCache.invalidate(chaincodeId);
+            }
+            throw e;
+        }
+
+        boolean endorsementFailed = responses.stream()
+                .anyMatch(response -> !ChaincodeResponse.Status.SUCCESS.equals(response.getStatus()));
+        if (endorsementFailed) {
+            discoveryCache.invalidate(chaincodeId);
+        } else if (forceDiscovery) {
+            discoveryCache.refreshed(chaincodeId);
+        }
+
+        return responses;
+    }
+
+    private Collection<ProposalResponse> sendToEndorsers(TransactionProposalRequest request, boolean forceDiscovery) throws InvalidArgumentException, ServiceDiscoveryException, ProposalException {
+        ServiceDiscovery.EndorsementSelector endorsementSelector = gateway.getEndorsementSelector();
+        Channel.DiscoveryOptions discoveryOptions = createDiscoveryOptions()
+                .setEndorsementSelector(endorsementSelector)
+                .setForceDiscovery(forceDiscovery);
+
+        if (!(endorsementSelector instanceof LatencyAwareEndorsementSelector)) {
+            return channel.sendTransactionProposalToEndorsers(request, discoveryOptions);
+        }
+
+        Collection<ProposalResponse> responses = null;
+        long startTime = System.nanoTime();
+        try {
+            responses = channel.sendTransactionProposalToEndorsers(request, discoveryOptions);
+            return responses;
+        } finally {
+            ((LatencyAwareEndorsementSelector) endorsementSelector).requestCompleted(System.nanoTime() - startTime, responses);
+        }
+    }
+
     private Collection<ProposalResponse> validatePeerResponses(Collection<ProposalResponse> proposalResponses) throws ContractException {
         final Collection<ProposalResponse> validResponses = new ArrayList<>();
         final Collection<String> invalidResponseMsgs = new ArrayList<>();
@@ -182,21 +743,61 @@ public final class TransactionImpl implements Transaction {
         return validResponses;
     }
 
+    @Override
+    public byte[] evaluate() throws ContractException {
+        return evaluate(new String[0]);
+    }
+
     @Override
     public byte[] evaluate(String... args) throws ContractException {
+        return evaluate(stringArgs(args), BYTES_READER);
+    }
+
+    @Override
+    public byte[] evaluate(byte[]... args) throws ContractException {
+        return evaluate(byteArgs(args), BYTES_READER);
+    }
+
+    @Override
+    public ByteBuffer evaluateForBuffer(byte[]... args) throws ContractException {
+        return evaluate(byteArgs(args), BUFFER_READER);
+    }
+
+    private <T> T evaluate(Consumer<TransactionRequest> args, ResultReader<T> reader) throws ContractException {
+        final AdmissionController.Permit permit;
+        try {
+            permit = acquire(network.getEvaluateAdmission(), Deadline.after(deadline));
+        } catch (TimeoutException e) {
+            throw new ContractException("Timeout waiting to evaluate transaction " + name, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ContractException("Interrupted waiting to evaluate transaction " + name, e);
+        }
+
+        AdmissionController.Outcome outcome = AdmissionController.Outcome.IGNORED;
+        try {
+            T result = evaluateQuery(args, reader);
+            outcome = AdmissionController.Outcome.SUCCESS;
+            return result;
+        } finally {
+            permit.release(outcome);
+        }
+    }
+
+    private <T> T evaluateQuery(Consumer<TransactionRequest> args, ResultReader<T> reader) throws ContractException {
         QueryByChaincodeRequest request = newQueryRequest(args);
         Query query = new QueryImpl(network.getChannel(), request);
 
         ProposalResponse response = queryHandler.evaluate(query);
 
         try {
-            return response.getChaincodeActionResponsePayload();
+            return reader.read(response);
         } catch (InvalidArgumentException e) {
             throw new ContractException(response.getMessage(), e);
         }
     }
 
-    private QueryByChaincodeRequest newQueryRequest(String[] args) {
+    private QueryByChaincodeRequest newQueryRequest(Consumer<TransactionRequest> args) {
         QueryByChaincodeRequest request = gateway.getClient().newQueryProposalRequest();
         configureRequest(request, args);
         if (transientData != null) {
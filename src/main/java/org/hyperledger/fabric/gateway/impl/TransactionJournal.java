@@ -0,0 +1,347 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.protos.peer.TransactionPackage.TxValidationCode;
+import org.hyperledger.fabric.sdk.BlockEvent;
+
+/**
+ * Append-only file journal of transactions sent to the orderer, and their commit outcomes. Allows an application
+ * to determine the outcome of transactions that were in flight when it was stopped.
+ * <p>Each transaction is recorded with the earliest block in which it could be committed. Outcomes are recorded
+ * from block events, so transactions that remain pending after a restart can be reconciled by replaying blocks
+ * from the earliest pending position. Records are written to the file as they occur but are not forced to the
+ * storage device, so they survive an application failure but not necessarily an operating system failure.
+ * Completed records are removed by compacting the file when it is opened, and when the number of completed records
+ * written since the last compaction exceeds a threshold. The compacted copy is forced to the storage device before it
+ * atomically replaces the journal file.</p>
+ * <p>A lock file alongside the journal file is exclusively locked while the journal is open, so there can only be a
+ * single journal instance for a given file at any point in time.</p>
+ * <p>
+ * This implementation is thread-safe.
+ * </p>
+ */
+public final class TransactionJournal implements AutoCloseable {
+    private static final Log logger = LogFactory.getLog(TransactionJournal.class);
+
+    private static final Set<OpenOption> OPEN_OPTIONS = Collections.unmodifiableSet(EnumSet.of(
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+    ));
+    private static final int VERSION = 1;
+    private static final String CONFIG_KEY_VERSION = "version";
+    private static final String KEY_TRANSACTION = "tx";
+    private static final String KEY_BLOCK = "block";
+    private static final String KEY_CODE = "code";
+    private static final String KEY_ABORTED = "aborted";
+    private static final int COMPACT_THRESHOLD = 10000; // Completed records
+    private static final char RECORD_SEPARATOR = '\n';
+
+    private final Path filePath;
+    private final FileChannel lockChannel;
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private final AtomicLong lastBlockNumber = new AtomicLong(-1);
+
+    // Synchronized on this
+    private FileChannel fileChannel;
+    private int completedRecordCount = 0;
+
+    public TransactionJournal(Path journalFile) throws IOException {
+        filePath = journalFile;
+        lockChannel = openLocked(filePath.resolveSibling(filePath.getFileName() + ".lock"));
+        try {
+            fileChannel = FileChannel.open(filePath, OPEN_OPTIONS);
+            if (fileChannel.size() == 0) {
+                append(newHeader());
+            } else if (load(fileChannel) > 0) {
+                replaceWithCompacted();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (fileChannel != null) {
+                fileChannel.close();
+            }
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    private static FileChannel openLocked(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, OPEN_OPTIONS);
+        final FileLock fileLock;
+        try {
+            fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            channel.close();
+            throw new IOException("File is already locked: " + path, e);
+        }
+        if (fileLock == null) {
+            channel.close();
+            throw new IOException("Another process holds an overlapping lock for file: " + path);
+        }
+        return channel;
+    }
+
+    private static String newHeader() {
+        return Json.createObjectBuilder()
+                .add(CONFIG_KEY_VERSION, VERSION)
+                .build()
+                .toString();
+    }
+
+    private static JsonObject parseRecord(String record) throws IOException {
+        try (JsonReader reader = Json.createReader(new StringReader(record))) {
+            return reader.readObject();
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to parse journal record", e);
+        }
+    }
+
+    /**
+     * Load pending transactions from the file content.
+     * @return The number of completed records in the file.
+     */
+    private int load(FileChannel channel) throws IOException {
+        channel.position(0);
+        BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.name()));
+
+        String header = reader.readLine();
+        final int version = header != null ? parseRecord(header).getInt(CONFIG_KEY_VERSION, 0) : 0;
+        if (version != VERSION) {
+            throw new IOException("Unsupported journal data version " + version + " from file: " + filePath);
+        }
+
+        Map<String, Long> sent = new HashMap<>();
+        int completedRecords = 0;
+        for (String record; (record = reader.readLine()) != null; ) {
+            if (record.isEmpty()) {
+                continue;
+            }
+            final JsonObject json;
+            try {
+                json = parseRecord(record);
+            } catch (IOException e) {
+                // Application failure part way through a write can leave an incomplete record
+                logger.warn("Ignoring incomplete journal record in file: " + filePath, e);
+                completedRecords++;
+                continue;
+            }
+            String transactionId = json.getString(KEY_TRANSACTION);
+            if (json.containsKey(KEY_CODE) || json.containsKey(KEY_ABORTED)) {
+                sent.remove(transactionId);
+                completedRecords += 2;
+            } else {
+                sent.put(transactionId, json.getJsonNumber(KEY_BLOCK).longValue());
+            }
+        }
+
+        pending.putAll(sent);
+        return completedRecords;
+    }
+
+    /**
+     * Write the pending records to a temporary file and force it to the storage device, ready to replace the journal
+     * file.
+     * @return The temporary file.
+     */
+    private Path compact() throws IOException {
+        Path tempFile = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        try (FileChannel tempChannel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Writer writer = new BufferedWriter(Channels.newWriter(tempChannel, StandardCharsets.UTF_8.name()));
+            writer.write(newHeader());
+            writer.write(RECORD_SEPARATOR);
+            for (Map.Entry<String, Long> entry : pending.entrySet()) {
+                writer.write(newSentRecord(entry.getKey(), entry.getValue()));
+                writer.write(RECORD_SEPARATOR);
+            }
+            writer.flush();
+            tempChannel.force(true);
+        }
+        return tempFile;
+    }
+
+    /**
+     * Replace the journal file with a compacted copy. The journal file is closed before it is replaced, since an open
+     * file cannot be replaced on all platforms, and is reopened even if the replace fails.
+     */
+    private synchronized void replaceWithCompacted() throws IOException {
+        Path tempFile = compact();
+        fileChannel.close();
+        try {
+            Files.move(tempFile, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            fileChannel = FileChannel.open(filePath, OPEN_OPTIONS);
+        }
+    }
+
+    private static String newSentRecord(String transactionId, long blockNumber) {
+        return Json.createObjectBuilder()
+                .add(KEY_TRANSACTION, transactionId)
+                .add(KEY_BLOCK, blockNumber)
+                .build()
+                .toString();
+    }
+
+    private static String newCommittedRecord(String transactionId, TxValidationCode validationCode) {
+        return Json.createObjectBuilder()
+                .add(KEY_TRANSACTION, transactionId)
+                .add(KEY_CODE, validationCode.getNumber())
+                .build()
+                .toString();
+    }
+
+    private static String newAbortedRecord(String transactionId) {
+        return Json.createObjectBuilder()
+                .add(KEY_TRANSACTION, transactionId)
+                .add(KEY_ABORTED, true)
+                .build()
+                .toString();
+    }
+
+    private synchronized void append(String record) throws IOException {
+        byte[] bytes = (record + RECORD_SEPARATOR).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long position = fileChannel.size();
+        while (buffer.hasRemaining()) {
+            fileChannel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Record that a transaction is about to be sent to the orderer.
+     * @param transactionId A transaction ID.
+     * @throws IOException if the record cannot be written.
+     */
+    public synchronized void sent(String transactionId) throws IOException {
+        long startBlock = lastBlockNumber.get() + 1;
+        append(newSentRecord(transactionId, startBlock));
+        pending.put(transactionId, startBlock);
+    }
+
+    /**
+     * Record that a transaction was not successfully sent to the orderer, so its outcome need not be reconciled.
+     * @param transactionId A transaction ID.
+     * @throws IOException if the record cannot be written.
+     */
+    public synchronized void aborted(String transactionId) throws IOException {
+        if (pending.remove(transactionId) != null) {
+            append(newAbortedRecord(transactionId));
+            recordCompleted();
+        }
+    }
+
+    /**
+     * Set the current height of the blockchain. Transactions sent before any block events are received are recorded
+     * as pending from this height, rather than from the first block.
+     * @param blockHeight Number of blocks in the blockchain.
+     */
+    public void setBlockHeight(long blockHeight) {
+        lastBlockNumber.accumulateAndGet(blockHeight - 1, Math::max);
+    }
+
+    /**
+     * Record the outcome of any pending transactions contained in a block.
+     * @param blockEvent A block event.
+     */
+    public void onBlock(BlockEvent blockEvent) {
+        lastBlockNumber.accumulateAndGet(blockEvent.getBlockNumber(), Math::max);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        for (BlockEvent.TransactionEvent transactionEvent : blockEvent.getTransactionEvents()) {
+            String transactionId = transactionEvent.getTransactionID();
+            TxValidationCode validationCode = TxValidationCode.forNumber(transactionEvent.getValidationCode());
+            try {
+                committed(transactionId, validationCode);
+            } catch (IOException e) {
+                logger.warn("Failed to record outcome of transaction " + transactionId + " in journal: " + filePath, e);
+            }
+        }
+    }
+
+    private synchronized void committed(String transactionId, TxValidationCode validationCode) throws IOException {
+        if (pending.remove(transactionId) != null) {
+            append(newCommittedRecord(transactionId, validationCode));
+            recordCompleted();
+        }
+    }
+
+    /**
+     * Count the sent and completion records for a completed transaction, and compact the file if the threshold is
+     * exceeded.
+     */
+    private synchronized void recordCompleted() {
+        completedRecordCount += 2;
+        if (completedRecordCount < COMPACT_THRESHOLD) {
+            return;
+        }
+
+        try {
+            replaceWithCompacted();
+            completedRecordCount = 0;
+        } catch (IOException e) {
+            logger.warn("Failed to compact journal: " + filePath, e);
+            completedRecordCount = 0; // Avoid retrying on every record
+        }
+    }
+
+    /**
+     * Get the transactions whose outcome is not yet known, with the earliest block in which each could be committed.
+     * @return Transaction IDs mapped to block numbers.
+     */
+    public Map<String, Long> getPending() {
+        return Collections.unmodifiableMap(new HashMap<>(pending));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            fileChannel.close();
+        } finally {
+            lockChannel.close(); // Also releases lock
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "file=" + filePath,
+                "pending=" + pending.size(),
+                "lastBlockNumber=" + lastBlockNumber.get());
+    }
+}
@@ -8,17 +8,25 @@ package org.hyperledger.fabric.gateway.impl.event;
 
 import org.hyperledger.fabric.sdk.Channel;
 
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 /**
  * Factory for creating BlockEventSource instances for channels.
  */
 public final class BlockEventSourceFactory {
+    @FunctionalInterface
+    private interface FailoverFactoryFunction {
+        BlockEventSource apply(Channel channel, ChannelBlockEventSource.StandbySessionFactory standbyFactory, Executor executor);
+    }
+
     /** Exposed only for testing. */
     static final Function<Channel, BlockEventSource> DEFAULT_FACTORY_FN = ChannelBlockEventSource::new;
+    private static final FailoverFactoryFunction DEFAULT_FAILOVER_FACTORY_FN = ChannelBlockEventSource::new;
 
     private static final BlockEventSourceFactory INSTANCE = new BlockEventSourceFactory();
     private static Function<Channel, BlockEventSource> factoryFn = DEFAULT_FACTORY_FN;
+    private static FailoverFactoryFunction failoverFactoryFn = DEFAULT_FAILOVER_FACTORY_FN;
 
     public static BlockEventSourceFactory getInstance() {
         return INSTANCE;
@@ -30,6 +38,9 @@ public final class BlockEventSourceFactory {
      */
     static void setFactoryFunction(Function<Channel, BlockEventSource> newFactoryFn) {
         factoryFn = newFactoryFn;
+        failoverFactoryFn = newFactoryFn == DEFAULT_FACTORY_FN
+                ? DEFAULT_FAILOVER_FACTORY_FN
+                : (channel, standbyFactory, executor) -> newFactoryFn.apply(channel);
     }
 
     private BlockEventSourceFactory() { }
@@ -41,4 +52,19 @@ public final class BlockEventSourceFactory {
     public BlockEventSource newBlockEventSource(Channel channel) {
         return factoryFn.apply(channel);
     }
+
+    /**
+     * Create an event source for a given channel that falls back to receiving events from a standby peer in the same
+     * organization while an event source peer is disconnected. The event source is owned and should be closed by the
+     * caller.
+     * @param channel An initialized channel.
+     * @param standbyFactory Starts listener sessions that receive events from standby peers.
+     * @param executor Executor used to start and stop standby sessions, which may block.
+     * @return Event source instance.
+     */
+    public BlockEventSource newFailoverBlockEventSource(Channel channel,
+                                                       ChannelBlockEventSource.StandbySessionFactory standbyFactory,
+                                                       Executor executor) {
+        return failoverFactoryFn.apply(channel, standbyFactory, executor);
+    }
 }
@@ -6,27 +6,220 @@
 
 package org.hyperledger.fabric.gateway.impl.event;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.spi.PeerDisconnectEvent;
 import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.Peer;
 import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
 
 /**
  * Used to add and remove block listeners for an underlying Channel.
+ * <p>Optionally operates in failover mode, where each organization's event source peers are backed by a standby peer
+ * from the same organization that does not have the event source role. If an event source peer disconnects, as
+ * reported by its {@link PeerDisconnectInterceptor}, the standby streams block events through a separate listener
+ * session, starting after the last block received, until the event source peer delivers events again. The standby
+ * does not stream while event source peers are connected. Peers on the channel are never replaced, so peer
+ * references held elsewhere remain valid.</p>
  * <p>
  * This implementation is thread-safe.
  * </p>
  */
 public final class ChannelBlockEventSource implements BlockEventSource {
+    private static final Log logger = LogFactory.getLog(ChannelBlockEventSource.class);
+
+    /**
+     * Starts a listener session that receives block events from a standby peer.
+     */
+    @FunctionalInterface
+    public interface StandbySessionFactory {
+        /**
+         * Start receiving block events from a standby peer.
+         * @param peer A peer that is not an event source on the channel.
+         * @param startBlock Block number of the first event to deliver, or -1 to start from the newest block.
+         * @param listener Listener that receives block events from the standby peer.
+         * @return A session that stops receiving events from the standby peer when closed.
+         */
+        ListenerSession newSession(Peer peer, long startBlock, Consumer<BlockEvent> listener);
+    }
+
+    private static final class Standby {
+        final Peer peer;
+        final ListenerSession session;
+
+        Standby(Peer peer, ListenerSession session) {
+            this.peer = peer;
+            this.session = session;
+        }
+    }
+
     private final Map<Consumer<BlockEvent>, String> handleMap = new ConcurrentHashMap<>();
     private final Channel channel;
+    private final StandbySessionFactory standbyFactory;
+    private final Executor executor;
+    private final AtomicLong lastBlockNumber = new AtomicLong(-1);
+    private final String blockNumberHandle;
+
+    // Keyed by disconnected event source peer; modified only while holding failoverLock
+    private final Map<Peer, Standby> activeStandbys = new ConcurrentHashMap<>();
+
+    // Failover state synchronized by failoverLock
+    private final Object failoverLock = new Object();
+    private final Map<Peer, String> eventSourceOrganizations = new HashMap<>();
+    private final Map<String, Deque<Peer>> standbyPeers = new HashMap<>();
+    private final Collection<ListenerSession> disconnectSessions = new ArrayList<>();
+    private boolean closed = false;
 
     ChannelBlockEventSource(Channel channel) {
         this.channel = channel;
+        this.standbyFactory = null;
+        this.executor = null;
+        this.blockNumberHandle = null;
+    }
+
+    /**
+     * Create an event source in failover mode.
+     * @param channel An initialized channel.
+     * @param standbyFactory Starts listener sessions that receive events from standby peers.
+     * @param executor Executor used to start and stop standby sessions, which may block.
+     */
+    ChannelBlockEventSource(Channel channel, StandbySessionFactory standbyFactory, Executor executor) {
+        this.channel = channel;
+        this.standbyFactory = standbyFactory;
+        this.executor = executor;
+        this.blockNumberHandle = registerChannelListener(this::onChannelBlock);
+
+        synchronized (failoverLock) {
+            Collection<Peer> eventSourcePeers = channel.getPeers(EnumSet.of(Peer.PeerRole.EVENT_SOURCE));
+            for (String mspId : channel.getPeersOrganizationMSPIDs()) {
+                Deque<Peer> standbys = new ArrayDeque<>();
+                for (Peer peer : getPeersForOrganization(mspId)) {
+                    if (eventSourcePeers.contains(peer)) {
+                        eventSourceOrganizations.put(peer, mspId);
+                        disconnectSessions.add(new PeerDisconnectListenerSession(peer, this::onDisconnect));
+                    } else {
+                        standbys.addLast(peer);
+                    }
+                }
+                standbyPeers.put(mspId, standbys);
+            }
+        }
+    }
+
+    private Collection<Peer> getPeersForOrganization(String mspId) {
+        try {
+            return channel.getPeersForOrganization(mspId);
+        } catch (InvalidArgumentException e) {
+            // This should never happen as mspId should not be null
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void onChannelBlock(BlockEvent event) {
+        lastBlockNumber.accumulateAndGet(event.getBlockNumber(), Math::max);
+
+        Peer peer = event.getPeer();
+        if (peer != null && activeStandbys.containsKey(peer)) {
+            // Event source peer has reconnected so the standby is no longer needed
+            runAsync(() -> stopStandby(peer));
+        }
+    }
+
+    private void onStandbyBlock(BlockEvent event) {
+        lastBlockNumber.accumulateAndGet(event.getBlockNumber(), Math::max);
+        handleMap.keySet().forEach(listener -> {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                logger.warn("Listener failed to process block event from standby peer", e);
+            }
+        });
+    }
+
+    private void onDisconnect(PeerDisconnectEvent event) {
+        // Starting a standby session may block, so do not hold up the disconnect handler thread
+        runAsync(() -> startStandby(event.getPeer()));
+    }
+
+    private void runAsync(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Failover task not run as executor is shut down", e);
+        }
+    }
+
+    private void startStandby(Peer failedPeer) {
+        synchronized (failoverLock) {
+            if (closed || activeStandbys.containsKey(failedPeer)) {
+                return;
+            }
+
+            Deque<Peer> standbys = standbyPeers.get(eventSourceOrganizations.get(failedPeer));
+            for (int i = standbys.size(); i > 0; i--) {
+                Peer standby = standbys.removeFirst();
+                standbys.addLast(standby); // Rotate so failures spread across the organization's peers
+                if (isStandbyActive(standby)) {
+                    continue;
+                }
+
+                long lastBlock = lastBlockNumber.get();
+                long startBlock = lastBlock >= 0 ? lastBlock + 1 : -1;
+                try {
+                    ListenerSession session = standbyFactory.newSession(standby, startBlock, this::onStandbyBlock);
+                    activeStandbys.put(failedPeer, new Standby(standby, session));
+                    logger.info("Event source peer " + failedPeer.getName() + " disconnected; receiving events from standby peer "
+                            + standby.getName() + " starting after block " + lastBlock);
+                    return;
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to start standby peer " + standby.getName() + " for event source peer "
+                            + failedPeer.getName(), e);
+                }
+            }
+
+            logger.warn("No standby peer available for disconnected event source peer " + failedPeer.getName());
+        }
+    }
+
+    private boolean isStandbyActive(Peer peer) {
+        return activeStandbys.values().stream().anyMatch(standby -> standby.peer == peer);
+    }
+
+    private void stopStandby(Peer reconnectedPeer) {
+        synchronized (failoverLock) {
+            Standby standby = activeStandbys.remove(reconnectedPeer);
+            if (standby != null) {
+                standby.session.close();
+                logger.info("Event source peer " + reconnectedPeer.getName() + " reconnected; stopped standby peer "
+                        + standby.peer.getName());
+            }
+        }
+    }
+
+    /**
+     * Get the standby peers currently streaming block events in failover mode.
+     * @return Active standby peers, or an empty collection if none are active or not in failover mode.
+     */
+    public Collection<Peer> getActiveStandbyPeers() {
+        return activeStandbys.values().stream()
+                .map(standby -> standby.peer)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -63,11 +256,23 @@ public final class ChannelBlockEventSource implements BlockEventSource {
     @Override
     public void close() {
         handleMap.forEach((listener, handle) -> removeBlockListener(listener));
+
+        synchronized (failoverLock) {
+            closed = true;
+            disconnectSessions.forEach(ListenerSession::close);
+            disconnectSessions.clear();
+            activeStandbys.values().forEach(standby -> standby.session.close());
+            activeStandbys.clear();
+        }
+        if (blockNumberHandle != null) {
+            unregisterChannelListener(blockNumberHandle);
+        }
     }
 
     @Override
     public String toString() {
         return GatewayUtils.toString(this,
-                "channel=" + channel);
+                "channel=" + channel,
+                "activeStandbyPeers=" + getActiveStandbyPeers().stream().map(Peer::getName).collect(Collectors.toList()));
     }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import org.hyperledger.fabric.gateway.CommitStatus;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.protos.peer.TransactionPackage.TxValidationCode;
+import org.hyperledger.fabric.sdk.BlockEvent;
+
+/**
+ * Provides a commit status view of a transaction event.
+ */
+public final class CommitStatusImpl implements CommitStatus {
+    private final long blockNumber;
+    private final BlockEvent.TransactionEvent transactionEvent;
+
+    public CommitStatusImpl(long blockNumber, BlockEvent.TransactionEvent transactionEvent) {
+        this.blockNumber = blockNumber;
+        this.transactionEvent = transactionEvent;
+    }
+
+    @Override
+    public String getTransactionId() {
+        return transactionEvent.getTransactionID();
+    }
+
+    @Override
+    public TxValidationCode getValidationCode() {
+        return TxValidationCode.forNumber(transactionEvent.getValidationCode());
+    }
+
+    @Override
+    public boolean isValid() {
+        return transactionEvent.isValid();
+    }
+
+    @Override
+    public long getBlockNumber() {
+        return blockNumber;
+    }
+
+    @Override
+    public BlockEvent.TransactionEvent getTransactionEvent() {
+        return transactionEvent;
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "transactionId=" + getTransactionId(),
+                "blockNumber=" + blockNumber,
+                "validationCode=" + getValidationCode());
+    }
+}
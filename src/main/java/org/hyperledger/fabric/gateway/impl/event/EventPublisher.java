@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+/**
+ * Reactive Streams publisher of events derived from a block event source. Each subscriber receives events from the
+ * point at which it subscribes, with up to a fixed number of events buffered while waiting for subscriber demand.
+ * @param <T> Event type.
+ */
+public final class EventPublisher<T> implements Publisher<T> {
+    private final BlockEventSource blockSource;
+    private final Function<Consumer<T>, Consumer<BlockEvent>> listenerAdapter;
+    private final int bufferSize;
+    private final Collection<ListenerSession> sessions;
+
+    /**
+     * Constructor.
+     * @param blockSource Source of block events.
+     * @param listenerAdapter Creates a block listener that passes events to the supplied event listener.
+     * @param bufferSize Maximum number of events to buffer for each subscriber.
+     * @param sessions Thread-safe collection to which active subscriptions are added so they can be closed.
+     */
+    public EventPublisher(BlockEventSource blockSource, Function<Consumer<T>, Consumer<BlockEvent>> listenerAdapter,
+                          int bufferSize, Collection<ListenerSession> sessions) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be at least 1: " + bufferSize);
+        }
+        this.blockSource = blockSource;
+        this.listenerAdapter = listenerAdapter;
+        this.bufferSize = bufferSize;
+        this.sessions = sessions;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        new EventSubscription<T>(blockSource, listenerAdapter, subscriber, bufferSize, sessions).start();
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "blockSource=" + blockSource,
+                "bufferSize=" + bufferSize);
+    }
+}
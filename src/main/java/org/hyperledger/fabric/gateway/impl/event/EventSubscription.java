@@ -0,0 +1,212 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Subscription of a single subscriber to an {@link EventPublisher}. Events received from the block event source are
+ * buffered until the subscriber signals demand. If the buffer is full when an event arrives, the subscription is
+ * terminated with an error rather than blocking the event source or buffering without limit. Closing the session
+ * completes the subscription.
+ * <p>Signals to the subscriber are serialized by a drain loop, so are never concurrent.</p>
+ * @param <T> Event type.
+ */
+final class EventSubscription<T> implements Subscription, ListenerSession {
+    private static final Log LOG = LogFactory.getLog(EventSubscription.class);
+
+    private final BlockEventSource blockSource;
+    private final Consumer<BlockEvent> blockListener;
+    private final Subscriber<? super T> subscriber;
+    private final int bufferSize;
+    private final Collection<ListenerSession> sessions;
+    private final Deque<T> buffer = new ArrayDeque<>();
+    private final AtomicInteger drainRequests = new AtomicInteger(0);
+    private long demand = 0;
+    private boolean cancelled = false;
+    private boolean terminating = false;
+    private Throwable failure = null;
+
+    EventSubscription(BlockEventSource blockSource, Function<Consumer<T>, Consumer<BlockEvent>> listenerAdapter,
+                      Subscriber<? super T> subscriber, int bufferSize, Collection<ListenerSession> sessions) {
+        this.blockSource = blockSource;
+        this.blockListener = listenerAdapter.apply(this::onEvent);
+        this.subscriber = subscriber;
+        this.bufferSize = bufferSize;
+        this.sessions = sessions;
+    }
+
+    void start() {
+        sessions.add(this);
+        subscriber.onSubscribe(this);
+
+        blockSource.addBlockListener(blockListener);
+        if (isDone()) {
+            // Cancelled or failed during onSubscribe, before the listener was added
+            detach();
+        }
+    }
+
+    private synchronized boolean isDone() {
+        return cancelled || terminating;
+    }
+
+    private void onEvent(T event) {
+        boolean overflow = false;
+        synchronized (this) {
+            if (cancelled || terminating) {
+                return;
+            }
+            if (buffer.size() < bufferSize) {
+                buffer.add(event);
+            } else {
+                overflow = true;
+            }
+        }
+
+        if (overflow) {
+            terminate(new IllegalStateException("Event buffer of size " + bufferSize
+                    + " is full because subscriber demand has not kept up with events"));
+        } else {
+            drain();
+        }
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            terminate(new IllegalArgumentException("Requested number of events must be positive: " + n));
+            return;
+        }
+
+        synchronized (this) {
+            demand += n;
+            if (demand < 0) {
+                demand = Long.MAX_VALUE; // Overflow, so treat as unbounded
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        synchronized (this) {
+            cancelled = true;
+            buffer.clear();
+        }
+        detach();
+    }
+
+    @Override
+    public void close() {
+        terminate(null);
+    }
+
+    /**
+     * Terminate the subscription, signalling an error to the subscriber if a failure is supplied; otherwise
+     * signalling completion. Any buffered events are discarded.
+     */
+    private void terminate(Throwable cause) {
+        synchronized (this) {
+            if (cancelled || terminating) {
+                return;
+            }
+            terminating = true;
+            failure = cause;
+            buffer.clear();
+        }
+        detach();
+        drain();
+    }
+
+    private void detach() {
+        blockSource.removeBlockListener(blockListener);
+        sessions.remove(this);
+    }
+
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return; // Another thread is draining and will pick up this request
+        }
+
+        int pending = 1;
+        do {
+            deliverAvailable();
+            pending = drainRequests.addAndGet(-pending);
+        } while (pending != 0);
+    }
+
+    private void deliverAvailable() {
+        while (true) {
+            final T event;
+            final boolean terminal;
+            final Throwable cause;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                terminal = terminating;
+                cause = failure;
+                if (terminal) {
+                    cancelled = true; // No further signals after the terminal one
+                    event = null;
+                } else if (demand > 0 && !buffer.isEmpty()) {
+                    event = buffer.poll();
+                    if (demand != Long.MAX_VALUE) {
+                        demand--;
+                    }
+                } else {
+                    return;
+                }
+            }
+
+            if (terminal) {
+                if (cause != null) {
+                    subscriber.onError(cause);
+                } else {
+                    subscriber.onComplete();
+                }
+                return;
+            }
+
+            try {
+                subscriber.onNext(event);
+            } catch (RuntimeException e) {
+                LOG.warn("Subscriber threw exception from onNext, so cancelling subscription", e);
+                cancel();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final long currentDemand;
+        final int buffered;
+        synchronized (this) {
+            currentDemand = demand;
+            buffered = buffer.size();
+        }
+        return GatewayUtils.toString(this,
+                "subscriber=" + subscriber,
+                "demand=" + currentDemand,
+                "buffered=" + buffered,
+                "bufferSize=" + bufferSize);
+    }
+}
@@ -8,16 +8,23 @@ package org.hyperledger.fabric.gateway.impl.event;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.StreamSupport;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.CommitStatus;
 import org.hyperledger.fabric.gateway.ContractEvent;
 import org.hyperledger.fabric.gateway.spi.Checkpointer;
 import org.hyperledger.fabric.gateway.spi.CommitListener;
@@ -32,6 +39,11 @@ public final class Listeners {
         return blockEvent -> blockEvent.getTransactionEvents().forEach(listener);
     }
 
+    public static Consumer<BlockEvent> fromCommitStatus(Consumer<CommitStatus> listener) {
+        return blockEvent -> blockEvent.getTransactionEvents().forEach(transactionEvent ->
+                listener.accept(new CommitStatusImpl(blockEvent.getBlockNumber(), transactionEvent)));
+    }
+
     public static Consumer<BlockEvent> fromContract(Consumer<ContractEvent> listener) {
         return fromTransaction(transactionFromContract(listener));
     }
@@ -44,6 +56,23 @@ public final class Listeners {
                 .forEach(listener);
     }
 
+    /**
+     * Block listener that delivers all events emitted by a given chaincode within each block as a single list. The
+     * listener is not called for blocks that contain no matching events.
+     * @param listener A contract event batch listener.
+     * @param chaincodeId Chaincode ID.
+     * @return A block listener.
+     */
+    public static Consumer<BlockEvent> fromContractBatch(Consumer<List<ContractEvent>> listener, String chaincodeId) {
+        return blockEvent -> {
+            List<ContractEvent> batch = new ArrayList<>();
+            fromContract(contract(batch::add, chaincodeId)).accept(blockEvent);
+            if (!batch.isEmpty()) {
+                listener.accept(batch);
+            }
+        };
+    }
+
     public static Consumer<BlockEvent> checkpointBlock(Checkpointer checkpointer, Consumer<BlockEvent> listener) {
         return blockEvent -> {
             final long eventBlockNumber = blockEvent.getBlockNumber();
@@ -89,10 +118,82 @@ public final class Listeners {
         return checkpointBlock(checkpointer, fromTransaction(transactionListener));
     }
 
+    /**
+     * Checkpointed transaction listener that processes the unhandled transactions within each block concurrently using
+     * the supplied executor. The block checkpoint only advances once every transaction in the block has been
+     * processed successfully. Transactions that completed are recorded by the checkpointer even if others in the
+     * same block failed, so they will not be redelivered when the block is retried. Transactions that the executor
+     * rejects are processed on the calling thread.
+     * @param checkpointer Checkpointer to persist block and transaction position.
+     * @param listener A thread-safe transaction listener.
+     * @param executor Executor used to process transactions.
+     * @return A block listener.
+     */
+    public static Consumer<BlockEvent> checkpointTransactionParallel(Checkpointer checkpointer,
+            Consumer<BlockEvent.TransactionEvent> listener, Executor executor) {
+        Consumer<BlockEvent> blockListener = blockEvent -> {
+            try {
+                Set<String> processedTransactionIds = checkpointer.getTransactionIds();
+                List<BlockEvent.TransactionEvent> transactionEvents = new ArrayList<>();
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                for (BlockEvent.TransactionEvent transactionEvent : blockEvent.getTransactionEvents()) {
+                    if (!processedTransactionIds.contains(transactionEvent.getTransactionID())) {
+                        transactionEvents.add(transactionEvent);
+                        futures.add(runAsync(() -> listener.accept(transactionEvent), executor));
+                    }
+                }
+
+                // Checkpointer updates happen on this thread since it holds the checkpointer lock
+                Throwable failure = null;
+                for (int i = 0; i < futures.size(); i++) {
+                    try {
+                        futures.get(i).join();
+                        checkpointer.addTransactionId(transactionEvents.get(i).getTransactionID());
+                    } catch (CompletionException e) {
+                        LOG.error("Failed to process transaction " + transactionEvents.get(i).getTransactionID(), e.getCause());
+                        if (failure == null) {
+                            failure = e.getCause();
+                        }
+                    }
+                }
+
+                // Prevent the block checkpoint from advancing
+                if (failure instanceof RuntimeException) {
+                    throw (RuntimeException) failure;
+                } else if (failure != null) {
+                    throw new CompletionException(failure);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        return checkpointBlock(checkpointer, blockListener);
+    }
+
+    private static CompletableFuture<Void> runAsync(Runnable task, Executor executor) {
+        try {
+            return CompletableFuture.runAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Executor rejected task, running on calling thread", e);
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            try {
+                task.run();
+                future.complete(null);
+            } catch (RuntimeException ex) {
+                future.completeExceptionally(ex);
+            }
+            return future;
+        }
+    }
+
     public static Consumer<BlockEvent> checkpointContract(Checkpointer checkpointer, Consumer<ContractEvent> listener) {
         return checkpointTransaction(checkpointer, transactionFromContract(listener));
     }
 
+    public static Consumer<BlockEvent> checkpointContractParallel(Checkpointer checkpointer, Consumer<ContractEvent> listener, Executor executor) {
+        return checkpointTransactionParallel(checkpointer, transactionFromContract(listener), executor);
+    }
+
     public static Consumer<ContractEvent> contract(Consumer<ContractEvent> listener, String chaincodeId) {
         return contractEvent -> {
             if (contractEvent.getChaincodeId().equals(chaincodeId)) {
@@ -6,39 +6,170 @@
 
 package org.hyperledger.fabric.gateway.impl.event;
 
+import java.util.ArrayDeque;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.BlockGapMetrics;
 import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.impl.HashedWheelTimer;
+import org.hyperledger.fabric.gateway.impl.TimePeriod;
 import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.BlockInfo;
 
 /**
  * Listens to an existing block event source and ensures that its own listeners receive block events in order and
- * without duplicates.
+ * without duplicates. Optionally retains a fixed number of the most recently delivered block events so that listeners
+ * starting from a recent block can be served without replaying events from peers.
+ * <p>Optionally detects gaps where a block is not received but later blocks are. If the missing block does not arrive
+ * within a timeout, or too many later blocks are queued, a backfill is started that delivers events from the missing
+ * block onwards until the gap is closed. Queued events beyond the window size are discarded, since the backfill
+ * delivers them again.</p>
  */
-public final class OrderedBlockEventSource implements BlockEventSource {
+public final class OrderedBlockEventSource implements BlockEventSource, BlockGapMetrics {
+    private static final Log logger = LogFactory.getLog(OrderedBlockEventSource.class);
     private static final Comparator<BlockEvent> eventComparator = Comparator.comparingLong(BlockEvent::getBlockNumber);
 
+    /**
+     * Settings for recovery of blocks missing from the block source.
+     */
+    public static final class GapRecovery {
+        private final HashedWheelTimer timer;
+        private final TimePeriod timeout;
+        private final int windowSize;
+        private final BiFunction<Long, Consumer<BlockEvent>, ListenerSession> backfill;
+        private final Executor executor;
+
+        /**
+         * Constructor.
+         * @param timer Timer used to schedule gap timeouts.
+         * @param timeout Time to wait for a missing block before starting a backfill.
+         * @param windowSize Maximum number of events queued behind a missing block, or zero for no limit.
+         * @param backfill Function that starts a listener session delivering events from a given block number.
+         * @param executor Executor used to start and close backfill sessions, which may block.
+         */
+        public GapRecovery(HashedWheelTimer timer, TimePeriod timeout, int windowSize,
+                           BiFunction<Long, Consumer<BlockEvent>, ListenerSession> backfill, Executor executor) {
+            this.timer = timer;
+            this.timeout = timeout;
+            this.windowSize = windowSize;
+            this.backfill = backfill;
+            this.executor = executor;
+        }
+    }
+
+    /**
+     * Delivers cached events to a listener, buffering any live events received until the cached events have been
+     * delivered so that the listener receives events in order. Exceptions thrown by the listener are caught and
+     * logged for each event.
+     */
+    private static final class CatchUpListener implements Consumer<BlockEvent> {
+        private final Consumer<BlockEvent> listener;
+        private Deque<BlockEvent> bufferedEvents = new ArrayDeque<>(); // Synchronized on this; null once caught up
+
+        CatchUpListener(Consumer<BlockEvent> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void accept(BlockEvent event) {
+            synchronized (this) {
+                if (bufferedEvents != null) {
+                    bufferedEvents.addLast(event);
+                    return;
+                }
+            }
+            deliver(event);
+        }
+
+        void catchUp(List<BlockEvent> cachedEvents) {
+            cachedEvents.forEach(this::deliver);
+            while (true) {
+                final BlockEvent event;
+                synchronized (this) {
+                    event = bufferedEvents.pollFirst();
+                    if (event == null) {
+                        bufferedEvents = null;
+                        return;
+                    }
+                }
+                deliver(event);
+            }
+        }
+
+        private void deliver(BlockEvent event) {
+            try {
+                listener.accept(event);
+            } catch (Exception e) {
+                logger.error("Exception notifying listener of block " + event.getBlockNumber(), e);
+            }
+        }
+    }
+
     private final BlockEventSource blockSource;
     private final ListenerSet<Consumer<BlockEvent>> listeners = new ListenerSet<>();
+    private final Map<Consumer<BlockEvent>, CatchUpListener> catchUpListeners = new ConcurrentHashMap<>();
     private final Consumer<BlockEvent> blockListener;
+    private final int cacheSize;
+    private final GapRecovery gapRecovery;
+    private volatile long lastNewBlockNanos = System.nanoTime();
 
     // Non-threadsafe state synchronized by stateLock
     private final Object stateLock = new Object();
     private long blockNumber;
     private final SortedSet<BlockEvent> queuedEvents = new TreeSet<>(eventComparator);
+    private final Deque<BlockEvent> recentEvents = new ArrayDeque<>();
+    private long highestBlockNumber = -1;
+    private HashedWheelTimer.Timeout gapTimeout = null;
+    private boolean backfilling = false;
+    private ListenerSession backfillSession = null;
+    private boolean closed = false;
+    private long gapCount = 0;
+    private long backfillCount = 0;
+    private long discardedEventCount = 0;
 
     public OrderedBlockEventSource(BlockEventSource blockSource) {
         this(blockSource, -1);
     }
 
     public OrderedBlockEventSource(BlockEventSource blockSource, long startBlock) {
+        this(blockSource, startBlock, 0);
+    }
+
+    /**
+     * Constructor.
+     * @param blockSource Source of unordered block events.
+     * @param startBlock Block number of the first event to deliver, or -1 to start from the first event received.
+     * @param cacheSize Number of most recently delivered block events to retain.
+     */
+    public OrderedBlockEventSource(BlockEventSource blockSource, long startBlock, int cacheSize) {
+        this(blockSource, startBlock, cacheSize, null);
+    }
+
+    /**
+     * Constructor.
+     * @param blockSource Source of unordered block events.
+     * @param startBlock Block number of the first event to deliver, or -1 to start from the first event received.
+     * @param cacheSize Number of most recently delivered block events to retain.
+     * @param gapRecovery Settings for recovery of missing blocks, or null to wait indefinitely for missing blocks.
+     */
+    public OrderedBlockEventSource(BlockEventSource blockSource, long startBlock, int cacheSize, GapRecovery gapRecovery) {
         this.blockSource = blockSource;
+        this.cacheSize = cacheSize;
+        this.gapRecovery = gapRecovery;
         this.blockListener = blockSource.addBlockListener(this::receivedBlock);
         synchronized (stateLock) {
             blockNumber = startBlock;
@@ -50,25 +181,199 @@ public final class OrderedBlockEventSource implements BlockEventSource {
         return listeners.add(listener);
     }
 
+    /**
+     * Add a listener that receives events starting from a specific block number, if that block is available from the
+     * cache of recently delivered events or is the next block to be delivered. Cached events are delivered to the
+     * listener before this method returns, and the listener then receives subsequent events in order with no gaps.
+     * @param startBlock Block number of the first event to deliver.
+     * @param listener A block listener.
+     * @return true if the listener was added; false if the start block is not available.
+     */
+    public boolean addBlockListener(long startBlock, Consumer<BlockEvent> listener) {
+        CatchUpListener catchUpListener = new CatchUpListener(listener);
+        final List<BlockEvent> cachedEvents;
+
+        // Taking the cached events and adding the listener under the state lock ensures no events are missed
+        synchronized (stateLock) {
+            if (blockNumber < 0 || startBlock > blockNumber) {
+                return false;
+            }
+            BlockEvent oldestEvent = recentEvents.peekFirst();
+            long oldestBlockNumber = oldestEvent != null ? oldestEvent.getBlockNumber() : blockNumber;
+            if (startBlock < oldestBlockNumber) {
+                return false;
+            }
+
+            cachedEvents = recentEvents.stream()
+                    .filter(event -> event.getBlockNumber() >= startBlock)
+                    .collect(Collectors.toList());
+            catchUpListeners.put(listener, catchUpListener);
+            listeners.add(catchUpListener);
+        }
+
+        // Deliver cached events without holding the state lock, so delivery of new events is not held up
+        catchUpListener.catchUp(cachedEvents);
+        return true;
+    }
+
     @Override
     public void removeBlockListener(Consumer<BlockEvent> listener) {
-        listeners.remove(listener);
+        CatchUpListener catchUpListener = catchUpListeners.remove(listener);
+        listeners.remove(catchUpListener != null ? catchUpListener : listener);
     }
 
     @Override
     public void close() {
         listeners.clear();
+        catchUpListeners.clear();
+        final ListenerSession session;
+        synchronized (stateLock) {
+            closed = true;
+            recentEvents.clear();
+            cancelGapTimeout();
+            session = backfillSession;
+            backfillSession = null;
+        }
         blockSource.removeBlockListener(blockListener);
+        if (session != null) {
+            session.close();
+        }
     }
 
     private void receivedBlock(BlockEvent event) {
+        ListenerSession completedBackfill = null;
+        boolean startBackfill = false;
+
         synchronized (stateLock) {
             if (isOldBlockNumber(event.getBlockNumber())) {
                 return;
             }
+            lastNewBlockNanos = System.nanoTime();
 
             queuedEvents.add(event);
             notifyListeners();
+
+            if (gapRecovery != null && !closed) {
+                highestBlockNumber = Math.max(highestBlockNumber, event.getBlockNumber());
+                if (!isGap()) {
+                    cancelGapTimeout();
+                    if (backfillSession != null) {
+                        completedBackfill = backfillSession;
+                        backfillSession = null;
+                        backfilling = false;
+                    }
+                } else {
+                    startBackfill = checkGap();
+                }
+            }
+        }
+
+        if (completedBackfill != null) {
+            // Close asynchronously since this event may have been delivered by the backfill session itself
+            runAsync(completedBackfill::close);
+        }
+        if (startBackfill) {
+            runAsync(this::startBackfill);
+        }
+    }
+
+    private void runAsync(Runnable task) {
+        try {
+            gapRecovery.executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Gap recovery task not run as executor is shut down", e);
+        }
+    }
+
+    private boolean isGap() {
+        return blockNumber >= 0 && blockNumber <= highestBlockNumber;
+    }
+
+    /**
+     * Start timing a newly detected gap, and discard queued events beyond the window size.
+     * @return true if a backfill should be started immediately.
+     */
+    private boolean checkGap() {
+        if (gapTimeout == null && !backfilling) {
+            gapCount++;
+            logger.debug("Waiting for block " + blockNumber + " while holding " + queuedEvents.size() + " later blocks");
+            scheduleGapTimeout();
+        }
+
+        int windowSize = gapRecovery.windowSize;
+        if (windowSize <= 0 || queuedEvents.size() <= windowSize) {
+            return false;
+        }
+
+        while (queuedEvents.size() > windowSize) {
+            queuedEvents.remove(queuedEvents.last());
+            discardedEventCount++;
+        }
+        if (backfilling) {
+            return false;
+        }
+        cancelGapTimeout();
+        backfilling = true;
+        return true;
+    }
+
+    private void scheduleGapTimeout() {
+        TimePeriod timeout = gapRecovery.timeout;
+        gapTimeout = gapRecovery.timer.newTimeout(this::gapTimedOut, timeout.getTime(), timeout.getTimeUnit());
+    }
+
+    private void cancelGapTimeout() {
+        if (gapTimeout != null) {
+            gapTimeout.cancel();
+            gapTimeout = null;
+        }
+    }
+
+    private void gapTimedOut() {
+        synchronized (stateLock) {
+            gapTimeout = null;
+            if (closed || backfilling || !isGap()) {
+                return;
+            }
+            backfilling = true;
+        }
+
+        // Timer tasks must not block, so start the backfill on another thread
+        runAsync(this::startBackfill);
+    }
+
+    private void startBackfill() {
+        final long startBlock;
+        synchronized (stateLock) {
+            startBlock = blockNumber;
+            backfillCount++;
+        }
+        logger.warn("Block " + startBlock + " not received from block source; replaying events from that block");
+
+        ListenerSession session;
+        try {
+            session = gapRecovery.backfill.apply(startBlock, this::receivedBlock);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to replay events from block " + startBlock, e);
+            synchronized (stateLock) {
+                backfilling = false;
+                if (!closed && isGap()) {
+                    scheduleGapTimeout(); // Retry after another timeout period
+                }
+            }
+            return;
+        }
+
+        synchronized (stateLock) {
+            if (closed || !isGap()) {
+                backfilling = false;
+            } else {
+                backfillSession = session;
+                session = null;
+            }
+        }
+        if (session != null) {
+            session.close(); // Gap closed while the backfill was starting
         }
     }
 
@@ -87,28 +392,81 @@ public final class OrderedBlockEventSource implements BlockEventSource {
 
             eventIter.remove();
             blockNumber = eventBlockNumber + 1;
+            cacheEvent(event);
             listeners.forEach(listener -> listener.accept(event));
         }
     }
 
+    private void cacheEvent(BlockEvent event) {
+        if (cacheSize <= 0) {
+            return;
+        }
+        if (recentEvents.size() >= cacheSize) {
+            recentEvents.removeFirst();
+        }
+        recentEvents.addLast(event);
+    }
+
     private boolean isNextBlockNumber(long eventBlockNumber) {
         return blockNumber < 0 || blockNumber == eventBlockNumber;
     }
 
+    /**
+     * Check whether the block source appears to have stalled, with no new block received within a time threshold
+     * of now. This is measured from creation of this event source if no blocks have been received.
+     * @param threshold Maximum time expected between new blocks.
+     * @return true if no new block has been received within the threshold; otherwise false.
+     */
+    public boolean isStalled(TimePeriod threshold) {
+        long elapsedNanos = System.nanoTime() - lastNewBlockNanos;
+        return elapsedNanos > threshold.getTimeUnit().toNanos(threshold.getTime());
+    }
+
+    @Override
+    public long getGapCount() {
+        synchronized (stateLock) {
+            return gapCount;
+        }
+    }
+
+    @Override
+    public long getBackfillCount() {
+        synchronized (stateLock) {
+            return backfillCount;
+        }
+    }
+
+    @Override
+    public long getDiscardedEventCount() {
+        synchronized (stateLock) {
+            return discardedEventCount;
+        }
+    }
+
     @Override
     public String toString() {
         final long currentBlockNumber;
         final String queuedBlocks;
+        final long gaps;
+        final long backfills;
+        final long discardedEvents;
         synchronized (stateLock) {
             currentBlockNumber = blockNumber;
             queuedBlocks = queuedEvents.stream()
                     .mapToLong(BlockInfo::getBlockNumber)
                     .mapToObj(Long::toString)
                     .collect(Collectors.joining(", ", "[", "]"));
+            gaps = gapCount;
+            backfills = backfillCount;
+            discardedEvents = discardedEventCount;
         }
 
         return GatewayUtils.toString(this,
                 "blockNumber=" + currentBlockNumber,
-                "queuedBlocks=" + queuedBlocks);
+                "queuedBlocks=" + queuedBlocks,
+                "cacheSize=" + cacheSize,
+                "gaps=" + gaps,
+                "backfills=" + backfills,
+                "discardedEvents=" + discardedEvents);
     }
 }
\ No newline at end of file
@@ -29,20 +29,36 @@ public final class ReplayListenerSession implements ListenerSession {
     private final BlockEventSource blockSource;
 
     public ReplayListenerSession(NetworkImpl network, Consumer<BlockEvent> listener, long startBlock) {
+        this(network, null, listener, startBlock);
+    }
+
+    /**
+     * Receive events from specific peers, which need not be event sources for the network.
+     * @param network Network whose channel the peers belong to.
+     * @param peers Peers from which to receive events, or null to use the network's event source peers.
+     * @param listener Listener that receives events.
+     * @param startBlock Block number of the first event to deliver, or -1 to start from the newest block.
+     */
+    public ReplayListenerSession(NetworkImpl network, Collection<Peer> peers, Consumer<BlockEvent> listener, long startBlock) {
         gateway = network.getGateway().newInstance();
-        String channelName = network.getChannel().getName();
-        channel = gateway.getNetwork(channelName).getChannel();
+        try {
+            String channelName = network.getChannel().getName();
+            channel = gateway.getNetwork(channelName).getChannel();
 
-        // Remove old peers first to avoid receiving spurious events from them
-        Collection<Peer> eventingPeers = channel.getPeers(EnumSet.of(Peer.PeerRole.EVENT_SOURCE));
-        removeAllPeers();
+            // Remove old peers first to avoid receiving spurious events from them
+            Collection<Peer> eventingPeers = peers != null ? peers : channel.getPeers(EnumSet.of(Peer.PeerRole.EVENT_SOURCE));
+            removeAllPeers();
 
-        // Attach listener before replay peers to ensure no replay events are missed
-        BlockEventSource channelBlockSource = BlockEventSourceFactory.getInstance().newBlockEventSource(channel);
-        blockSource = new OrderedBlockEventSource(channelBlockSource, startBlock);
-        blockSource.addBlockListener(listener);
+            // Attach listener before replay peers to ensure no replay events are missed
+            BlockEventSource channelBlockSource = BlockEventSourceFactory.getInstance().newBlockEventSource(channel);
+            blockSource = new OrderedBlockEventSource(channelBlockSource, startBlock);
+            blockSource.addBlockListener(listener);
 
-        addReplayPeers(eventingPeers, startBlock);
+            addReplayPeers(eventingPeers, startBlock);
+        } catch (RuntimeException e) {
+            gateway.close();
+            throw e;
+        }
     }
 
     private void removeAllPeers() {
@@ -61,8 +77,12 @@ public final class ReplayListenerSession implements ListenerSession {
             for (Peer originalPeer : eventingPeers) {
                 Peer replayPeer = client.newPeer(originalPeer.getName(), originalPeer.getUrl(), originalPeer.getProperties());
                 Channel.PeerOptions options = Channel.PeerOptions.createPeerOptions()
-                        .addPeerRole(Peer.PeerRole.EVENT_SOURCE)
-                        .startEvents(startBlock);
+                        .addPeerRole(Peer.PeerRole.EVENT_SOURCE);
+                if (startBlock >= 0) {
+                    options.startEvents(startBlock);
+                } else {
+                    options.startEventsNewest();
+                }
                 channel.addPeer(replayPeer, options);
             }
         } catch (InvalidArgumentException e) {
@@ -7,6 +7,9 @@
 package org.hyperledger.fabric.gateway.spi;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -39,6 +42,46 @@ public interface CommitHandler {
      */
     void waitForEvents(long timeout, TimeUnit timeUnit) throws ContractException, TimeoutException, InterruptedException;
 
+    /**
+     * Wait asynchronously until enough transaction commit events have been received to satisfy the event handling
+     * strategy. Equivalent to calling {@link #waitForEventsAsync(long, TimeUnit, Executor)} with the common
+     * fork-join pool.
+     * @param timeout the maximum time to wait.
+     * @param timeUnit the time unit of the timeout argument.
+     * @return A future that completes when the wait is finished.
+     */
+    default CompletableFuture<Void> waitForEventsAsync(long timeout, TimeUnit timeUnit) {
+        return waitForEventsAsync(timeout, timeUnit, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Wait asynchronously until enough transaction commit events have been received to satisfy the event handling
+     * strategy. The returned future completes exceptionally with a {@link ContractException} if the commit fails,
+     * or a {@link TimeoutException} if the strategy was not satisfied in time.
+     * <p>The default implementation calls {@link #waitForEvents(long, TimeUnit)} using a thread from the supplied
+     * executor, which is the gateway's executor when invoked by the gateway. Implementations should override this
+     * method to avoid blocking a thread while waiting.</p>
+     * @param timeout the maximum time to wait.
+     * @param timeUnit the time unit of the timeout argument.
+     * @param executor the executor used to run a blocking wait.
+     * @return A future that completes when the wait is finished.
+     */
+    default CompletableFuture<Void> waitForEventsAsync(long timeout, TimeUnit timeUnit, Executor executor) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        CompletableFuture.runAsync(() -> {
+            try {
+                waitForEvents(timeout, timeUnit);
+                result.complete(null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(e);
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        }, executor);
+        return result;
+    }
+
     /**
      * Called to interrupt the waiting state of {@link #waitForEvents(long, TimeUnit)} before completion.
      */
@@ -52,6 +52,7 @@ import org.hyperledger.fabric.gateway.impl.Enrollment;
 import org.hyperledger.fabric.gateway.impl.GatewayImpl;
 import org.hyperledger.fabric.gateway.spi.PeerDisconnectEvent;
 import org.hyperledger.fabric.protos.peer.FabricProposalResponse;
+import org.hyperledger.fabric.protos.peer.TransactionPackage.TxValidationCode;
 import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.ChaincodeResponse;
 import org.hyperledger.fabric.sdk.Channel;
@@ -192,8 +193,13 @@ public final class TestUtils {
     }
 
     public BlockEvent.TransactionEvent newInvalidMockTransactionEvent(Peer peer, String transactionId) {
+        return newInvalidMockTransactionEvent(peer, transactionId, TxValidationCode.ENDORSEMENT_POLICY_FAILURE);
+    }
+
+    public BlockEvent.TransactionEvent newInvalidMockTransactionEvent(Peer peer, String transactionId, TxValidationCode validationCode) {
         BlockEvent.TransactionEvent txEvent = newMockTransactionEvent(peer, transactionId);
         Mockito.when(txEvent.isValid()).thenReturn(false);
+        Mockito.when(txEvent.getValidationCode()).thenReturn((byte) validationCode.getNumber());
         return txEvent;
     }
 
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AdmissionControllerTest {
+    @Test
+    public void admits_requests_up_to_limit() throws Exception {
+        AdmissionController admission = new AdmissionController("test", 2, 0);
+
+        admission.acquire(Deadline.none());
+        admission.acquire(Deadline.none());
+
+        assertThatThrownBy(() -> admission.acquire(Deadline.none()))
+                .isInstanceOf(ContractException.class);
+    }
+
+    @Test
+    public void released_permit_admits_new_request() throws Exception {
+        AdmissionController admission = new AdmissionController("test", 1, 0);
+
+        admission.acquire(Deadline.none()).release(AdmissionController.Outcome.IGNORED);
+
+        assertThat(admission.acquire(Deadline.none())).isNotNull();
+    }
+
+    @Test
+    public void releasing_permit_more_than_once_has_no_effect() throws Exception {
+        AdmissionController admission = new AdmissionController("test", 1, 0);
+
+        AdmissionController.Permit permit = admission.acquire(Deadline.none());
+        permit.release(AdmissionController.Outcome.IGNORED);
+        permit.release(AdmissionController.Outcome.IGNORED);
+        admission.acquire(Deadline.none());
+
+        assertThatThrownBy(() -> admission.acquire(Deadline.none()))
+                .isInstanceOf(ContractException.class);
+    }
+
+    @Test
+    public void queued_request_times_out_at_deadline() throws Exception {
+        AdmissionController admission = new AdmissionController("test", 1, 1);
+        admission.acquire(Deadline.none());
+
+        Deadline deadline = Deadline.after(new TimePeriod(50, TimeUnit.MILLISECONDS));
+        assertThatThrownBy(() -> admission.acquire(deadline))
+                .isInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    public void queued_request_admitted_on_release() throws Exception {
+        AdmissionController admission = new AdmissionController("test", 1, 1);
+        AdmissionController.Permit permit = admission.acquire(Deadline.none());
+
+        CompletableFuture<AdmissionController.Permit> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return admission.acquire(Deadline.none());
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Thread.sleep(50);
+        assertThat(queued).isNotDone();
+
+        permit.release(AdmissionController.Outcome.IGNORED);
+
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    public void dropped_request_reduces_limit() throws Exception {
+        AdmissionController admission = new AdmissionController("test", 2, 0);
+
+        admission.acquire(Deadline.none()).release(AdmissionController.Outcome.DROPPED);
+        admission.acquire(Deadline.none());
+
+        assertThatThrownBy(() -> admission.acquire(Deadline.none()))
+                .isInstanceOf(ContractException.class);
+    }
+
+    @Test
+    public void successful_requests_restore_limit() throws Exception {
+        AdmissionController admission = new AdmissionController("test", 2, 0);
+        admission.acquire(Deadline.none()).release(AdmissionController.Outcome.DROPPED);
+
+        admission.acquire(Deadline.none()).release(AdmissionController.Outcome.SUCCESS);
+        admission.acquire(Deadline.none());
+
+        assertThat(admission.acquire(Deadline.none())).isNotNull();
+    }
+
+    @Test
+    public void limit_never_falls_below_one() throws Exception {
+        AdmissionController admission = new AdmissionController("test", 1, 0);
+
+        for (int i = 0; i < 10; i++) {
+            admission.acquire(Deadline.none()).release(AdmissionController.Outcome.DROPPED);
+        }
+
+        assertThat(admission.acquire(Deadline.none())).isNotNull();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.protos.common.Common;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.Peer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+public class BlockArchiveTest {
+    private static final TestUtils testUtils = TestUtils.getInstance();
+
+    private Path directory;
+    private Peer peer;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        directory = testUtils.getUnusedFilePath();
+        peer = testUtils.newMockPeer("peer");
+    }
+
+    private BlockEvent newBlockEvent(long blockNumber) {
+        BlockEvent blockEvent = testUtils.newMockBlockEvent(peer, blockNumber);
+        Common.Block block = Common.Block.newBuilder()
+                .setHeader(Common.BlockHeader.newBuilder().setNumber(blockNumber))
+                .build();
+        when(blockEvent.getBlock()).thenReturn(block);
+        return blockEvent;
+    }
+
+    private static List<Long> readBlockNumbers(BlockArchive archive, long startBlock) throws IOException {
+        List<Long> blockNumbers = new ArrayList<>();
+        archive.readBlocks(startBlock, block -> blockNumbers.add(block.getHeader().getNumber()));
+        return blockNumbers;
+    }
+
+    private List<Path> getSegmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".blocks"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void new_archive_has_no_blocks() throws IOException {
+        try (BlockArchive archive = new BlockArchive(directory)) {
+            long nextBlock = archive.readBlocks(0, block -> { });
+
+            assertThat(nextBlock).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void reads_appended_blocks_from_start_block() throws IOException {
+        try (BlockArchive archive = new BlockArchive(directory)) {
+            archive.onBlock(newBlockEvent(1));
+            archive.onBlock(newBlockEvent(2));
+            archive.onBlock(newBlockEvent(3));
+
+            assertThat(readBlockNumbers(archive, 2)).containsExactly(2L, 3L);
+        }
+    }
+
+    @Test
+    public void returns_next_block_not_in_archive() throws IOException {
+        try (BlockArchive archive = new BlockArchive(directory)) {
+            archive.onBlock(newBlockEvent(1));
+            archive.onBlock(newBlockEvent(2));
+
+            long nextBlock = archive.readBlocks(1, block -> { });
+
+            assertThat(nextBlock).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void blocks_are_loaded_from_directory() throws IOException {
+        try (BlockArchive archive = new BlockArchive(directory)) {
+            archive.onBlock(newBlockEvent(1));
+            archive.onBlock(newBlockEvent(2));
+        }
+
+        try (BlockArchive archive = new BlockArchive(directory)) {
+            archive.onBlock(newBlockEvent(3));
+
+            assertThat(readBlockNumbers(archive, 1)).containsExactly(1L, 2L, 3L);
+            assertThat(getSegmentFiles()).hasSize(1);
+        }
+    }
+
+    @Test
+    public void duplicate_blocks_are_ignored() throws IOException {
+        try (BlockArchive archive = new BlockArchive(directory)) {
+            archive.onBlock(newBlockEvent(1));
+            archive.onBlock(newBlockEvent(2));
+            archive.onBlock(newBlockEvent(1));
+
+            assertThat(readBlockNumbers(archive, 1)).containsExactly(1L, 2L);
+        }
+    }
+
+    @Test
+    public void filtered_blocks_are_not_archived() throws IOException {
+        try (BlockArchive archive = new BlockArchive(directory)) {
+            BlockEvent blockEvent = newBlockEvent(1);
+            when(blockEvent.isFiltered()).thenReturn(true);
+            archive.onBlock(blockEvent);
+
+            assertThat(readBlockNumbers(archive, 1)).isEmpty();
+        }
+    }
+
+    @Test
+    public void reading_stops_at_missing_block() throws IOException {
+        try (BlockArchive archive = new BlockArchive(directory)) {
+            archive.onBlock(newBlockEvent(1));
+            archive.onBlock(newBlockEvent(2));
+            archive.onBlock(newBlockEvent(5));
+
+            List<Long> blockNumbers = new ArrayList<>();
+            long nextBlock = archive.readBlocks(1, block -> blockNumbers.add(block.getHeader().getNumber()));
+
+            assertThat(blockNumbers).containsExactly(1L, 2L);
+            assertThat(nextBlock).isEqualTo(3);
+            assertThat(readBlockNumbers(archive, 5)).containsExactly(5L);
+        }
+    }
+
+    @Test
+    public void incomplete_record_is_truncated_on_load() throws IOException {
+        try (BlockArchive archive = new BlockArchive(directory)) {
+            archive.onBlock(newBlockEvent(1));
+        }
+        Path segmentFile = getSegmentFiles().get(0);
+        long validSize = Files.size(segmentFile);
+        Files.write(segmentFile, new byte[] { 0, 0, 0 }, StandardOpenOption.APPEND);
+
+        try (BlockArchive archive = new BlockArchive(directory)) {
+            assertThat(Files.size(segmentFile)).isEqualTo(validSize);
+
+            archive.onBlock(newBlockEvent(2));
+            assertThat(readBlockNumbers(archive, 1)).containsExactly(1L, 2L);
+        }
+    }
+
+    @Test
+    public void throws_if_directory_already_in_use() throws IOException {
+        try (BlockArchive archive = new BlockArchive(directory)) {
+            assertThatThrownBy(() -> new BlockArchive(directory))
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    public void directory_can_be_reused_after_close() throws IOException {
+        new BlockArchive(directory).close();
+
+        try (BlockArchive archive = new BlockArchive(directory)) {
+            assertThat(archive.readBlocks(0, block -> { })).isEqualTo(0);
+        }
+    }
+}
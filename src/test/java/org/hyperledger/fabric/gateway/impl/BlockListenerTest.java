@@ -13,6 +13,7 @@ import org.hyperledger.fabric.gateway.Gateway;
 import org.hyperledger.fabric.gateway.GatewayException;
 import org.hyperledger.fabric.gateway.Network;
 import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.impl.event.OrderedBlockEventSource;
 import org.hyperledger.fabric.gateway.impl.event.StubBlockEventSource;
 import org.hyperledger.fabric.gateway.spi.Checkpointer;
 import org.hyperledger.fabric.sdk.BlockEvent;
@@ -226,4 +227,58 @@ public class BlockListenerTest {
 
         Mockito.verify(listener, Mockito.never()).accept(event);
     }
+
+    private void useBlockCache(int size) throws Exception {
+        gateway.close();
+        gateway = testUtils.newGatewayBuilder().blockCacheSize(size).connect();
+        network = gateway.getNetwork("ch1");
+    }
+
+    @Test
+    public void replay_listener_within_block_cache_receives_cached_events() throws Exception {
+        useBlockCache(10);
+        BlockEvent event1 = testUtils.newMockBlockEvent(peer1, 1);
+        BlockEvent event2 = testUtils.newMockBlockEvent(peer1, 2);
+        BlockEvent event3 = testUtils.newMockBlockEvent(peer1, 3);
+        stubBlockEventSource.sendEvent(event1);
+        stubBlockEventSource.sendEvent(event2);
+        Consumer<BlockEvent> replayListener = Mockito.spy(testUtils.stubBlockListener());
+
+        network.addBlockListener(2, replayListener);
+        stubBlockEventSource.sendEvent(event3);
+
+        InOrder orderVerifier = Mockito.inOrder(replayListener);
+        orderVerifier.verify(replayListener).accept(event2);
+        orderVerifier.verify(replayListener).accept(event3);
+        Mockito.verify(replayListener, Mockito.never()).accept(event1);
+    }
+
+    @Test
+    public void replay_listener_within_block_cache_does_not_receive_duplicates() throws Exception {
+        useBlockCache(10);
+        BlockEvent event1 = testUtils.newMockBlockEvent(peer1, 1);
+        BlockEvent event2 = testUtils.newMockBlockEvent(peer2, 1);
+        stubBlockEventSource.sendEvent(event1);
+        Consumer<BlockEvent> replayListener = Mockito.spy(testUtils.stubBlockListener());
+
+        network.addBlockListener(1, replayListener);
+        stubBlockEventSource.sendEvent(event2);
+
+        Mockito.verify(replayListener, Mockito.only()).accept(event1);
+    }
+
+    @Test
+    public void block_cache_retains_only_most_recent_blocks() throws Exception {
+        useBlockCache(2);
+        for (long blockNumber = 1; blockNumber <= 3; blockNumber++) {
+            stubBlockEventSource.sendEvent(testUtils.newMockBlockEvent(peer1, blockNumber));
+        }
+        Consumer<BlockEvent> cachedListener = Mockito.spy(testUtils.stubBlockListener());
+
+        network.addBlockListener(2, cachedListener);
+
+        Mockito.verify(cachedListener, Mockito.times(2)).accept(Mockito.any(BlockEvent.class));
+        OrderedBlockEventSource blockSource = (OrderedBlockEventSource) ((NetworkImpl) network).getBlockSource();
+        assertThat(blockSource.addBlockListener(1, testUtils.stubBlockListener())).isFalse();
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import org.hyperledger.fabric.gateway.Wallet;
+import org.hyperledger.fabric.gateway.Wallet.Identity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachedFileSystemWalletTest extends WalletTest {
+    @TempDir
+    public Path basePath;
+
+    @Override
+    @BeforeEach
+    public void setup() throws Exception {
+        super.setup();
+        wallet = Wallet.createFileSystemWallet(basePath, true);
+    }
+
+    @AfterEach
+    public void afterEach() throws Exception {
+        wallet.close();
+    }
+
+    @Test
+    public void testGetReturnsCachedIdentity() throws Exception {
+        wallet.put("label1", identity1);
+        Identity first = wallet.get("label1");
+        Identity second = wallet.get("label1");
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    public void testSeesIdentitiesAddedByAnotherWallet() throws Exception {
+        Wallet other = Wallet.createFileSystemWallet(basePath);
+        other.put("label1", identity1);
+        assertThat(wallet.exists("label1")).isTrue();
+        assertThat(wallet.get("label1").getMspId()).isEqualTo(identity1.getMspId());
+    }
+
+    @Test
+    public void testPutReplacesCachedIdentity() throws Exception {
+        wallet.close(); // Stop watcher so only put() can invalidate the cache
+        wallet.put("label1", identity1);
+        wallet.get("label1");
+        wallet.put("label1", identity2);
+        assertThat(wallet.get("label1").getMspId()).isEqualTo(identity2.getMspId());
+    }
+
+    @Test
+    public void testExistsServedFromCache() throws Exception {
+        wallet.close(); // Stop watcher so the cache is not updated by file changes
+        wallet.put("label1", identity1);
+        Files.delete(basePath.resolve(Paths.get("label1", "label1")));
+        assertThat(wallet.exists("label1")).isTrue();
+    }
+}
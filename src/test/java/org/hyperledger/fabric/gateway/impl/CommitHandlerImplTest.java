@@ -11,9 +11,12 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import org.hyperledger.fabric.gateway.CommitRejectedException;
 import org.hyperledger.fabric.gateway.Gateway;
 import org.hyperledger.fabric.gateway.GatewayException;
 import org.hyperledger.fabric.gateway.Network;
@@ -22,15 +25,23 @@ import org.hyperledger.fabric.gateway.impl.event.StubBlockEventSource;
 import org.hyperledger.fabric.gateway.impl.event.StubPeerDisconnectEventSource;
 import org.hyperledger.fabric.gateway.spi.CommitHandler;
 import org.hyperledger.fabric.gateway.spi.PeerDisconnectEvent;
+import org.hyperledger.fabric.protos.peer.TransactionPackage.TxValidationCode;
 import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.HFClient;
 import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.TransactionInfo;
+import org.hyperledger.fabric.sdk.exception.ProposalException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -88,6 +99,28 @@ public class CommitHandlerImplTest {
         return event;
     }
 
+    private Channel useCommitPolling() throws Exception {
+        gateway.close();
+
+        Channel channel = testUtils.newMockChannel("ch1");
+        HFClient client = testUtils.newMockClient();
+        when(client.getChannel(anyString())).thenReturn(channel);
+        gateway = testUtils.newGatewayBuilder()
+                .client(client)
+                .commitPollingInterval(10, TimeUnit.MILLISECONDS)
+                .connect();
+        network = gateway.getNetwork("ch1");
+        commitHandler = new CommitHandlerImpl(transactionId, network, strategy);
+
+        return channel;
+    }
+
+    private static TransactionInfo newTransactionInfo(TxValidationCode validationCode) {
+        TransactionInfo transactionInfo = mock(TransactionInfo.class);
+        when(transactionInfo.getValidationCode()).thenReturn(validationCode);
+        return transactionInfo;
+    }
+
     private BlockEvent.TransactionEvent sendValidTransactionEvent() {
         return sendValidTransactionEvent(transactionId);
     }
@@ -206,6 +239,19 @@ public class CommitHandlerImplTest {
                 .isInstanceOf(GatewayException.class);
     }
 
+    @Test
+    public void rejected_commit_exposes_validation_code() {
+        when(strategy.onEvent(any())).thenReturn(CommitStrategy.Result.CONTINUE);
+
+        commitHandler.startListening();
+        BlockEvent.TransactionEvent txEvent = testUtils.newInvalidMockTransactionEvent(peer, transactionId, TxValidationCode.MVCC_READ_CONFLICT);
+        blockSource.sendEvent(testUtils.newMockBlockEvent(peer, 1, txEvent));
+
+        assertThatThrownBy(() -> commitHandler.waitForEvents(timeout, timeUnit))
+                .isInstanceOf(CommitRejectedException.class)
+                .hasFieldOrPropertyWithValue("validationCode", TxValidationCode.MVCC_READ_CONFLICT);
+    }
+
     @Test
     public void wait_returns_if_cancelled() {
         commitHandler.startListening();
@@ -231,4 +277,91 @@ public class CommitHandlerImplTest {
         assertThatCode(() -> commitHandler.waitForEvents(timeout, timeUnit))
                 .doesNotThrowAnyException();
     }
+
+    @Test
+    public void async_wait_completes_if_peer_commit_causes_strategy_success() throws Exception {
+        when(strategy.onEvent(any())).thenReturn(CommitStrategy.Result.SUCCESS);
+
+        commitHandler.startListening();
+        CompletableFuture<Void> future = commitHandler.waitForEventsAsync(timeout, timeUnit);
+        sendValidTransactionEvent();
+
+        assertThat(future).isCompleted();
+    }
+
+    @Test
+    public void async_wait_fails_if_peer_commit_fails() {
+        when(strategy.onEvent(any())).thenReturn(CommitStrategy.Result.CONTINUE);
+
+        commitHandler.startListening();
+        CompletableFuture<Void> future = commitHandler.waitForEventsAsync(timeout, timeUnit);
+        sendInvalidTransactionEvent();
+
+        assertThatThrownBy(future::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(GatewayException.class);
+    }
+
+    @Test
+    public void async_wait_fails_on_timeout() {
+        commitHandler.startListening();
+        CompletableFuture<Void> future = commitHandler.waitForEventsAsync(1, TimeUnit.NANOSECONDS);
+
+        assertThatThrownBy(() -> future.get(timeout, timeUnit))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    public void polled_commit_passed_to_strategy() throws Exception {
+        Channel channel = useCommitPolling();
+        TransactionInfo transactionInfo = newTransactionInfo(TxValidationCode.VALID);
+        when(channel.queryTransactionByID(eq(peer), eq(transactionId), any())).thenReturn(transactionInfo);
+        when(strategy.onCommit(peer)).thenReturn(CommitStrategy.Result.SUCCESS);
+
+        commitHandler.startListening();
+        commitHandler.waitForEvents(timeout, timeUnit);
+
+        verify(strategy).onCommit(peer);
+    }
+
+    @Test
+    public void polling_continues_until_transaction_found() throws Exception {
+        Channel channel = useCommitPolling();
+        TransactionInfo transactionInfo = newTransactionInfo(TxValidationCode.VALID);
+        when(channel.queryTransactionByID(eq(peer), eq(transactionId), any()))
+                .thenThrow(new ProposalException("Transaction not found"))
+                .thenReturn(transactionInfo);
+        when(strategy.onCommit(peer)).thenReturn(CommitStrategy.Result.SUCCESS);
+
+        commitHandler.startListening();
+        commitHandler.waitForEvents(timeout, timeUnit);
+
+        verify(channel, times(2)).queryTransactionByID(eq(peer), eq(transactionId), any());
+    }
+
+    @Test
+    public void wait_throws_if_polled_commit_rejected() throws Exception {
+        Channel channel = useCommitPolling();
+        TransactionInfo transactionInfo = newTransactionInfo(TxValidationCode.MVCC_READ_CONFLICT);
+        when(channel.queryTransactionByID(eq(peer), eq(transactionId), any())).thenReturn(transactionInfo);
+
+        commitHandler.startListening();
+
+        assertThatThrownBy(() -> commitHandler.waitForEvents(timeout, timeUnit))
+                .isInstanceOf(CommitRejectedException.class)
+                .hasFieldOrPropertyWithValue("validationCode", TxValidationCode.MVCC_READ_CONFLICT);
+    }
+
+    @Test
+    public void peer_not_polled_after_commit_event() throws Exception {
+        Channel channel = useCommitPolling();
+        when(strategy.onEvent(any())).thenReturn(CommitStrategy.Result.CONTINUE);
+
+        commitHandler.startListening();
+        sendValidTransactionEvent();
+        Thread.sleep(50);
+
+        verify(channel, never()).queryTransactionByID(any(Peer.class), anyString(), any());
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.hyperledger.fabric.gateway.CommitStatus;
+import org.hyperledger.fabric.gateway.Gateway;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.impl.event.StubBlockEventSource;
+import org.hyperledger.fabric.protos.peer.TransactionPackage.TxValidationCode;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.Peer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CommitStatusListenerTest {
+    private static final TestUtils testUtils = TestUtils.getInstance();
+
+    private Gateway gateway;
+    private Network network;
+    private StubBlockEventSource stubBlockEventSource;
+    private final Peer peer1 = testUtils.newMockPeer("peer1");
+    private final Peer peer2 = testUtils.newMockPeer("peer2");
+    private final List<CommitStatus> received = new ArrayList<>();
+    private final Consumer<CommitStatus> listener = received::add;
+
+    @BeforeEach
+    public void beforeEach() throws Exception {
+        stubBlockEventSource = new StubBlockEventSource(); // Must be before network is created
+        gateway = testUtils.newGatewayBuilder().connect();
+        network = gateway.getNetwork("ch1");
+    }
+
+    @AfterEach
+    public void afterEach() {
+        stubBlockEventSource.close();
+        gateway.close();
+    }
+
+    @Test
+    public void add_listener_returns_the_listener() {
+        Consumer<CommitStatus> result = network.addCommitStatusListener(listener);
+
+        assertThat(result).isSameAs(listener);
+    }
+
+    @Test
+    public void listener_receives_status_of_each_transaction() {
+        BlockEvent.TransactionEvent valid = testUtils.newValidMockTransactionEvent(peer1, "tx1");
+        BlockEvent.TransactionEvent invalid = testUtils.newInvalidMockTransactionEvent(peer1, "tx2", TxValidationCode.MVCC_READ_CONFLICT);
+
+        network.addCommitStatusListener(listener);
+        stubBlockEventSource.sendEvent(testUtils.newMockBlockEvent(peer1, 1, valid, invalid));
+
+        assertThat(received).extracting(CommitStatus::getTransactionId).containsExactly("tx1", "tx2");
+        assertThat(received).extracting(CommitStatus::isValid).containsExactly(true, false);
+        assertThat(received).extracting(CommitStatus::getBlockNumber).containsExactly(1L, 1L);
+        assertThat(received.get(1).getValidationCode()).isEqualTo(TxValidationCode.MVCC_READ_CONFLICT);
+    }
+
+    @Test
+    public void listener_does_not_receive_duplicate_blocks_from_other_peers() {
+        BlockEvent.TransactionEvent event1 = testUtils.newValidMockTransactionEvent(peer1, "tx1");
+        BlockEvent.TransactionEvent event2 = testUtils.newValidMockTransactionEvent(peer2, "tx1");
+
+        network.addCommitStatusListener(listener);
+        stubBlockEventSource.sendEvent(testUtils.newMockBlockEvent(peer1, 1, event1));
+        stubBlockEventSource.sendEvent(testUtils.newMockBlockEvent(peer2, 1, event2));
+
+        assertThat(received).hasSize(1);
+    }
+
+    @Test
+    public void removed_listener_does_not_receive_status() {
+        BlockEvent.TransactionEvent event = testUtils.newValidMockTransactionEvent(peer1, "tx1");
+
+        network.addCommitStatusListener(listener);
+        network.removeCommitStatusListener(listener);
+        stubBlockEventSource.sendEvent(testUtils.newMockBlockEvent(peer1, 1, event));
+
+        assertThat(received).isEmpty();
+    }
+}
@@ -10,9 +10,15 @@ import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.cert.CertificateException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -33,6 +39,8 @@ import org.hyperledger.fabric.sdk.Peer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.any;
@@ -437,4 +445,176 @@ public class ContractListenerTest {
 
         verify(listener, never()).accept(any(ContractEvent.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void parallel_checkpoint_listener_receives_all_events() throws IOException, GatewayException {
+        Consumer<ContractEvent> listener = spy(testUtils.stubContractListener());
+        Checkpointer checkpointer = new InMemoryCheckpointer();
+        ChaincodeEvent chaincodeEvent1 = mockChaincodeEvent(chaincodeId, eventName + 1);
+        ChaincodeEvent chaincodeEvent2 = mockChaincodeEvent(chaincodeId, eventName + 2);
+        BlockEvent blockEvent = newBlockEvent(1, chaincodeEvent1, chaincodeEvent2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            contract.addContractListener(checkpointer, listener, executor);
+            blockSource.sendEvent(blockEvent);
+        } finally {
+            executor.shutdown();
+        }
+
+        verify(listener, times(2)).accept(any(ContractEvent.class));
+        assertThat(checkpointer.getBlockNumber()).isEqualTo(2);
+    }
+
+    @Test
+    public void parallel_checkpoint_listener_does_not_advance_block_on_failure() throws IOException, GatewayException {
+        Consumer<ContractEvent> listener = event -> {
+            if (event.getName().equals("FAIL")) {
+                throw new RuntimeException("Failed to process event");
+            }
+        };
+        Checkpointer checkpointer = new InMemoryCheckpointer();
+        ChaincodeEvent goodEvent = mockChaincodeEvent(chaincodeId, eventName);
+        ChaincodeEvent badEvent = mockChaincodeEvent(chaincodeId, "FAIL");
+        BlockEvent blockEvent = newBlockEvent(1, goodEvent, badEvent);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            contract.addContractListener(checkpointer, listener, executor);
+            blockSource.sendEvent(blockEvent);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(checkpointer.getBlockNumber()).isEqualTo(1);
+        assertThat(checkpointer.getTransactionIds()).hasSize(1);
+    }
+
+    @Test
+    public void parallel_checkpoint_listener_processes_rejected_events_on_calling_thread() throws IOException, GatewayException {
+        Consumer<ContractEvent> listener = spy(testUtils.stubContractListener());
+        Checkpointer checkpointer = new InMemoryCheckpointer();
+        ChaincodeEvent chaincodeEvent1 = mockChaincodeEvent(chaincodeId, eventName + 1);
+        ChaincodeEvent chaincodeEvent2 = mockChaincodeEvent(chaincodeId, eventName + 2);
+        BlockEvent blockEvent = newBlockEvent(1, chaincodeEvent1, chaincodeEvent2);
+        AtomicInteger submitCount = new AtomicInteger();
+        Executor executor = task -> {
+            if (submitCount.incrementAndGet() > 1) {
+                throw new RejectedExecutionException("Executor saturated");
+            }
+            task.run();
+        };
+
+        contract.addContractListener(checkpointer, listener, executor);
+        blockSource.sendEvent(blockEvent);
+
+        verify(listener, times(2)).accept(any(ContractEvent.class));
+        assertThat(checkpointer.getBlockNumber()).isEqualTo(2);
+        assertThat(checkpointer.getTransactionIds()).isEmpty();
+    }
+
+    @Test
+    public void publisher_delivers_only_events_for_this_contract() {
+        List<ContractEvent> received = new ArrayList<>();
+        contract.newContractEventPublisher(10).subscribe(new Subscriber<ContractEvent>() {
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ContractEvent event) {
+                received.add(event);
+            }
+
+            @Override
+            public void onError(Throwable t) { }
+
+            @Override
+            public void onComplete() { }
+        });
+        ChaincodeEvent event = mockChaincodeEvent(chaincodeId, eventName);
+        ChaincodeEvent otherEvent = mockChaincodeEvent("other" + chaincodeId, eventName);
+
+        fireEvents(event, otherEvent);
+
+        assertThat(received).extracting(ContractEvent::getChaincodeId).containsExactly(chaincodeId);
+    }
+
+    @Test
+    public void batch_listener_receives_block_events_in_one_call() {
+        List<List<ContractEvent>> batches = new ArrayList<>();
+        ChaincodeEvent event1 = mockChaincodeEvent(chaincodeId, eventName + 1);
+        ChaincodeEvent event2 = mockChaincodeEvent(chaincodeId, eventName + 2);
+        ChaincodeEvent otherEvent = mockChaincodeEvent("other" + chaincodeId, eventName);
+
+        contract.addContractBatchListener(batches::add);
+        fireEvents(event1, otherEvent, event2);
+
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).extracting(ContractEvent::getName).containsExactly(eventName + 1, eventName + 2);
+    }
+
+    @Test
+    public void batch_listener_not_called_for_block_without_matching_events() {
+        List<List<ContractEvent>> batches = new ArrayList<>();
+
+        contract.addContractBatchListener(batches::add);
+        fireEvents(mockChaincodeEvent("other" + chaincodeId, eventName));
+
+        assertThat(batches).isEmpty();
+    }
+
+    @Test
+    public void removed_batch_listener_does_not_receive_events() {
+        List<List<ContractEvent>> batches = new ArrayList<>();
+        Consumer<List<ContractEvent>> listener = batches::add;
+
+        contract.addContractBatchListener(listener);
+        contract.removeContractBatchListener(listener);
+        fireEvents(mockChaincodeEvent(chaincodeId, eventName));
+
+        assertThat(batches).isEmpty();
+    }
+
+    @Test
+    public void close_contract_removes_batch_listeners() {
+        List<List<ContractEvent>> batches = new ArrayList<>();
+
+        contract.addContractBatchListener(batches::add);
+        ((ContractImpl)contract).close();
+        fireEvents(mockChaincodeEvent(chaincodeId, eventName));
+
+        assertThat(batches).isEmpty();
+    }
+
+    @Test
+    public void checkpointed_batch_listener_advances_checkpoint_per_block() throws IOException {
+        Checkpointer checkpointer = new InMemoryCheckpointer();
+        List<List<ContractEvent>> batches = new ArrayList<>();
+
+        contract.addContractBatchListener(checkpointer, batches::add);
+        blockSource.sendEvent(newBlockEvent(1, mockChaincodeEvent(chaincodeId, eventName), mockChaincodeEvent(chaincodeId, eventName)));
+
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).hasSize(2);
+        assertThat(checkpointer.getBlockNumber()).isEqualTo(2);
+    }
+
+    @Test
+    public void checkpoint_not_advanced_if_batch_listener_fails() throws IOException {
+        Checkpointer checkpointer = new InMemoryCheckpointer();
+        Consumer<List<ContractEvent>> listener = batch -> {
+            throw new RuntimeException("Database unavailable");
+        };
+
+        contract.addContractBatchListener(checkpointer, listener);
+        try {
+            blockSource.sendEvent(newBlockEvent(1, mockChaincodeEvent(chaincodeId, eventName)));
+        } catch (RuntimeException e) {
+            // Ignore listener failure
+        }
+
+        assertThat(checkpointer.getBlockNumber()).isEqualTo(1);
+    }
+}
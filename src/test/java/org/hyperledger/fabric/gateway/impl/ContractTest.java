@@ -9,6 +9,7 @@ package org.hyperledger.fabric.gateway.impl;
 import org.hyperledger.fabric.gateway.Contract;
 import org.hyperledger.fabric.gateway.Gateway;
 import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.PreparedTransaction;
 import org.hyperledger.fabric.gateway.TestUtils;
 import org.hyperledger.fabric.gateway.Transaction;
 import org.junit.jupiter.api.BeforeEach;
@@ -51,4 +52,28 @@ public class ContractTest {
         assertThatThrownBy(() -> contract.createTransaction(null))
                 .isInstanceOf(IllegalArgumentException.class);
     }
+
+    @Test
+    public void testPrepareTransactionWithNamespace() {
+        PreparedTransaction txn = network.getContract("contract2", "name1").prepareTransaction("txn2");
+        assertThat(txn.getName()).isEqualTo("name1:txn2");
+    }
+
+    @Test
+    public void testPreparedTransactionCreatesNewTransactions() {
+        PreparedTransaction prepared = network.getContract("contract").prepareTransaction("txn");
+
+        Transaction txn1 = prepared.createTransaction();
+        Transaction txn2 = prepared.createTransaction();
+
+        assertThat(txn1).isNotSameAs(txn2);
+        assertThat(txn1.getName()).isEqualTo("txn");
+    }
+
+    @Test
+    public void testPrepareTransactionWithEmptyNameThrows() {
+        Contract contract = network.getContract("contract");
+        assertThatThrownBy(() -> contract.prepareTransaction(""))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
 }
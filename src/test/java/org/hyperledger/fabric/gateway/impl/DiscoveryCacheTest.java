@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.BlockInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DiscoveryCacheTest {
+    private static final TestUtils testUtils = TestUtils.getInstance();
+    private static final String CHAINCODE_ID = "chaincode";
+
+    private DiscoveryCache cache;
+
+    @BeforeEach
+    public void beforeEach() {
+        cache = new DiscoveryCache(new TimePeriod(1, TimeUnit.DAYS));
+    }
+
+    @Test
+    public void refresh_required_for_unknown_chaincode() {
+        assertThat(cache.isRefreshRequired(CHAINCODE_ID)).isTrue();
+    }
+
+    @Test
+    public void refresh_not_required_after_refresh() {
+        cache.refreshed(CHAINCODE_ID);
+        assertThat(cache.isRefreshRequired(CHAINCODE_ID)).isFalse();
+    }
+
+    @Test
+    public void refresh_required_after_invalidate() {
+        cache.refreshed(CHAINCODE_ID);
+        cache.invalidate(CHAINCODE_ID);
+        assertThat(cache.isRefreshRequired(CHAINCODE_ID)).isTrue();
+    }
+
+    @Test
+    public void only_one_caller_refreshes_expired_entry() {
+        cache = new DiscoveryCache(new TimePeriod(0, TimeUnit.NANOSECONDS));
+        cache.refreshed(CHAINCODE_ID);
+
+        assertThat(cache.isRefreshRequired(CHAINCODE_ID)).isTrue();
+        assertThat(cache.isRefreshRequired(CHAINCODE_ID)).isFalse();
+    }
+
+    @Test
+    public void config_block_invalidates_all() throws Exception {
+        cache.refreshed(CHAINCODE_ID);
+        BlockEvent blockEvent = testUtils.newMockBlockEvent(testUtils.newMockPeer("peer"), 1);
+        BlockInfo.EnvelopeInfo envelope = mock(BlockInfo.EnvelopeInfo.class);
+        when(envelope.getType()).thenReturn(BlockInfo.EnvelopeType.ENVELOPE);
+        when(blockEvent.getEnvelopeCount()).thenReturn(1);
+        when(blockEvent.getEnvelopeInfo(0)).thenReturn(envelope);
+
+        cache.onBlock(blockEvent);
+
+        assertThat(cache.isRefreshRequired(CHAINCODE_ID)).isTrue();
+    }
+
+    @Test
+    public void transaction_block_does_not_invalidate() throws Exception {
+        cache.refreshed(CHAINCODE_ID);
+        BlockEvent blockEvent = testUtils.newMockBlockEvent(testUtils.newMockPeer("peer"), 1);
+        BlockInfo.EnvelopeInfo envelope = mock(BlockInfo.EnvelopeInfo.class);
+        when(envelope.getType()).thenReturn(BlockInfo.EnvelopeType.TRANSACTION_ENVELOPE);
+        when(blockEvent.getEnvelopeCount()).thenReturn(1);
+        when(blockEvent.getEnvelopeInfo(0)).thenReturn(envelope);
+
+        cache.onBlock(blockEvent);
+
+        assertThat(cache.isRefreshRequired(CHAINCODE_ID)).isFalse();
+    }
+}
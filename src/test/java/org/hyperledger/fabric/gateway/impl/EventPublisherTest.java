@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hyperledger.fabric.gateway.Gateway;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.impl.event.StubBlockEventSource;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.Peer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EventPublisherTest {
+    private static final TestUtils testUtils = TestUtils.getInstance();
+
+    private Gateway gateway;
+    private Network network;
+    private StubBlockEventSource stubBlockEventSource;
+    private final Peer peer = testUtils.newMockPeer("peer1");
+
+    private static final class RecordingSubscriber implements Subscriber<BlockEvent> {
+        final List<BlockEvent> events = new ArrayList<>();
+        Subscription subscription;
+        Throwable error;
+        boolean completed = false;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(BlockEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
+    @BeforeEach
+    public void beforeEach() throws Exception {
+        stubBlockEventSource = new StubBlockEventSource(); // Must be before network is created
+        gateway = testUtils.newGatewayBuilder().connect();
+        network = gateway.getNetwork("ch1");
+    }
+
+    @AfterEach
+    public void afterEach() {
+        stubBlockEventSource.close();
+        gateway.close();
+    }
+
+    private RecordingSubscriber subscribe(int bufferSize) {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        network.newBlockPublisher(bufferSize).subscribe(subscriber);
+        return subscriber;
+    }
+
+    private BlockEvent sendBlock(long blockNumber) {
+        BlockEvent event = testUtils.newMockBlockEvent(peer, blockNumber);
+        stubBlockEventSource.sendEvent(event);
+        return event;
+    }
+
+    @Test
+    public void invalid_buffer_size_throws() {
+        assertThatThrownBy(() -> network.newBlockPublisher(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void subscriber_receives_subscription() {
+        RecordingSubscriber subscriber = subscribe(10);
+
+        assertThat(subscriber.subscription).isNotNull();
+    }
+
+    @Test
+    public void events_not_delivered_without_demand() {
+        RecordingSubscriber subscriber = subscribe(10);
+
+        sendBlock(1);
+
+        assertThat(subscriber.events).isEmpty();
+    }
+
+    @Test
+    public void buffered_events_delivered_on_request() {
+        RecordingSubscriber subscriber = subscribe(10);
+        BlockEvent event1 = sendBlock(1);
+        BlockEvent event2 = sendBlock(2);
+
+        subscriber.subscription.request(1);
+        assertThat(subscriber.events).containsExactly(event1);
+
+        subscriber.subscription.request(1);
+        assertThat(subscriber.events).containsExactly(event1, event2);
+    }
+
+    @Test
+    public void events_delivered_while_demand_outstanding() {
+        RecordingSubscriber subscriber = subscribe(10);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        BlockEvent event1 = sendBlock(1);
+        BlockEvent event2 = sendBlock(2);
+
+        assertThat(subscriber.events).containsExactly(event1, event2);
+    }
+
+    @Test
+    public void buffer_overflow_signals_error() {
+        RecordingSubscriber subscriber = subscribe(1);
+
+        sendBlock(1);
+        sendBlock(2);
+
+        assertThat(subscriber.error).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void non_positive_request_signals_error() {
+        RecordingSubscriber subscriber = subscribe(10);
+
+        subscriber.subscription.request(0);
+
+        assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void cancelled_subscription_receives_no_events() {
+        RecordingSubscriber subscriber = subscribe(10);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        subscriber.subscription.cancel();
+        sendBlock(1);
+
+        assertThat(subscriber.events).isEmpty();
+    }
+
+    @Test
+    public void subscriptions_complete_when_network_closed() {
+        RecordingSubscriber subscriber = subscribe(10);
+
+        gateway.close();
+
+        assertThat(subscriber.completed).isTrue();
+    }
+
+    @Test
+    public void each_subscriber_receives_events_independently() {
+        Publisher<BlockEvent> publisher = network.newBlockPublisher(10);
+        RecordingSubscriber subscriber1 = new RecordingSubscriber();
+        RecordingSubscriber subscriber2 = new RecordingSubscriber();
+        publisher.subscribe(subscriber1);
+        publisher.subscribe(subscriber2);
+        BlockEvent event = sendBlock(1);
+
+        subscriber1.subscription.request(1);
+
+        assertThat(subscriber1.events).containsExactly(event);
+        assertThat(subscriber2.events).isEmpty();
+    }
+}
@@ -14,21 +14,21 @@ import org.junit.jupiter.api.io.TempDir;
 import java.nio.file.Path;
 
 public class FileSystemWalletTest extends WalletTest {
-  @TempDir
-  public Path basePath;
+    @TempDir
+    public Path basePath;
 
-  @Override
-  @BeforeEach
-  public void setup() throws Exception {
-    super.setup();
-    wallet = Wallet.createFileSystemWallet(basePath);
-  }
+    @Override
+    @BeforeEach
+    public void setup() throws Exception {
+        super.setup();
+        wallet = Wallet.createFileSystemWallet(basePath);
+    }
 
-  @Test
-  public void testCreateFolder() throws Exception {
-    // create a wallet getInstance for non-existing folder
-    Path tempDir = basePath.resolve("temp");
-    Wallet existing = Wallet.createFileSystemWallet(tempDir);
-  }
+    @Test
+    public void testCreateFolder() throws Exception {
+        // create a wallet getInstance for non-existing folder
+        Path tempDir = basePath.resolve("temp");
+        Wallet existing = Wallet.createFileSystemWallet(tempDir);
+    }
 
 }
@@ -8,8 +8,10 @@ package org.hyperledger.fabric.gateway.impl;
 
 import org.hyperledger.fabric.gateway.Gateway;
 import org.hyperledger.fabric.gateway.GatewayException;
+import org.hyperledger.fabric.gateway.GatewayPool;
 import org.hyperledger.fabric.gateway.Network;
 import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.Wallet;
 import org.hyperledger.fabric.sdk.Channel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -79,4 +81,82 @@ public class GatewayTest {
 
         assertThat(channel.isShutdown()).isTrue();
     }
+
+    @Test
+    public void testPoolReturnsSameGatewayForSameIdentity() throws Exception {
+        try (GatewayPool pool = builder.connectPool()) {
+            Enrollment enrollment = testUtils.newEnrollment();
+            Wallet.Identity identity = Wallet.Identity.createIdentity("msp2", enrollment.getCertificate(), enrollment.getPrivateKey());
+
+            Gateway gateway1 = pool.getGateway(identity);
+            Gateway gateway2 = pool.getGateway(identity);
+
+            assertThat(gateway1).isSameAs(gateway2);
+            assertThat(gateway1.getIdentity()).isSameAs(identity);
+        }
+    }
+
+    @Test
+    public void testPoolGatewaysShareChannel() throws Exception {
+        try (GatewayPool pool = builder.connectPool()) {
+            Enrollment enrollment1 = testUtils.newEnrollment();
+            Enrollment enrollment2 = testUtils.newEnrollment();
+            Gateway gateway1 = pool.getGateway(Wallet.Identity.createIdentity("msp1", enrollment1.getCertificate(), enrollment1.getPrivateKey()));
+            Gateway gateway2 = pool.getGateway(Wallet.Identity.createIdentity("msp2", enrollment2.getCertificate(), enrollment2.getPrivateKey()));
+
+            assertThat(gateway1).isNotSameAs(gateway2);
+            assertThat(gateway1.getNetwork("assumed").getChannel())
+                    .isSameAs(gateway2.getNetwork("assumed").getChannel());
+        }
+    }
+
+    @Test
+    public void testClosePoolGatewayDoesNotCloseSharedChannel() throws Exception {
+        try (GatewayPool pool = builder.connectPool()) {
+            Enrollment enrollment = testUtils.newEnrollment();
+            Gateway gateway = pool.getGateway(Wallet.Identity.createIdentity("msp2", enrollment.getCertificate(), enrollment.getPrivateKey()));
+            Channel channel = gateway.getNetwork("assumed").getChannel();
+
+            gateway.close();
+
+            assertThat(channel.isShutdown()).isFalse();
+        }
+    }
+
+    @Test
+    public void testPoolReturnsNewGatewayAfterPoolGatewayClosed() throws Exception {
+        try (GatewayPool pool = builder.connectPool()) {
+            Enrollment enrollment = testUtils.newEnrollment();
+            Wallet.Identity identity = Wallet.Identity.createIdentity("msp2", enrollment.getCertificate(), enrollment.getPrivateKey());
+            Gateway gateway1 = pool.getGateway(identity);
+
+            gateway1.close();
+            Gateway gateway2 = pool.getGateway(identity);
+
+            assertThat(gateway2).isNotSameAs(gateway1);
+        }
+    }
+
+    @Test
+    public void testGetGatewayFromClosedPoolThrows() throws Exception {
+        GatewayPool pool = builder.connectPool();
+        pool.close();
+        Enrollment enrollment = testUtils.newEnrollment();
+        Wallet.Identity identity = Wallet.Identity.createIdentity("msp2", enrollment.getCertificate(), enrollment.getPrivateKey());
+
+        assertThatThrownBy(() -> pool.getGateway(identity))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testClosePoolClosesSharedChannel() throws Exception {
+        GatewayPool pool = builder.connectPool();
+        Enrollment enrollment = testUtils.newEnrollment();
+        Gateway gateway = pool.getGateway(Wallet.Identity.createIdentity("msp2", enrollment.getCertificate(), enrollment.getPrivateKey()));
+        Channel channel = gateway.getNetwork("assumed").getChannel();
+
+        pool.close();
+
+        assertThat(channel.isShutdown()).isTrue();
+    }
 }
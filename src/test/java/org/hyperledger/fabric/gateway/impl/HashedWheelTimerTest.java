@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HashedWheelTimerTest {
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    public void beforeEach() {
+        timer = new HashedWheelTimer("test", new TimePeriod(10, TimeUnit.MILLISECONDS), 8);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        timer.close();
+    }
+
+    @Test
+    public void runs_task_after_delay() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        timer.newTimeout(latch::countDown, 50, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void runs_task_with_delay_longer_than_one_rotation() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        timer.newTimeout(latch::countDown, 200, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void does_not_run_cancelled_task() throws Exception {
+        AtomicInteger count = new AtomicInteger(0);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(count::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+        timeout.cancel();
+        timer.newTimeout(latch::countDown, 50, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(count.get()).isZero();
+    }
+
+    @Test
+    public void close_runs_pending_tasks() {
+        AtomicInteger count = new AtomicInteger(0);
+        timer.newTimeout(count::incrementAndGet, 1, TimeUnit.DAYS);
+        timer.newTimeout(count::incrementAndGet, 1, TimeUnit.DAYS);
+
+        timer.close();
+
+        assertThat(count.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void close_does_not_run_cancelled_tasks() {
+        AtomicInteger count = new AtomicInteger(0);
+        timer.newTimeout(count::incrementAndGet, 1, TimeUnit.DAYS).cancel();
+
+        timer.close();
+
+        assertThat(count.get()).isZero();
+    }
+
+    @Test
+    public void throws_if_closed() {
+        timer.close();
+
+        assertThatThrownBy(() -> timer.newTimeout(() -> { }, 1, TimeUnit.SECONDS))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -7,7 +7,19 @@
 package org.hyperledger.fabric.gateway.impl;
 
 import org.hyperledger.fabric.gateway.Wallet;
+import org.hyperledger.fabric.gateway.Wallet.Identity;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class InMemoryWalletTest extends WalletTest {
 
@@ -18,4 +30,63 @@ public class InMemoryWalletTest extends WalletTest {
     wallet = Wallet.createInMemoryWallet();
   }
 
+  @Test
+  public void testGetAllLabelsIsSnapshot() throws Exception {
+    wallet.put("label1", identity1);
+    Set<String> labels = wallet.getAllLabels();
+    wallet.put("label2", identity2);
+    assertThat(labels).containsExactly("label1");
+  }
+
+  @Test
+  public void testPutAll() throws Exception {
+    Map<String, Identity> identities = new HashMap<>();
+    identities.put("label1", identity1);
+    identities.put("label2", identity2);
+
+    wallet.putAll(identities);
+
+    assertThat(wallet.getAllLabels()).containsExactlyInAnyOrder("label1", "label2");
+  }
+
+  @Test
+  public void testCreateFromWallet() throws Exception {
+    wallet.put("label1", identity1);
+    wallet.put("label2", identity2);
+
+    Wallet copy = Wallet.createInMemoryWallet(wallet);
+
+    assertThat(copy.getAllLabels()).containsExactlyInAnyOrder("label1", "label2");
+    assertThat(copy.get("label2").getMspId()).isEqualTo(identity2.getMspId());
+  }
+
+  @Test
+  public void testCreateFromStream() throws Exception {
+    String records = "{\"version\":1}\n" +
+        IdentityCodec.toRecord("label1", identity1) + "\n" +
+        IdentityCodec.toRecord("label2", identity1) + "\n" +
+        IdentityCodec.toRecord("label2", identity2) + "\n" +
+        IdentityCodec.toRecord("label3", identity1) + "\n" +
+        IdentityCodec.toDeletedRecord("label3") + "\n";
+    InputStream in = new ByteArrayInputStream(records.getBytes(StandardCharsets.UTF_8));
+
+    Wallet loaded = Wallet.createInMemoryWallet(in);
+
+    assertThat(loaded.getAllLabels()).containsExactlyInAnyOrder("label1", "label2");
+    Identity identity = loaded.get("label2");
+    assertThat(identity.getMspId()).isEqualTo(identity2.getMspId());
+    assertThat(identity.getCertificate()).isEqualToNormalizingNewlines(identity2.getCertificate());
+  }
+
+  @Test
+  public void testCreateIdentityFromReadersNormalizesCertificate() throws Exception {
+    String certificateCrlf = certificate.trim().replace("\n", "\r\n");
+    String keyPem = IdentityCodec.toPem(pk);
+
+    Identity identity = Identity.createIdentity("msp", new StringReader(certificateCrlf), new StringReader(keyPem));
+
+    assertThat(identity.getCertificate()).isEqualTo(certificate.trim().replace("\r\n", "\n") + "\n");
+    assertThat(identity.getPrivateKey().getEncoded()).isEqualTo(pk.getEncoded());
+  }
+
 }
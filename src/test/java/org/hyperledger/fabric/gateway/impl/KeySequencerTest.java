@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KeySequencerTest {
+    private KeySequencer sequencer;
+
+    @BeforeEach
+    public void beforeEach() {
+        sequencer = new KeySequencer();
+    }
+
+    @Test
+    public void first_operation_may_start_immediately() {
+        KeySequencer.Ticket ticket = sequencer.enqueue("key");
+        assertThat(ticket.getTurn()).isDone();
+    }
+
+    @Test
+    public void operation_with_same_key_waits_for_previous() {
+        KeySequencer.Ticket first = sequencer.enqueue("key");
+        KeySequencer.Ticket second = sequencer.enqueue("key");
+
+        assertThat(second.getTurn()).isNotDone();
+
+        first.release();
+
+        assertThat(second.getTurn()).isDone();
+    }
+
+    @Test
+    public void operation_with_different_key_does_not_wait() {
+        sequencer.enqueue("key1");
+        KeySequencer.Ticket other = sequencer.enqueue("key2");
+
+        assertThat(other.getTurn()).isDone();
+    }
+
+    @Test
+    public void abandoned_operation_does_not_let_next_start_before_earlier_ones_complete() {
+        KeySequencer.Ticket first = sequencer.enqueue("key");
+        KeySequencer.Ticket second = sequencer.enqueue("key");
+        KeySequencer.Ticket third = sequencer.enqueue("key");
+
+        second.release();
+        assertThat(third.getTurn()).isNotDone();
+
+        first.release();
+        assertThat(third.getTurn()).isDone();
+    }
+
+    @Test
+    public void key_may_be_reused_after_all_operations_complete() {
+        sequencer.enqueue("key").release();
+
+        KeySequencer.Ticket ticket = sequencer.enqueue("key");
+
+        assertThat(ticket.getTurn()).isDone();
+    }
+}
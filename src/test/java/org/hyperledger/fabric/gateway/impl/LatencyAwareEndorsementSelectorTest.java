@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.hyperledger.fabric.sdk.ServiceDiscovery.SDChaindcode;
+import org.hyperledger.fabric.sdk.ServiceDiscovery.SDEndorser;
+import org.hyperledger.fabric.sdk.ServiceDiscovery.SDGroup;
+import org.hyperledger.fabric.sdk.ServiceDiscovery.SDLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LatencyAwareEndorsementSelectorTest {
+    private static final TestUtils testUtils = TestUtils.getInstance();
+
+    private LatencyAwareEndorsementSelector selector;
+    private SDEndorser fastEndorser;
+    private SDEndorser slowEndorser;
+    private SDChaindcode chaincode;
+
+    @BeforeEach
+    public void beforeEach() {
+        selector = new LatencyAwareEndorsementSelector();
+        fastEndorser = newMockEndorser("fast:7051");
+        slowEndorser = newMockEndorser("slow:7051");
+
+        SDGroup group = mock(SDGroup.class);
+        when(group.getEndorsers()).thenReturn(Arrays.asList(fastEndorser, slowEndorser));
+        when(group.getStillRequired()).thenReturn(1);
+
+        SDLayout layout = mock(SDLayout.class);
+        when(layout.getSDLGroups()).thenReturn(Collections.singletonList(group));
+
+        chaincode = mock(SDChaindcode.class);
+        when(chaincode.getLayouts()).thenReturn(Collections.singletonList(layout));
+    }
+
+    private SDEndorser newMockEndorser(String endpoint) {
+        SDEndorser endorser = mock(SDEndorser.class);
+        when(endorser.getEndpoint()).thenReturn(endpoint);
+        return endorser;
+    }
+
+    private Collection<ProposalResponse> newResponses(SDEndorser endorser) {
+        Peer peer = testUtils.newMockPeer(endorser.getEndpoint());
+        when(peer.getUrl()).thenReturn("grpcs://" + endorser.getEndpoint());
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse(new byte[0]);
+        when(response.getPeer()).thenReturn(peer);
+        return Collections.singletonList(response);
+    }
+
+    private SDEndorser selectAndComplete() {
+        SDEndorser picked = selector.select(chaincode).endorsers.iterator().next();
+        long latency = picked == fastEndorser ? TimeUnit.MILLISECONDS.toNanos(5) : TimeUnit.MILLISECONDS.toNanos(500);
+        selector.requestCompleted(latency, newResponses(picked));
+        return picked;
+    }
+
+    @Test
+    public void picks_required_number_of_endorsers() {
+        LatencyAwareEndorsementSelector.Selection selection = selector.select(chaincode);
+        selector.requestCompleted(0, null);
+
+        assertThat(selection.endorsers).hasSize(1);
+    }
+
+    @Test
+    public void tries_each_unmeasured_endorser() {
+        SDEndorser first = selectAndComplete();
+        SDEndorser second = selectAndComplete();
+
+        assertThat(Arrays.asList(first, second)).containsExactlyInAnyOrder(fastEndorser, slowEndorser);
+    }
+
+    @Test
+    public void prefers_lowest_latency_endorser() {
+        selectAndComplete();
+        selectAndComplete();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(selectAndComplete()).isSameAs(fastEndorser);
+        }
+    }
+
+    @Test
+    public void avoids_endorser_with_many_in_flight_requests() {
+        selectAndComplete();
+        selectAndComplete();
+
+        // Leave requests in-flight so the fast endorser becomes more expensive than the slow endorser
+        Set<SDEndorser> picked = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            picked.addAll(selector.select(chaincode).endorsers);
+        }
+
+        assertThat(picked).contains(slowEndorser);
+    }
+}
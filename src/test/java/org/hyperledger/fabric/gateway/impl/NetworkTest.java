@@ -6,6 +6,7 @@
 
 package org.hyperledger.fabric.gateway.impl;
 
+import org.hyperledger.fabric.gateway.BlockGapMetrics;
 import org.hyperledger.fabric.gateway.Contract;
 import org.hyperledger.fabric.gateway.Gateway;
 import org.hyperledger.fabric.gateway.Network;
@@ -47,6 +48,15 @@ public class NetworkTest {
         assertThat(gw).isSameAs(gateway);
     }
 
+    @Test
+    public void testBlockGapMetricsAreZeroWithoutGapRecovery() {
+        BlockGapMetrics metrics = network.getBlockGapMetrics();
+
+        assertThat(metrics.getGapCount()).isZero();
+        assertThat(metrics.getBackfillCount()).isZero();
+        assertThat(metrics.getDiscardedEventCount()).isZero();
+    }
+
     @Test
     public void testGetContract() {
         Contract contract = network.getContract("contract1");
@@ -81,6 +91,12 @@ public class NetworkTest {
                 .hasMessage("getContract: name must not be null");
     }
 
+    @Test
+    public void testReadArchivedBlocksThrowsIfArchiveNotEnabled() {
+        assertThatThrownBy(() -> network.readArchivedBlocks(0, block -> { }))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
     @Test
     public void testCloseNetworkShutsDownTheChannel() {
         ((NetworkImpl)network).close();
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.sdk.Peer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OrganizationCommitStrategyTest {
+    private final TestUtils testUtils = TestUtils.getInstance();
+    private CommitStrategy strategy;
+    private Peer org1Peer1;
+    private Peer org1Peer2;
+    private Peer org2Peer1;
+
+    @BeforeEach
+    public void beforeEach() {
+        org1Peer1 = testUtils.newMockPeer("org1peer1");
+        org1Peer2 = testUtils.newMockPeer("org1peer2");
+        org2Peer1 = testUtils.newMockPeer("org2peer1");
+
+        Map<String, Collection<Peer>> organizationPeers = new HashMap<>();
+        organizationPeers.put("Org1MSP", Arrays.asList(org1Peer1, org1Peer2));
+        organizationPeers.put("Org2MSP", Collections.singletonList(org2Peer1));
+        strategy = new OrganizationCommitStrategy(organizationPeers);
+    }
+
+    @Test
+    public void returns_all_organization_peers() {
+        assertThat(new HashSet<>(strategy.getPeers()), equalTo(new HashSet<>(Arrays.asList(org1Peer1, org1Peer2, org2Peer1))));
+    }
+
+    @Test
+    public void continue_if_event_received_from_one_organization() {
+        CommitStrategy.Result result = strategy.onEvent(testUtils.newValidMockTransactionEvent(org1Peer1, "txId"));
+
+        assertThat(result, equalTo(CommitStrategy.Result.CONTINUE));
+    }
+
+    @Test
+    public void success_if_event_received_from_each_organization() {
+        strategy.onEvent(testUtils.newValidMockTransactionEvent(org1Peer1, "txId"));
+        CommitStrategy.Result result = strategy.onEvent(testUtils.newValidMockTransactionEvent(org2Peer1, "txId"));
+
+        assertThat(result, equalTo(CommitStrategy.Result.SUCCESS));
+    }
+
+    @Test
+    public void continue_if_organization_has_remaining_peers_after_disconnect() {
+        CommitStrategy.Result result = strategy.onError(testUtils.newPeerDisconnectedEvent(org1Peer1));
+
+        assertThat(result, equalTo(CommitStrategy.Result.CONTINUE));
+    }
+
+    @Test
+    public void fail_if_all_peers_for_pending_organization_disconnect() {
+        CommitStrategy.Result result = strategy.onError(testUtils.newPeerDisconnectedEvent(org2Peer1));
+
+        assertThat(result, equalTo(CommitStrategy.Result.FAIL));
+    }
+
+    @Test
+    public void success_if_disconnect_after_organization_satisfied() {
+        strategy.onEvent(testUtils.newValidMockTransactionEvent(org2Peer1, "txId"));
+        strategy.onError(testUtils.newPeerDisconnectedEvent(org1Peer1));
+        CommitStrategy.Result result = strategy.onEvent(testUtils.newValidMockTransactionEvent(org1Peer2, "txId"));
+
+        assertThat(result, equalTo(CommitStrategy.Result.SUCCESS));
+    }
+
+    @Test
+    public void throws_if_organization_has_no_peers() {
+        Map<String, Collection<Peer>> organizationPeers = new HashMap<>();
+        organizationPeers.put("Org1MSP", Collections.singletonList(org1Peer1));
+        organizationPeers.put("Org2MSP", Collections.emptyList());
+
+        assertThrows(IllegalArgumentException.class, () -> new OrganizationCommitStrategy(organizationPeers));
+    }
+}
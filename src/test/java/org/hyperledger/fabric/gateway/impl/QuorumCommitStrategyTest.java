@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.sdk.Peer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class QuorumCommitStrategyTest {
+    private final TestUtils testUtils = TestUtils.getInstance();
+    private CommitStrategy strategy;
+    private Collection<Peer> peers;
+    private Peer peer1;
+    private Peer peer2;
+    private Peer peer3;
+
+    @BeforeEach
+    public void beforeEach() {
+        peer1 = testUtils.newMockPeer("peer1");
+        peer2 = testUtils.newMockPeer("peer2");
+        peer3 = testUtils.newMockPeer("peer3");
+        peers = Arrays.asList(peer1, peer2, peer3);
+        strategy = new QuorumCommitStrategy(peers, 2);
+    }
+
+    @Test
+    public void returns_configured_peers() {
+        assertThat(strategy.getPeers(), equalTo(peers));
+    }
+
+    @Test
+    public void continue_if_fewer_than_required_events_received() {
+        CommitStrategy.Result result = strategy.onEvent(testUtils.newValidMockTransactionEvent(peer1, "txId"));
+
+        assertThat(result, equalTo(CommitStrategy.Result.CONTINUE));
+    }
+
+    @Test
+    public void success_if_required_events_received() {
+        strategy.onEvent(testUtils.newValidMockTransactionEvent(peer1, "txId"));
+        CommitStrategy.Result result = strategy.onEvent(testUtils.newValidMockTransactionEvent(peer2, "txId"));
+
+        assertThat(result, equalTo(CommitStrategy.Result.SUCCESS));
+    }
+
+    @Test
+    public void continue_if_quorum_still_possible_after_disconnect() {
+        CommitStrategy.Result result = strategy.onError(testUtils.newPeerDisconnectedEvent(peer1));
+
+        assertThat(result, equalTo(CommitStrategy.Result.CONTINUE));
+    }
+
+    @Test
+    public void fail_if_quorum_no_longer_possible() {
+        strategy.onError(testUtils.newPeerDisconnectedEvent(peer1));
+        CommitStrategy.Result result = strategy.onError(testUtils.newPeerDisconnectedEvent(peer2));
+
+        assertThat(result, equalTo(CommitStrategy.Result.FAIL));
+    }
+
+    @Test
+    public void success_if_one_disconnect_and_required_events_received() {
+        strategy.onError(testUtils.newPeerDisconnectedEvent(peer1));
+        strategy.onEvent(testUtils.newValidMockTransactionEvent(peer2, "txId"));
+        CommitStrategy.Result result = strategy.onEvent(testUtils.newValidMockTransactionEvent(peer3, "txId"));
+
+        assertThat(result, equalTo(CommitStrategy.Result.SUCCESS));
+    }
+
+    @Test
+    public void throws_if_required_less_than_one() {
+        assertThrows(IllegalArgumentException.class, () -> new QuorumCommitStrategy(peers, 0));
+    }
+
+    @Test
+    public void throws_if_required_more_than_peers() {
+        assertThrows(IllegalArgumentException.class, () -> new QuorumCommitStrategy(peers, 4));
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.gateway.Gateway;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.impl.event.StubBlockEventSource;
+import org.hyperledger.fabric.protos.peer.TransactionPackage.TxValidationCode;
+import org.hyperledger.fabric.sdk.BlockchainInfo;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.HFClient;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReconcileTransactionsTest {
+    private static final TestUtils testUtils = TestUtils.getInstance();
+
+    private final Peer peer = testUtils.newMockPeer("peer");
+    private StubBlockEventSource blockSource;
+    private BlockchainInfo blockchainInfo;
+    private Channel channel;
+    private Gateway gateway;
+    private Network network;
+
+    @BeforeEach
+    public void beforeEach() throws Exception {
+        blockSource = new StubBlockEventSource(); // Must be created before network
+
+        blockchainInfo = mock(BlockchainInfo.class);
+        when(blockchainInfo.getHeight()).thenReturn(1L);
+        channel = testUtils.newMockChannel("ch1");
+        when(channel.queryBlockchainInfo(any(User.class))).thenReturn(blockchainInfo);
+
+        HFClient client = testUtils.newMockClient();
+        when(client.getChannel(anyString())).thenReturn(channel);
+
+        Path journalDirectory = testUtils.createTempDirectory();
+        gateway = testUtils.newGatewayBuilder()
+                .client(client)
+                .transactionJournal(journalDirectory)
+                .blockCacheSize(10)
+                .connect();
+        network = gateway.getNetwork("ch1");
+    }
+
+    @AfterEach
+    public void afterEach() {
+        gateway.close();
+        blockSource.close();
+    }
+
+    private TransactionJournal getJournal() {
+        return ((NetworkImpl) network).getJournal();
+    }
+
+    private void recordSent(String transactionId) throws IOException {
+        ((NetworkImpl) network).getJournalForSubmit().sent(transactionId);
+    }
+
+    @Test
+    public void block_height_is_not_queried_when_network_is_created() throws Exception {
+        verify(channel, never()).queryBlockchainInfo(any(User.class));
+    }
+
+    @Test
+    public void transaction_is_pending_from_block_height_on_first_submit() throws Exception {
+        recordSent("txId");
+
+        assertThat(getJournal().getPending()).containsEntry("txId", 1L);
+    }
+
+    @Test
+    public void block_height_is_queried_only_on_first_submit() throws Exception {
+        recordSent("txId1");
+        recordSent("txId2");
+
+        verify(channel, times(1)).queryBlockchainInfo(any(User.class));
+    }
+
+    @Test
+    public void no_results_if_no_pending_transactions() throws Exception {
+        Map<String, TxValidationCode> results = network.reconcileTransactions().get(5, TimeUnit.SECONDS);
+
+        assertThat(results).isEmpty();
+    }
+
+    @Test
+    public void no_results_if_pending_transactions_are_after_last_block() throws Exception {
+        recordSent("txId");
+
+        Map<String, TxValidationCode> results = network.reconcileTransactions().get(5, TimeUnit.SECONDS);
+
+        assertThat(results).isEmpty();
+        assertThat(getJournal().getPending()).containsOnlyKeys("txId");
+    }
+
+    @Test
+    public void replayed_block_completes_pending_transaction() throws Exception {
+        blockSource.sendEvent(testUtils.newMockBlockEvent(peer, 0));
+        recordSent("txId");
+        when(blockchainInfo.getHeight()).thenReturn(2L);
+
+        CompletableFuture<Map<String, TxValidationCode>> future = network.reconcileTransactions();
+        blockSource.sendEvent(testUtils.newMockBlockEvent(peer, 1, testUtils.newValidMockTransactionEvent(peer, "txId")));
+
+        Map<String, TxValidationCode> results = future.get(5, TimeUnit.SECONDS);
+        assertThat(results).containsOnly(entry("txId", TxValidationCode.VALID));
+        assertThat(getJournal().getPending()).isEmpty();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import org.hyperledger.fabric.gateway.Wallet;
+import org.hyperledger.fabric.gateway.Wallet.Identity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFileWalletTest extends WalletTest {
+    @TempDir
+    public Path basePath;
+    private Path walletFile;
+
+    @Override
+    @BeforeEach
+    public void setup() throws Exception {
+        super.setup();
+        walletFile = basePath.resolve("wallet");
+        wallet = Wallet.createSingleFileWallet(walletFile);
+    }
+
+    @AfterEach
+    public void afterEach() throws Exception {
+        wallet.close();
+    }
+
+    @Test
+    public void testReopenRestoresIdentities() throws Exception {
+        wallet.put("label1", identity1);
+        wallet.put("label2", identity2);
+        wallet.put("label1", identity2);
+        wallet.remove("label2");
+        wallet.close();
+
+        wallet = Wallet.createSingleFileWallet(walletFile);
+
+        assertThat(wallet.getAllLabels()).containsExactly("label1");
+        Identity identity = wallet.get("label1");
+        assertThat(identity.getMspId()).isEqualTo(identity2.getMspId());
+        assertThat(identity.getCertificate()).isEqualToNormalizingNewlines(identity2.getCertificate());
+    }
+
+    @Test
+    public void testFileIsLocked() {
+        assertThatThrownBy(() -> Wallet.createSingleFileWallet(walletFile))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void testFileIsLockedAfterCompaction() throws Exception {
+        wallet.put("label1", identity1);
+        wallet.put("label1", identity2);
+        wallet.close();
+
+        wallet = Wallet.createSingleFileWallet(walletFile);
+
+        assertThatThrownBy(() -> Wallet.createSingleFileWallet(walletFile))
+                .isInstanceOf(IOException.class);
+        assertThat(wallet.get("label1").getMspId()).isEqualTo(identity2.getMspId());
+    }
+
+    @Test
+    public void testCloseReleasesLock() throws Exception {
+        wallet.put("label1", identity1);
+        wallet.close();
+
+        wallet = Wallet.createSingleFileWallet(walletFile);
+
+        assertThat(wallet.exists("label1")).isTrue();
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.protos.peer.TransactionPackage.TxValidationCode;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.Peer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TransactionJournalTest {
+    private static final TestUtils testUtils = TestUtils.getInstance();
+
+    private Path file;
+    private Peer peer;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        file = testUtils.getUnusedFilePath();
+        peer = testUtils.newMockPeer("peer");
+    }
+
+    private BlockEvent newBlockEvent(long blockNumber, BlockEvent.TransactionEvent... transactionEvents) {
+        return testUtils.newMockBlockEvent(peer, blockNumber, transactionEvents);
+    }
+
+    @Test
+    public void new_journal_has_no_pending_transactions() throws IOException {
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            assertThat(journal.getPending()).isEmpty();
+        }
+    }
+
+    @Test
+    public void sent_transaction_is_pending_from_next_block() throws IOException {
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            journal.onBlock(newBlockEvent(5));
+            journal.sent("txId");
+
+            assertThat(journal.getPending()).containsEntry("txId", 6L);
+        }
+    }
+
+    @Test
+    public void committed_transaction_is_not_pending() throws IOException {
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            journal.sent("txId");
+            journal.onBlock(newBlockEvent(1, testUtils.newValidMockTransactionEvent(peer, "txId")));
+
+            assertThat(journal.getPending()).isEmpty();
+        }
+    }
+
+    @Test
+    public void sent_transaction_is_pending_from_block_height_before_first_block() throws IOException {
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            journal.setBlockHeight(10);
+            journal.sent("txId");
+
+            assertThat(journal.getPending()).containsEntry("txId", 10L);
+        }
+    }
+
+    @Test
+    public void aborted_transaction_is_not_pending() throws IOException {
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            journal.sent("txId");
+            journal.aborted("txId");
+
+            assertThat(journal.getPending()).isEmpty();
+        }
+
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            assertThat(journal.getPending()).isEmpty();
+        }
+    }
+
+    @Test
+    public void file_is_compacted_when_completed_records_exceed_threshold() throws IOException {
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            journal.sent("pending");
+            for (int i = 0; i < 5000; i++) {
+                journal.sent("txId" + i);
+                journal.aborted("txId" + i);
+            }
+
+            assertThat(Files.readAllLines(file, StandardCharsets.UTF_8)).hasSizeLessThan(100);
+            journal.sent("afterCompact");
+        }
+
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            assertThat(journal.getPending()).containsOnlyKeys("pending", "afterCompact");
+        }
+    }
+
+    @Test
+    public void pending_transactions_are_loaded_from_file() throws IOException {
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            journal.onBlock(newBlockEvent(2));
+            journal.sent("pending");
+            journal.sent("committed");
+            journal.onBlock(newBlockEvent(3, testUtils.newInvalidMockTransactionEvent(peer, "committed", TxValidationCode.MVCC_READ_CONFLICT)));
+        }
+
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            assertThat(journal.getPending())
+                    .containsOnlyKeys("pending")
+                    .containsEntry("pending", 3L);
+        }
+    }
+
+    @Test
+    public void completed_records_are_removed_on_open() throws IOException {
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            for (int i = 0; i < 10; i++) {
+                journal.sent("tx" + i);
+            }
+            journal.onBlock(newBlockEvent(1, testUtils.newValidMockTransactionEvent(peer, "tx0")));
+        }
+        long originalSize = Files.size(file);
+
+        new TransactionJournal(file).close();
+
+        assertThat(Files.size(file)).isLessThan(originalSize);
+    }
+
+    @Test
+    public void incomplete_record_is_ignored() throws IOException {
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            journal.sent("txId");
+        }
+        Files.write(file, "{\"tx\":\"partial".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            assertThat(journal.getPending()).containsOnlyKeys("txId");
+        }
+    }
+
+    @Test
+    public void throws_if_file_already_open() throws IOException {
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            assertThatThrownBy(() -> new TransactionJournal(file))
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    public void throws_if_file_already_open_after_compaction() throws IOException {
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            journal.sent("tx0");
+            journal.onBlock(newBlockEvent(1, testUtils.newValidMockTransactionEvent(peer, "tx0")));
+        }
+
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            assertThatThrownBy(() -> new TransactionJournal(file))
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    public void throws_for_unsupported_version() throws IOException {
+        Files.write(file, "{\"version\":99}\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> new TransactionJournal(file))
+                .isInstanceOf(IOException.class);
+    }
+}
@@ -6,6 +6,8 @@
 
 package org.hyperledger.fabric.gateway.impl;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -14,14 +16,24 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import com.google.protobuf.ByteString;
+import org.hyperledger.fabric.gateway.CommitRejectedException;
 import org.hyperledger.fabric.gateway.Contract;
 import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.EndorsedTransaction;
 import org.hyperledger.fabric.gateway.Gateway;
 import org.hyperledger.fabric.gateway.GatewayException;
+import org.hyperledger.fabric.gateway.PreparedTransaction;
 import org.hyperledger.fabric.gateway.TestUtils;
 import org.hyperledger.fabric.gateway.spi.CommitHandler;
+import org.hyperledger.fabric.protos.peer.FabricProposal;
+import org.hyperledger.fabric.protos.peer.FabricProposalResponse;
+import org.hyperledger.fabric.protos.peer.TransactionPackage.TxValidationCode;
+import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.Channel;
 import org.hyperledger.fabric.sdk.HFClient;
 import org.hyperledger.fabric.sdk.Peer;
@@ -38,8 +50,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyCollection;
+import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -220,4 +237,397 @@ public class TransactionTest {
         verify(channel).sendTransactionProposal(any(TransactionProposalRequest.class), peerCaptor.capture());
         assertThat(peerCaptor.getValue()).containsExactly(peer2);
     }
+
+    @Test
+    public void testDeadlineLimitsOrdererWait() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CompletableFuture<BlockEvent.TransactionEvent> ordererFuture = new CompletableFuture<>();
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class))).thenReturn(ordererFuture);
+
+        assertThatThrownBy(() -> contract.createTransaction("txn")
+                .setDeadline(100, TimeUnit.MILLISECONDS)
+                .submit("arg1"))
+                .isInstanceOf(TimeoutException.class);
+
+        verify(commitHandler).cancelListening();
+        assertThat(ordererFuture).isCancelled();
+    }
+
+    @Test
+    public void testDeadlineLimitsCommitWait() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        contract.createTransaction("txn")
+                .setDeadline(1, TimeUnit.MINUTES)
+                .submit("arg1");
+
+        ArgumentCaptor<Long> timeoutCaptor = ArgumentCaptor.forClass(Long.class);
+        verify(commitHandler).waitForEvents(timeoutCaptor.capture(), eq(TimeUnit.NANOSECONDS));
+        assertThat(timeoutCaptor.getValue()).isLessThanOrEqualTo(TimeUnit.MINUTES.toNanos(1));
+    }
+
+    @Test
+    public void testDeadlineExpiredDuringEndorsementThrowsTimeout() throws Exception {
+        when(channel.sendTransactionProposal(any())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return Collections.singletonList(failureResponse);
+        });
+
+        assertThatThrownBy(() -> contract.createTransaction("txn")
+                .setDeadline(50, TimeUnit.MILLISECONDS)
+                .submit("arg1"))
+                .isInstanceOf(TimeoutException.class);
+        verify(channel, never()).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+
+    @Test
+    public void testSubmitAsyncSuccess() throws Exception {
+        String expected = "successful result";
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse(expected.getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        when(commitHandler.waitForEventsAsync(anyLong(), any(TimeUnit.class), any(Executor.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        byte[] result = contract.createTransaction("txn").submitAsync("arg1").get();
+
+        assertThat(new String(result)).isEqualTo(expected);
+        verify(commitHandler).waitForEventsAsync(timeout.getTime(), timeout.getTimeUnit(), ((GatewayImpl) gateway).getExecutor());
+    }
+
+    @Test
+    public void testSubmitAsyncUnsuccessfulResponse() throws Exception {
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(failureResponse));
+
+        CompletableFuture<byte[]> future = contract.createTransaction("txn").submitAsync("arg1");
+
+        assertThatThrownBy(future::get)
+                .hasCauseInstanceOf(ContractException.class);
+    }
+
+    @Test
+    public void testSubmitAsyncOrdererTimeout() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class))).thenReturn(new CompletableFuture<>());
+
+        CompletableFuture<byte[]> future = contract.createTransaction("txn")
+                .setDeadline(100, TimeUnit.MILLISECONDS)
+                .submitAsync("arg1");
+
+        assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(TimeoutException.class);
+        verify(commitHandler).cancelListening();
+    }
+
+    @Test
+    public void testSubmitRetriesReadConflict() throws Exception {
+        String expected = "successful result";
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse(expected.getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CommitRejectedException conflict = new CommitRejectedException("conflict", "txId", TxValidationCode.MVCC_READ_CONFLICT);
+        doThrow(conflict).doNothing().when(commitHandler).waitForEvents(anyLong(), any(TimeUnit.class));
+
+        byte[] result = contract.createTransaction("txn")
+                .setCommitRetry(1, 1, TimeUnit.MILLISECONDS)
+                .submit("arg1");
+
+        assertThat(new String(result)).isEqualTo(expected);
+        verify(channel, times(2)).sendTransactionProposal(any());
+    }
+
+    @Test
+    public void testSubmitFailsWhenRetriesExhausted() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CommitRejectedException conflict = new CommitRejectedException("conflict", "txId", TxValidationCode.PHANTOM_READ_CONFLICT);
+        doThrow(conflict).when(commitHandler).waitForEvents(anyLong(), any(TimeUnit.class));
+
+        assertThatThrownBy(() -> contract.createTransaction("txn")
+                .setCommitRetry(2, 1, TimeUnit.MILLISECONDS)
+                .submit("arg1"))
+                .isSameAs(conflict);
+        verify(channel, times(3)).sendTransactionProposal(any());
+    }
+
+    @Test
+    public void testSubmitDoesNotRetryWithoutRetryPolicy() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CommitRejectedException conflict = new CommitRejectedException("conflict", "txId", TxValidationCode.MVCC_READ_CONFLICT);
+        doThrow(conflict).when(commitHandler).waitForEvents(anyLong(), any(TimeUnit.class));
+
+        assertThatThrownBy(() -> contract.submitTransaction("txn", "arg1"))
+                .isSameAs(conflict);
+        verify(channel).sendTransactionProposal(any());
+    }
+
+    @Test
+    public void testSubmitDoesNotRetryOtherRejections() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CommitRejectedException rejection = new CommitRejectedException("rejected", "txId", TxValidationCode.ENDORSEMENT_POLICY_FAILURE);
+        doThrow(rejection).when(commitHandler).waitForEvents(anyLong(), any(TimeUnit.class));
+
+        assertThatThrownBy(() -> contract.createTransaction("txn")
+                .setCommitRetry(1, 1, TimeUnit.MILLISECONDS)
+                .submit("arg1"))
+                .isSameAs(rejection);
+        verify(channel).sendTransactionProposal(any());
+    }
+
+    @Test
+    public void testSubmitAsyncRetriesReadConflict() throws Exception {
+        String expected = "successful result";
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse(expected.getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CompletableFuture<Void> conflictFuture = new CompletableFuture<>();
+        conflictFuture.completeExceptionally(new CommitRejectedException("conflict", "txId", TxValidationCode.MVCC_READ_CONFLICT));
+        when(commitHandler.waitForEventsAsync(anyLong(), any(TimeUnit.class), any(Executor.class)))
+                .thenReturn(conflictFuture)
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        byte[] result = contract.createTransaction("txn")
+                .setCommitRetry(1, 1, TimeUnit.MILLISECONDS)
+                .submitAsync("arg1")
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(new String(result)).isEqualTo(expected);
+        verify(channel, times(2)).sendTransactionProposal(any());
+    }
+
+    @Test
+    public void testSubmitWithConflictKeyWaitsForPreviousCommit() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CompletableFuture<Void> firstCommit = new CompletableFuture<>();
+        when(commitHandler.waitForEventsAsync(anyLong(), any(TimeUnit.class), any(Executor.class)))
+                .thenReturn(firstCommit)
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        CompletableFuture<byte[]> first = contract.createTransaction("txn")
+                .setConflictKey("account")
+                .submitAsync("arg1");
+        CompletableFuture<byte[]> second = contract.createTransaction("txn")
+                .setConflictKey("account")
+                .submitAsync("arg2");
+
+        verify(channel).sendTransactionProposal(any());
+        assertThat(second).isNotDone();
+
+        firstCommit.complete(null);
+        second.get(10, TimeUnit.SECONDS);
+
+        assertThat(first).isDone();
+        verify(channel, times(2)).sendTransactionProposal(any());
+    }
+
+    @Test
+    public void testSubmitWithDifferentConflictKeysDoesNotWait() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        when(commitHandler.waitForEventsAsync(anyLong(), any(TimeUnit.class), any(Executor.class))).thenReturn(new CompletableFuture<>());
+
+        contract.createTransaction("txn").setConflictKey("account1").submitAsync("arg1");
+        contract.createTransaction("txn").setConflictKey("account2").submitAsync("arg2");
+
+        verify(channel, times(2)).sendTransactionProposal(any());
+    }
+
+    @Test
+    public void testSubmitWithConflictKeyTimesOutAtDeadline() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        when(commitHandler.waitForEventsAsync(anyLong(), any(TimeUnit.class), any(Executor.class))).thenReturn(new CompletableFuture<>());
+
+        contract.createTransaction("txn").setConflictKey("account").submitAsync("arg1");
+
+        assertThatThrownBy(() -> contract.createTransaction("txn")
+                .setConflictKey("account")
+                .setDeadline(100, TimeUnit.MILLISECONDS)
+                .submit("arg2"))
+                .isInstanceOf(TimeoutException.class);
+        verify(channel).sendTransactionProposal(any());
+    }
+
+    @Test
+    public void testPreparedTransactionEvaluate() throws Exception {
+        String expected = "successful result";
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse(expected.getBytes());
+        when(response.getPeer()).thenReturn(peer1);
+        when(channel.queryByChaincode(any(), anyCollection())).thenReturn(Collections.singletonList(response));
+        PreparedTransaction prepared = contract.prepareTransaction("txn");
+
+        prepared.evaluate("arg1");
+        byte[] result = prepared.evaluate("arg2");
+
+        assertThat(new String(result)).isEqualTo(expected);
+    }
+
+    @Test
+    public void testPreparedTransactionSubmitWithEndorsingPeers() throws Exception {
+        ProposalResponse goodResponse = testUtils.newSuccessfulProposalResponse("result".getBytes());
+        when(channel.sendTransactionProposal(any(TransactionProposalRequest.class), anyCollection()))
+                .thenReturn(Collections.singletonList(goodResponse));
+        PreparedTransaction prepared = contract.prepareTransaction("txn", Collections.singletonList(peer2));
+
+        prepared.submit("arg1");
+        prepared.submit("arg2");
+
+        verify(channel, times(2)).sendTransactionProposal(any(TransactionProposalRequest.class), peerCaptor.capture());
+        assertThat(peerCaptor.getAllValues()).allSatisfy(peers -> assertThat(peers).containsExactly(peer2));
+    }
+
+    private ProposalResponse newProposalResponseWithPayload(byte[] payload) {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse(payload);
+        FabricProposal.ChaincodeAction action = FabricProposal.ChaincodeAction.newBuilder()
+                .setResponse(FabricProposalResponse.Response.newBuilder().setPayload(ByteString.copyFrom(payload)))
+                .build();
+        FabricProposalResponse.ProposalResponsePayload responsePayload = FabricProposalResponse.ProposalResponsePayload.newBuilder()
+                .setExtension(action.toByteString())
+                .build();
+        when(response.getProposalResponse()).thenReturn(FabricProposalResponse.ProposalResponse.newBuilder()
+                .setPayload(responsePayload.toByteString())
+                .build());
+        return response;
+    }
+
+    @Test
+    public void testSubmitWithBinaryArgs() throws Exception {
+        String expected = "successful result";
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse(expected.getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        byte[] result = contract.createTransaction("txn").submit(new byte[] { 0, 1, 2 });
+
+        assertThat(new String(result)).isEqualTo(expected);
+    }
+
+    @Test
+    public void testEvaluateWithBinaryArgs() throws Exception {
+        String expected = "successful result";
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse(expected.getBytes());
+        when(response.getPeer()).thenReturn(peer1);
+        when(channel.queryByChaincode(any(), anyCollection())).thenReturn(Collections.singletonList(response));
+
+        byte[] result = contract.createTransaction("txn").evaluate(new byte[] { 0, 1, 2 });
+
+        assertThat(new String(result)).isEqualTo(expected);
+    }
+
+    @Test
+    public void testSubmitForBuffer() throws Exception {
+        byte[] expected = "successful result".getBytes(StandardCharsets.UTF_8);
+        ProposalResponse response = newProposalResponseWithPayload(expected);
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        ByteBuffer result = contract.createTransaction("txn").submitForBuffer(new byte[] { 0 });
+
+        assertThat(result).isEqualTo(ByteBuffer.wrap(expected));
+        assertThat(result.isReadOnly()).isTrue();
+    }
+
+    @Test
+    public void testEvaluateForBuffer() throws Exception {
+        byte[] expected = "successful result".getBytes(StandardCharsets.UTF_8);
+        ProposalResponse response = newProposalResponseWithPayload(expected);
+        when(response.getPeer()).thenReturn(peer1);
+        when(channel.queryByChaincode(any(), anyCollection())).thenReturn(Collections.singletonList(response));
+
+        ByteBuffer result = contract.createTransaction("txn").evaluateForBuffer(new byte[] { 0 });
+
+        assertThat(result).isEqualTo(ByteBuffer.wrap(expected));
+        assertThat(result.isReadOnly()).isTrue();
+    }
+
+    @Test
+    public void testEndorseDoesNotSendToOrderer() throws Exception {
+        String expected = "successful result";
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse(expected.getBytes());
+        when(response.getTransactionID()).thenReturn("txId");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        EndorsedTransaction endorsed = contract.createTransaction("txn").endorse("arg1");
+
+        assertThat(endorsed.getTransactionId()).isEqualTo("txId");
+        assertThat(new String(endorsed.getResult())).isEqualTo(expected);
+        verify(channel, never()).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+
+    @Test
+    public void testEndorsedTransactionSubmit() throws Exception {
+        String expected = "successful result";
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse(expected.getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        EndorsedTransaction endorsed = contract.createTransaction("txn").endorse("arg1");
+
+        byte[] result = endorsed.submit();
+
+        assertThat(new String(result)).isEqualTo(expected);
+        verify(channel).sendTransaction(proposalResponseCaptor.capture(), any(Channel.TransactionOptions.class));
+        assertThat(proposalResponseCaptor.getValue()).containsExactly(response);
+        verify(commitHandler).waitForEvents(timeout.getTime(), timeout.getTimeUnit());
+    }
+
+    @Test
+    public void testEndorsedTransactionSubmitAsync() throws Exception {
+        String expected = "successful result";
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse(expected.getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        when(commitHandler.waitForEventsAsync(anyLong(), any(TimeUnit.class), any(Executor.class))).thenReturn(CompletableFuture.completedFuture(null));
+        EndorsedTransaction endorsed = contract.createTransaction("txn").endorse("arg1");
+
+        byte[] result = endorsed.submitAsync().get(10, TimeUnit.SECONDS);
+
+        assertThat(new String(result)).isEqualTo(expected);
+    }
+
+    @Test
+    public void testSubmitAsyncAfterGatewayCloseCompletesExceptionally() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        gateway.close();
+
+        CompletableFuture<byte[]> future = contract.createTransaction("txn").submitAsync("arg1");
+
+        assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(ContractException.class);
+    }
+
+    @Test
+    public void testEndorsedTransactionCannotBeSubmittedTwice() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        EndorsedTransaction endorsed = contract.createTransaction("txn").endorse("arg1");
+        endorsed.submit();
+
+        assertThatThrownBy(endorsed::submit)
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testEndorsedTransactionSendDoesNotWaitForCommit() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        EndorsedTransaction endorsed = contract.createTransaction("txn").endorse("arg1");
+
+        endorsed.send();
+
+        verify(channel).sendTransaction(proposalResponseCaptor.capture(), any(Channel.TransactionOptions.class));
+        assertThat(proposalResponseCaptor.getValue()).containsExactly(response);
+        verify(commitHandler, never()).startListening();
+    }
+
+    @Test
+    public void testEndorsedTransactionSendThrowsIfOrdererFails() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result".getBytes());
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CompletableFuture<BlockEvent.TransactionEvent> ordererFuture = new CompletableFuture<>();
+        ordererFuture.completeExceptionally(new Exception("Orderer failure"));
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class))).thenReturn(ordererFuture);
+        EndorsedTransaction endorsed = contract.createTransaction("txn").endorse("arg1");
+
+        assertThatThrownBy(endorsed::send)
+                .isInstanceOf(ContractException.class);
+    }
 }
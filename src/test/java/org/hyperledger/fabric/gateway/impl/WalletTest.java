@@ -16,6 +16,8 @@ import org.junit.jupiter.api.Test;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.PrivateKey;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -99,4 +101,15 @@ public abstract class WalletTest {
         ids = wallet.getAllLabels();
         assertThat(ids).containsExactly("label1");
     }
+
+    @Test
+    public void testGetAll() throws Exception {
+        wallet.put("label1", identity1);
+        wallet.put("label2", identity2);
+
+        Map<String, Identity> identities = wallet.getAll(Arrays.asList("label1", "label2", "missing"));
+
+        assertThat(identities).containsOnlyKeys("label1", "label2");
+        assertThat(identities.get("label2").getMspId()).isEqualTo(identity2.getMspId());
+    }
 }
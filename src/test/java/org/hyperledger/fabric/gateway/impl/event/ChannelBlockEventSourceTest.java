@@ -6,21 +6,29 @@
 
 package org.hyperledger.fabric.gateway.impl.event;
 
+import org.hyperledger.fabric.gateway.GatewayRuntimeException;
 import org.hyperledger.fabric.gateway.TestUtils;
 import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.Peer;
 import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.Mockito.*;
 
 public class ChannelBlockEventSourceTest {
@@ -29,6 +37,10 @@ public class ChannelBlockEventSourceTest {
     private Channel channel;
     private ChannelBlockEventSource blockEventSource;
     private final Map<String, org.hyperledger.fabric.sdk.BlockListener> channelListenerMap = new HashMap<>();
+    private final Map<Peer, Long> standbyStartBlocks = new HashMap<>();
+    private final Map<Peer, Consumer<BlockEvent>> standbyListeners = new HashMap<>();
+    private final Map<Peer, ListenerSession> standbySessions = new HashMap<>();
+    private final Set<Peer> failingStandbyPeers = new HashSet<>();
 
     @BeforeEach
     public void beforeEach() throws Exception {
@@ -143,4 +155,148 @@ public class ChannelBlockEventSourceTest {
         fireBlockEvent(blockEvent);
         verify(listener, times(1)).accept(any());
     }
+
+    private void useFailover(List<Peer> eventSourcePeers, List<Peer> standbyPeers) throws Exception {
+        List<Peer> orgPeers = new ArrayList<>(eventSourcePeers);
+        orgPeers.addAll(standbyPeers);
+        when(channel.getPeersOrganizationMSPIDs()).thenReturn(Collections.singleton("Org1MSP"));
+        when(channel.getPeersForOrganization("Org1MSP")).thenReturn(orgPeers);
+        when(channel.getPeers(any())).thenReturn(eventSourcePeers);
+
+        blockEventSource = new ChannelBlockEventSource(channel, this::newStandbySession, Runnable::run);
+    }
+
+    private ListenerSession newStandbySession(Peer peer, long startBlock, Consumer<BlockEvent> listener) {
+        if (failingStandbyPeers.contains(peer)) {
+            throw new GatewayRuntimeException("Failed to add peers for event replay");
+        }
+        standbyStartBlocks.put(peer, startBlock);
+        standbyListeners.put(peer, listener);
+        ListenerSession session = mock(ListenerSession.class);
+        standbySessions.put(peer, session);
+        return session;
+    }
+
+    @Test
+    public void failover_mode_does_not_modify_channel_peers() throws Exception {
+        Peer eventSourcePeer = testUtils.newMockPeer("peer1");
+        Peer standbyPeer = testUtils.newMockPeer("peer2");
+        useFailover(Collections.singletonList(eventSourcePeer), Collections.singletonList(standbyPeer));
+
+        verify(channel, never()).removePeer(any(Peer.class));
+        verify(channel, never()).addPeer(any(Peer.class), any(Channel.PeerOptions.class));
+        assertThat(blockEventSource.getActiveStandbyPeers()).isEmpty();
+    }
+
+    @Test
+    public void failover_mode_starts_standby_from_last_block_when_event_source_peer_disconnects() throws Exception {
+        Peer failedPeer = testUtils.newMockPeer("peer1");
+        Peer standbyPeer = testUtils.newMockPeer("peer2");
+        StubPeerDisconnectEventSource disconnectSource = new StubPeerDisconnectEventSource(failedPeer);
+        try {
+            useFailover(Collections.singletonList(failedPeer), Collections.singletonList(standbyPeer));
+            fireBlockEvent(testUtils.newMockBlockEvent(failedPeer, 5));
+
+            disconnectSource.sendEvent(testUtils.newPeerDisconnectedEvent(failedPeer));
+
+            assertThat(standbyStartBlocks).containsOnly(entry(standbyPeer, 6L));
+            assertThat(blockEventSource.getActiveStandbyPeers()).containsExactly(standbyPeer);
+            verify(channel, never()).removePeer(any(Peer.class));
+        } finally {
+            disconnectSource.close();
+        }
+    }
+
+    @Test
+    public void failover_mode_forwards_standby_block_events_to_listeners() throws Exception {
+        Peer failedPeer = testUtils.newMockPeer("peer1");
+        Peer standbyPeer = testUtils.newMockPeer("peer2");
+        StubPeerDisconnectEventSource disconnectSource = new StubPeerDisconnectEventSource(failedPeer);
+        try {
+            useFailover(Collections.singletonList(failedPeer), Collections.singletonList(standbyPeer));
+            Consumer<BlockEvent> listener = spy(testUtils.stubBlockListener());
+            blockEventSource.addBlockListener(listener);
+            disconnectSource.sendEvent(testUtils.newPeerDisconnectedEvent(failedPeer));
+
+            BlockEvent standbyEvent = testUtils.newMockBlockEvent(standbyPeer, 1);
+            standbyListeners.get(standbyPeer).accept(standbyEvent);
+
+            verify(listener).accept(standbyEvent);
+        } finally {
+            disconnectSource.close();
+        }
+    }
+
+    @Test
+    public void failover_mode_stops_standby_when_event_source_peer_delivers_events_again() throws Exception {
+        Peer failedPeer = testUtils.newMockPeer("peer1");
+        Peer standbyPeer = testUtils.newMockPeer("peer2");
+        StubPeerDisconnectEventSource disconnectSource = new StubPeerDisconnectEventSource(failedPeer);
+        try {
+            useFailover(Collections.singletonList(failedPeer), Collections.singletonList(standbyPeer));
+            disconnectSource.sendEvent(testUtils.newPeerDisconnectedEvent(failedPeer));
+
+            fireBlockEvent(testUtils.newMockBlockEvent(failedPeer, 1));
+
+            verify(standbySessions.get(standbyPeer)).close();
+            assertThat(blockEventSource.getActiveStandbyPeers()).isEmpty();
+        } finally {
+            disconnectSource.close();
+        }
+    }
+
+    @Test
+    public void failover_mode_tries_next_standby_if_standby_fails_to_start() throws Exception {
+        Peer failedPeer = testUtils.newMockPeer("peer1");
+        Peer brokenPeer = testUtils.newMockPeer("peer2");
+        Peer standbyPeer = testUtils.newMockPeer("peer3");
+        failingStandbyPeers.add(brokenPeer);
+        StubPeerDisconnectEventSource disconnectSource = new StubPeerDisconnectEventSource(failedPeer);
+        try {
+            useFailover(Collections.singletonList(failedPeer), Arrays.asList(brokenPeer, standbyPeer));
+
+            disconnectSource.sendEvent(testUtils.newPeerDisconnectedEvent(failedPeer));
+
+            assertThat(blockEventSource.getActiveStandbyPeers()).containsExactly(standbyPeer);
+        } finally {
+            disconnectSource.close();
+        }
+    }
+
+    @Test
+    public void failover_mode_retries_standby_on_next_disconnect_if_no_standby_started() throws Exception {
+        Peer failedPeer = testUtils.newMockPeer("peer1");
+        Peer standbyPeer = testUtils.newMockPeer("peer2");
+        failingStandbyPeers.add(standbyPeer);
+        StubPeerDisconnectEventSource disconnectSource = new StubPeerDisconnectEventSource(failedPeer);
+        try {
+            useFailover(Collections.singletonList(failedPeer), Collections.singletonList(standbyPeer));
+            disconnectSource.sendEvent(testUtils.newPeerDisconnectedEvent(failedPeer));
+            assertThat(blockEventSource.getActiveStandbyPeers()).isEmpty();
+
+            failingStandbyPeers.clear();
+            disconnectSource.sendEvent(testUtils.newPeerDisconnectedEvent(failedPeer));
+
+            assertThat(blockEventSource.getActiveStandbyPeers()).containsExactly(standbyPeer);
+        } finally {
+            disconnectSource.close();
+        }
+    }
+
+    @Test
+    public void close_stops_active_standby() throws Exception {
+        Peer failedPeer = testUtils.newMockPeer("peer1");
+        Peer standbyPeer = testUtils.newMockPeer("peer2");
+        StubPeerDisconnectEventSource disconnectSource = new StubPeerDisconnectEventSource(failedPeer);
+        try {
+            useFailover(Collections.singletonList(failedPeer), Collections.singletonList(standbyPeer));
+            disconnectSource.sendEvent(testUtils.newPeerDisconnectedEvent(failedPeer));
+
+            blockEventSource.close();
+
+            verify(standbySessions.get(standbyPeer)).close();
+        } finally {
+            disconnectSource.close();
+        }
+    }
 }
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.impl.HashedWheelTimer;
+import org.hyperledger.fabric.gateway.impl.TimePeriod;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.Peer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderedBlockEventSourceTest {
+    private static final TestUtils testUtils = TestUtils.getInstance();
+
+    private final Peer peer = testUtils.newMockPeer("peer");
+    private StubBlockEventSource stubBlockEventSource;
+    private HashedWheelTimer timer;
+    private ListenerSession backfillSession;
+    private BiFunction<Long, Consumer<BlockEvent>, ListenerSession> backfill;
+    private OrderedBlockEventSource blockSource;
+    private Consumer<BlockEvent> listener;
+
+    @BeforeEach
+    public void beforeEach() {
+        stubBlockEventSource = new StubBlockEventSource();
+        timer = new HashedWheelTimer("TestTimer", new TimePeriod(10, TimeUnit.MILLISECONDS), 64);
+        backfillSession = Mockito.mock(ListenerSession.class);
+        backfill = newBackfill(backfillSession);
+        listener = Mockito.spy(testUtils.stubBlockListener());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        if (blockSource != null) {
+            blockSource.close();
+        }
+        stubBlockEventSource.close();
+        timer.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiFunction<Long, Consumer<BlockEvent>, ListenerSession> newBackfill(ListenerSession session) {
+        BiFunction<Long, Consumer<BlockEvent>, ListenerSession> backfill = Mockito.mock(BiFunction.class);
+        Mockito.when(backfill.apply(Mockito.anyLong(), Mockito.any())).thenReturn(session);
+        return backfill;
+    }
+
+    private void useGapRecovery(long timeoutMillis, int windowSize) {
+        OrderedBlockEventSource.GapRecovery gapRecovery = new OrderedBlockEventSource.GapRecovery(timer,
+                new TimePeriod(timeoutMillis, TimeUnit.MILLISECONDS), windowSize, backfill, ForkJoinPool.commonPool());
+        blockSource = new OrderedBlockEventSource(stubBlockEventSource, 1, 0, gapRecovery);
+        blockSource.addBlockListener(listener);
+    }
+
+    private BlockEvent sendEvent(long blockNumber) {
+        BlockEvent event = testUtils.newMockBlockEvent(peer, blockNumber);
+        stubBlockEventSource.sendEvent(event);
+        return event;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Consumer<BlockEvent> verifyBackfillStarted(long startBlock) {
+        ArgumentCaptor<Consumer<BlockEvent>> listenerCaptor = ArgumentCaptor.forClass(Consumer.class);
+        Mockito.verify(backfill, Mockito.timeout(5000)).apply(Mockito.eq(startBlock), listenerCaptor.capture());
+        return listenerCaptor.getValue();
+    }
+
+    @Test
+    public void no_backfill_without_gap() {
+        useGapRecovery(10, 0);
+
+        sendEvent(1);
+        sendEvent(2);
+
+        assertThat(blockSource.getGapCount()).isZero();
+        Mockito.verify(backfill, Mockito.after(100).never()).apply(Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    public void backfill_starts_from_missing_block_after_timeout() {
+        useGapRecovery(10, 0);
+
+        sendEvent(1);
+        sendEvent(3);
+
+        verifyBackfillStarted(2);
+        assertThat(blockSource.getGapCount()).isEqualTo(1);
+        assertThat(blockSource.getBackfillCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void no_backfill_if_missing_block_arrives_before_timeout() {
+        useGapRecovery(500, 0);
+
+        sendEvent(1);
+        sendEvent(3);
+        sendEvent(2);
+
+        Mockito.verify(backfill, Mockito.after(700).never()).apply(Mockito.anyLong(), Mockito.any());
+        assertThat(blockSource.getGapCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void backfilled_events_are_delivered_in_order() {
+        useGapRecovery(10, 0);
+        BlockEvent event1 = sendEvent(1);
+        BlockEvent event3 = sendEvent(3);
+        Consumer<BlockEvent> backfillListener = verifyBackfillStarted(2);
+
+        BlockEvent event2 = testUtils.newMockBlockEvent(peer, 2);
+        backfillListener.accept(event2);
+
+        InOrder orderVerifier = Mockito.inOrder(listener);
+        orderVerifier.verify(listener).accept(event1);
+        orderVerifier.verify(listener).accept(event2);
+        orderVerifier.verify(listener).accept(event3);
+    }
+
+    @Test
+    public void backfill_session_is_closed_when_gap_is_filled() {
+        useGapRecovery(10, 0);
+        sendEvent(1);
+        sendEvent(3);
+        Consumer<BlockEvent> backfillListener = verifyBackfillStarted(2);
+        Mockito.verify(backfillSession, Mockito.after(100).never()).close();
+
+        backfillListener.accept(testUtils.newMockBlockEvent(peer, 2));
+
+        Mockito.verify(backfillSession, Mockito.timeout(5000)).close();
+    }
+
+    @Test
+    public void exceeding_window_size_starts_backfill_without_waiting_for_timeout() {
+        useGapRecovery(60000, 2);
+
+        sendEvent(1);
+        sendEvent(3);
+        sendEvent(4);
+        sendEvent(5);
+
+        verifyBackfillStarted(2);
+        assertThat(blockSource.getDiscardedEventCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void discarded_events_are_received_from_backfill() {
+        useGapRecovery(60000, 1);
+        sendEvent(1);
+        sendEvent(3);
+        sendEvent(4);
+        Consumer<BlockEvent> backfillListener = verifyBackfillStarted(2);
+
+        for (long blockNumber = 2; blockNumber <= 3; blockNumber++) {
+            backfillListener.accept(testUtils.newMockBlockEvent(peer, blockNumber));
+        }
+        Mockito.verify(backfillSession, Mockito.after(100).never()).close();
+        backfillListener.accept(testUtils.newMockBlockEvent(peer, 4));
+
+        Mockito.verify(listener, Mockito.times(4)).accept(Mockito.any(BlockEvent.class));
+        Mockito.verify(backfillSession, Mockito.timeout(5000)).close();
+    }
+
+    @Test
+    public void cached_event_listener_failure_does_not_prevent_later_events() {
+        blockSource = new OrderedBlockEventSource(stubBlockEventSource, -1, 10);
+        sendEvent(1);
+        BlockEvent event2 = sendEvent(2);
+        Mockito.doThrow(new RuntimeException("Listener failure")).doNothing()
+                .when(listener).accept(Mockito.any(BlockEvent.class));
+
+        boolean added = blockSource.addBlockListener(1, listener);
+        BlockEvent event3 = sendEvent(3);
+
+        assertThat(added).isTrue();
+        InOrder orderVerifier = Mockito.inOrder(listener);
+        orderVerifier.verify(listener).accept(event2);
+        orderVerifier.verify(listener).accept(event3);
+    }
+
+    @Test
+    public void removed_cached_event_listener_does_not_receive_events() {
+        blockSource = new OrderedBlockEventSource(stubBlockEventSource, -1, 10);
+        sendEvent(1);
+        blockSource.addBlockListener(1, listener);
+
+        blockSource.removeBlockListener(listener);
+        sendEvent(2);
+
+        Mockito.verify(listener, Mockito.times(1)).accept(Mockito.any(BlockEvent.class));
+    }
+
+    @Test
+    public void stalled_if_no_block_received_within_threshold() throws InterruptedException {
+        blockSource = new OrderedBlockEventSource(stubBlockEventSource);
+        Thread.sleep(50);
+
+        assertThat(blockSource.isStalled(new TimePeriod(10, TimeUnit.MILLISECONDS))).isTrue();
+    }
+
+    @Test
+    public void not_stalled_after_new_block_received() throws InterruptedException {
+        blockSource = new OrderedBlockEventSource(stubBlockEventSource);
+        Thread.sleep(50);
+
+        sendEvent(1);
+
+        assertThat(blockSource.isStalled(new TimePeriod(1, TimeUnit.MINUTES))).isFalse();
+    }
+
+    @Test
+    public void backfill_session_is_closed_on_close() {
+        useGapRecovery(10, 0);
+        sendEvent(1);
+        sendEvent(3);
+        verifyBackfillStarted(2);
+        Mockito.verify(backfillSession, Mockito.after(100).never()).close();
+
+        blockSource.close();
+
+        Mockito.verify(backfillSession).close();
+    }
+}